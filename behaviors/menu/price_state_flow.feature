@@ -110,16 +110,16 @@
       | 产品     | 区域   | 调整金额 |
       | 大杯拿铁 | 华东区 | 2元      |
 
-    # 模拟并发操作
+    # 每个审批人一个线程同时提交
     当 多个审批人同时尝试审批
       | 审批人 | 操作时间 |
       | 李四   | 10:00:00 |
       | 王五   | 10:00:01 |
       | 赵六   | 10:00:02 |
 
-    那么 只有第一个审批应该成功
+    那么 只有一个审批应该成功
     并且 订单状态应为 "已审批"
-    并且 审批人应为 "李四"
+    并且 审批人应为唯一审批成功的人
     并且 其他审批尝试应被拒绝
 
   @state-flow @audit
@@ -47,15 +47,36 @@
     并且 每个变更单应关联正确的区域门店
     并且 总计应影响 350 个门店
 
+  场景: 提前执行的价格变更在生效时间前不影响当前价格
+    假如 华东区"大杯拿铁"存在已执行、生效时间为 "2099-01-01 00:00:00" 的上调2元变更单
+    当 再次提交"大杯拿铁"在华东区的价格调整请求
+    那么 新变更单的原价格应与未生效变更单的原价格相同
+
+  场景: 门店单独定价不作为区域当前价格
+    假如 "大杯摩卡"的全国价格为40元
+    并且 门店 501 在"华中区"的"大杯摩卡"单独定价为45元
+    当 提交"大杯摩卡"在"华中区"上调2元的价格变更单
+    那么 新变更单的原价格应为 40元
+    当 该变更单审批通过并执行完成
+    并且 提交"大杯摩卡"在"华中区"上调2元的价格变更单
+    那么 新变更单的原价格应为 42元
+
   场景: 价格调整异常回滚
-    假如 价格变更单 "PCO-20260204-001" 已审批通过
-    并且 变更已开始执行
-    当 执行过程中第50个门店更新失败
+    假如 "大杯拿铁"在"华西区"上调2元、影响 150 个门店的价格变更单已审批通过
+    当 执行过程中第50至第60个门店更新失败
     那么 系统应自动回滚所有已更新的门店价格
     并且 变更单状态应更新为 "执行失败"
     并且 应记录失败原因 "门店价格同步失败"
+    并且 本单写入的价格历史应已作废
     并且 应通知运营人员和技术支持团队
 
+  场景: 少量门店更新失败时隔离失败门店
+    假如 "大杯拿铁"在"西南区"上调2元、影响 150 个门店的价格变更单已审批通过
+    当 执行过程中第50个门店更新失败
+    那么 变更单状态应更新为 "已完成"
+    并且 第50个门店应隔离待重新同步
+    并且 其余 149 个门店应保存新价格的价格历史
+
   场景: 价格变更历史查询
     假如 系统中存在以下历史价格记录:
       | 产品     | 区域   | 变更时间       | 原价格 | 新价格 |
@@ -115,6 +115,10 @@
       | 任务类型   | 目标服务   | 重试次数 | 状态   |
       | 释放库存   | 库存系统   | 0        | 待执行 |
 
+    当 库存系统恢复正常
+    并且 补偿任务到达重试时间
+    那么 后台应完成补偿任务 "释放库存"
+
   @external-deps @circuit-breaker
   场景大纲: 熔断器保护
     假如 <服务> 连续失败 5 次
@@ -61,6 +61,13 @@
     并且 用户状态应变更为 "已激活"
     并且 应该显示欢迎页面
 
+  @registration @email-verification
+  场景: 验证链接过期
+    假如 用户 "li@example.com" 的验证链接已过期
+    当 用户点击验证邮件中的链接
+    那么 邮箱验证应该失败
+    并且 应该显示错误消息 "验证链接已过期"
+
   @registration @rate-limit
   场景: 防止恶意注册
     假如 IP地址 "192.168.1.100" 在1分钟内已注册3次
@@ -0,0 +1,92 @@
+#!/bin/bash
+
+# 启动耗时与内存测量脚本
+# 由 mvn -Pfast-startup verify 调用，也可单独运行:
+#   ./measure-startup.sh target/skill-bdd-demo-1.0.0-SNAPSHOT.jar target/application.jsa 3
+#
+# 依次以 基线 / AOT / AOT+CDS 三种方式启动应用，记录 Spring 报告的启动耗时、
+# 进程启动到就绪的耗时以及就绪时的常驻内存 (RSS)，结果写入 target/startup-report.txt
+
+set -eo pipefail
+
+JAR=${1:-target/skill-bdd-demo-1.0.0-SNAPSHOT.jar}
+ARCHIVE=${2:-target/application.jsa}
+RUNS=${3:-3}
+REPORT=$(dirname "$JAR")/startup-report.txt
+LOG=$(dirname "$JAR")/startup-run.log
+TIMEOUT=120
+
+if [ ! -f "$JAR" ]; then
+    echo "✗ 未找到应用 jar: $JAR，请先执行 mvn -Pfast-startup package"
+    exit 1
+fi
+
+COMMON_ARGS="-Dapp.integration.local-stubs=true"
+APP_ARGS="--server.port=0"
+
+# 启动一次，输出 "启动耗时(s) 进程耗时(s) RSS(MB)"
+measure() {
+    local jvm_args=$1
+
+    java $jvm_args $COMMON_ARGS -jar "$JAR" $APP_ARGS > "$LOG" 2>&1 &
+    local pid=$!
+
+    local waited=0
+    until grep -q "Started Application in" "$LOG"; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "✗ 应用启动失败，日志见 $LOG" >&2
+            exit 1
+        fi
+        if [ $waited -ge $((TIMEOUT * 10)) ]; then
+            kill $pid
+            echo "✗ 应用在 ${TIMEOUT}s 内未就绪，日志见 $LOG" >&2
+            exit 1
+        fi
+        sleep 0.1
+        waited=$((waited + 1))
+    done
+
+    local rss_kb
+    rss_kb=$(ps -o rss= -p $pid)
+    kill $pid
+    wait $pid 2> /dev/null || true
+
+    # Started Application in 2.345 seconds (process running for 2.789)
+    grep "Started Application in" "$LOG" \
+        | sed -E 's/.*Started Application in ([0-9.]+) seconds \(process running for ([0-9.]+)\).*/\1 \2/' \
+        | awk -v rss="$rss_kb" '{ printf "%s %s %.1f\n", $1, $2, rss / 1024 }'
+}
+
+# 多次启动取平均
+run_mode() {
+    local name=$1
+    local jvm_args=$2
+
+    local results=""
+    for i in $(seq 1 "$RUNS"); do
+        results+="$(measure "$jvm_args")"$'\n'
+    done
+    echo -n "$results" | awk -v name="$name" -v runs="$RUNS" '
+        { started += $1; process += $2; rss += $3 }
+        END { printf "%-10s %12.2f %12.2f %10.1f\n", name, started / runs, process / runs, rss / runs }'
+}
+
+echo "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"
+echo "⏱  启动测量 ($RUNS 次取平均): $JAR"
+echo "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"
+
+{
+    echo "Java: $(java -version 2>&1 | head -n 1)"
+    printf "%-10s %12s %12s %10s\n" "方式" "启动(s)" "进程(s)" "RSS(MB)"
+    run_mode "基线" ""
+    run_mode "AOT" "-Dspring.aot.enabled=true"
+    if [ -f "$ARCHIVE" ]; then
+        run_mode "AOT+CDS" "-Dspring.aot.enabled=true -XX:SharedArchiveFile=$ARCHIVE -Xlog:cds=off"
+    else
+        echo "未找到 CDS 归档 $ARCHIVE，跳过 AOT+CDS"
+    fi
+} | tee "$REPORT"
+
+rm -f "$LOG"
+echo ""
+echo "✓ 测量结果已写入 $REPORT"
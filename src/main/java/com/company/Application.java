@@ -2,11 +2,15 @@ package com.company;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * BDD + SDD Demo Application
  */
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
@@ -0,0 +1,74 @@
+package com.company;
+
+import com.company.menu.domain.CompensationTask;
+import com.company.menu.domain.MemberPointsJournal;
+import com.company.menu.domain.PriceChangeOrder;
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.domain.StorePriceResync;
+import com.company.menu.event.PriceChangedEvent;
+import com.company.menu.integration.HttpPosSystemClient;
+import com.company.user.controller.UserRegistrationController;
+import com.company.user.domain.EmailDeadLetter;
+import com.company.user.domain.User;
+import com.company.user.domain.VerificationToken;
+import com.company.user.service.UserBulkImportService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * 原生镜像反射提示
+ *
+ * 控制器方法声明的请求体、响应体类型由 Spring AOT 自动登记；此处补充 AOT 推断不到的类型：
+ * - 声明为 ResponseEntity<?> 的注册接口响应
+ * - 直接经 ObjectMapper 读写的类型（POS 批量接口、批量导入、价格变更推送），属性类型随之登记
+ * - JPA 实体，Hibernate 通过反射读写字段并调用无参构造
+ *
+ * Lombok 在编译期生成访问器，运行时不需要额外提示。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> JSON_TYPES = List.of(
+        UserRegistrationController.RegisterResponse.class,
+        UserRegistrationController.VerifyEmailResponse.class,
+        UserRegistrationController.ErrorResponse.class,
+        HttpPosSystemClient.BatchRequest.class,
+        HttpPosSystemClient.BatchResponse.class,
+        UserBulkImportService.ImportRow.class,
+        UserBulkImportService.ImportResult.class,
+        UserBulkImportService.ImportSummary.class,
+        PriceChangedEvent.class
+    );
+
+    private static final List<Class<?>> ENTITY_TYPES = List.of(
+        PriceChangeOrder.class,
+        PriceHistory.class,
+        CompensationTask.class,
+        MemberPointsJournal.class,
+        StorePriceResync.class,
+        User.class,
+        VerificationToken.class,
+        EmailDeadLetter.class
+    );
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+
+        for (Class<?> entity : ENTITY_TYPES) {
+            hints.reflection().registerType(entity,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+    }
+}
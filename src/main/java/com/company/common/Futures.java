@@ -0,0 +1,61 @@
+package com.company.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CompletableFuture 工具
+ *
+ * 异步集成接口与同步调用方之间转换时，还原异步阶段中抛出的原始异常，
+ * 调用方看到的异常与直接调用同步接口时一致。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * 等待结果，异步阶段抛出的运行时异常原样抛出
+     *
+     * @param future 异步结果
+     * @return 结果
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    /**
+     * 去掉 CompletionException / ExecutionException 包装
+     *
+     * @param error 异步阶段收到的异常
+     * @return 原始异常
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    private static RuntimeException propagate(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error fatal) {
+            throw fatal;
+        }
+        return new CompletionException(cause);
+    }
+}
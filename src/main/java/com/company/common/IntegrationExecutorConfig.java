@@ -0,0 +1,47 @@
+package com.company.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 外部系统调用线程池
+ *
+ * 异步集成接口由同步实现适配而来时，阻塞调用在此执行:
+ * - 虚拟线程模式 (spring.threads.virtual.enabled=true): 每个调用一个虚拟线程
+ * - 否则为固定大小的平台线程池，队列有界，超出时由调用线程执行
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Configuration
+public class IntegrationExecutorConfig {
+
+    @Bean
+    public AsyncTaskExecutor integrationExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.integration.threads:16}") int threads,
+            @Value("${app.integration.queue-capacity:10000}") int queueCapacity) {
+
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("integration-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("integration-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setDaemon(true);
+        return executor;
+    }
+}
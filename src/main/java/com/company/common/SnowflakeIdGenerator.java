@@ -0,0 +1,62 @@
+package com.company.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分布式 ID 生成器 (Snowflake 风格)
+ *
+ * 64 位 ID 布局:
+ * - 1 位  符号位（恒为 0）
+ * - 41 位 毫秒时间戳（自 2026-01-01 起，约可用 69 年）
+ * - 10 位 节点ID（0 ~ 1023，每个实例通过 app.id.node-id 配置唯一值）
+ * - 12 位 毫秒内序号（单节点每毫秒 4096 个）
+ *
+ * ID 按时间递增，本地生成，无需访问数据库。
+ * 同一毫秒序号用尽或时钟回拨时，沿用上一个时间戳继续递增，保证单节点内严格单调。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Component
+public class SnowflakeIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    // 高位为时间戳、低 12 位为序号，序号溢出时自然进位到下一毫秒
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(@Value("${app.id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点ID必须在 0 ~ " + MAX_NODE_ID + " 之间: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * 生成下一个 ID
+     *
+     * @return 64 位 ID
+     */
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long next = state.updateAndGet(previous ->
+            now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1);
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
@@ -0,0 +1,98 @@
+package com.company.common;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟线程固定 (pinning) 诊断
+ *
+ * 请求运行在虚拟线程上时 (spring.threads.virtual.enabled=true，需 Java 21)，
+ * 在 synchronized 块或本地方法中阻塞会使虚拟线程固定在载体线程上，
+ * 事务内的 JDBC 调用、缓存锁等都可能触发。
+ *
+ * 通过 JFR 事件流订阅 jdk.VirtualThreadPinned，固定时间超过阈值时记录告警和调用栈，
+ * 优先显示本项目代码中的栈帧，便于定位是哪个 @Transactional 方法或同步块导致。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.company.";
+    private static final int MAX_FRAMES = 8;
+
+    private final Duration threshold;
+
+    private final LongAdder pinnedCount = new LongAdder();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${app.virtual-threads.pinning-threshold:PT0.02S}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+
+        log.info("虚拟线程固定诊断已启动 - 阈值: {}ms", threshold.toMillis());
+    }
+
+    /**
+     * 启动以来记录到的固定次数
+     */
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+        log.warn("虚拟线程被固定 - 时长: {}ms, 调用栈: {}", event.getDuration().toMillis(), describe(event));
+    }
+
+    private String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<无>";
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        List<RecordedFrame> appFrames = frames.stream()
+            .filter(frame -> frame.getMethod().getType().getName().startsWith(APP_PACKAGE))
+            .toList();
+
+        return (appFrames.isEmpty() ? frames : appFrames).stream()
+            .limit(MAX_FRAMES)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber())
+            .collect(Collectors.joining(" <- "));
+    }
+}
@@ -0,0 +1,325 @@
+package com.company.menu.archive;
+
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.repository.PriceHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 价格历史冷数据归档服务
+ *
+ * 对应 BDD 场景: "价格变更历史查询"
+ *
+ * 分层存储:
+ * - 热数据: price_history 表，包含生效中和近期失效的记录
+ * - 冷数据: 失效超过 retention 的记录定期压缩为列式归档段 (PriceHistorySegment)，写入归档目录后从表中删除
+ * - 查询: 热表结果与各归档段结果合并，归档段以内存映射方式打开
+ *
+ * 多节点部署:
+ * - 归档目录必须是所有节点共享的存储（如 NFS 挂载），热表记录删除后只能从段文件读回
+ * - 压缩由持有归档租约 (price_history_archive_lease) 的节点执行，其他节点跳过本轮
+ * - 各节点定期按登记表加载其他节点新写入的段；已登记的段在本节点目录中不存在时记录错误，说明目录未共享
+ *
+ * 归档段先落盘，再在同一事务中续期租约、登记段 (price_history_archive_segments) 并删除热表记录:
+ * - 租约已被其他节点接手、或删除的记录数与段不一致时事务回滚，删除段文件，记录仍只在热表中
+ * - 落盘与提交之间进程中断时，段文件未登记，下一个持有租约的节点将其改名为 .orphan 不再加载，
+ *   记录由下次归档重新写入
+ * 因此每条记录只会出现在热表或一个已登记的段中。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class PriceHistoryArchiveService {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String ORPHAN_SUFFIX = ".orphan";
+
+    private static final String INSERT_SEGMENT_SQL =
+        "INSERT INTO price_history_archive_segments (file_name, row_count, min_history_id, max_history_id, created_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SEGMENTS_SQL =
+        "SELECT file_name FROM price_history_archive_segments ORDER BY created_at, file_name";
+
+    private static final String LEASE_NAME = "compaction";
+
+    // 租约空闲、已到期或已由本节点持有时获取（续期）
+    private static final String ACQUIRE_LEASE_SQL =
+        "UPDATE price_history_archive_lease SET owner = ?, expires_at = ? "
+            + "WHERE name = ? AND (owner IS NULL OR owner = ? OR expires_at < ?)";
+
+    private static final String RELEASE_LEASE_SQL =
+        "UPDATE price_history_archive_lease SET owner = NULL, expires_at = NULL WHERE name = ? AND owner = ?";
+
+    private final PriceHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // 已打开的归档段（按加载顺序）
+    private final List<PriceHistorySegment> segments = new CopyOnWriteArrayList<>();
+
+    // 已打开的段文件名，避免重复加载本节点写入的段
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    // 租约持有者标识，段文件名中带上实例标识，不同节点写入的段不会重名
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + instanceId;
+
+    private final boolean enabled;
+
+    // 归档目录
+    private final Path directory;
+
+    // 失效超过该时长的记录归档
+    private final Duration retention;
+
+    // 每个归档段的最大记录数
+    private final int batchSize;
+
+    // 归档租约时长，每批归档时续期，须大于写入一个归档段的耗时
+    private final Duration lease;
+
+    public PriceHistoryArchiveService(
+            PriceHistoryRepository historyRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${menu.pricing.archive.enabled:true}") boolean enabled,
+            @Value("${menu.pricing.archive.directory:data/price-history-archive}") String directory,
+            @Value("${menu.pricing.archive.retention:P365D}") Duration retention,
+            @Value("${menu.pricing.archive.batch-size:50000}") int batchSize,
+            @Value("${menu.pricing.archive.lease:PT30M}") Duration lease) {
+        this.historyRepository = historyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.lease = lease;
+    }
+
+    /**
+     * 启动时打开已登记的归档段
+     */
+    @PostConstruct
+    public void openSegments() {
+        refreshSegments();
+        log.info("价格历史归档段已加载 - 段数: {}, 记录数: {}",
+            segments.size(), segments.stream().mapToLong(PriceHistorySegment::getRowCount).sum());
+    }
+
+    /**
+     * 加载其他节点新登记的归档段
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.archive.refresh-interval:PT5M}")
+    public void refreshSegments() {
+        for (String fileName : jdbcTemplate.queryForList(SELECT_SEGMENTS_SQL, String.class)) {
+            if (!loaded.add(fileName)) {
+                continue;
+            }
+            Path file = directory.resolve(fileName);
+            try {
+                segments.add(PriceHistorySegment.open(file));
+                log.debug("价格历史归档段已加载 - 文件: {}", file);
+            } catch (IOException e) {
+                // 下次刷新时重试
+                loaded.remove(fileName);
+                log.error("价格历史归档段无法打开，请确认归档目录为各节点共享的存储 - 文件: {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 持有归档租约时，将失效超过保留期的记录压缩为归档段
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.archive.interval:PT24H}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        if (!acquireLease()) {
+            log.debug("价格历史归档租约由其他节点持有，跳过本轮归档");
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int archived = 0;
+
+        try {
+            setAsideOrphans();
+
+            List<PriceHistory> batch;
+            do {
+                batch = historyRepository.findByIsActiveFalseAndExpiryTimeBefore(
+                    cutoff, PageRequest.of(0, batchSize, Sort.by("id")));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                PriceHistorySegment segment = archive(batch, cutoff);
+                loaded.add(segment.getPath().getFileName().toString());
+                segments.add(segment);
+                archived += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (IOException | RuntimeException e) {
+            log.error("价格历史归档失败 - 已归档: {}", archived, e);
+        } finally {
+            releaseLease();
+        }
+
+        if (archived > 0) {
+            log.info("价格历史归档完成 - 记录数: {}, 段数: {}", archived, segments.size());
+        }
+    }
+
+    /**
+     * 查询产品在区域的归档记录
+     *
+     * @param productCode 产品编码
+     * @param regionCode 区域代码
+     * @return 各归档段中的记录
+     */
+    public List<PriceHistory> query(String productCode, String regionCode) {
+        return segments.stream()
+            .flatMap(segment -> segment.find(productCode, regionCode).stream())
+            .toList();
+    }
+
+    /**
+     * 当前归档段数
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 写入归档段，并在同一事务中续期租约、登记段、删除热表记录
+     *
+     * 续期的更新锁定租约行直到提交，其他节点在此期间无法接手租约
+     */
+    private PriceHistorySegment archive(List<PriceHistory> rows, LocalDateTime cutoff) throws IOException {
+        PriceHistorySegment segment = writeSegment(rows);
+        List<Long> ids = rows.stream().map(PriceHistory::getId).toList();
+        Long minId = Collections.min(ids);
+        Long maxId = Collections.max(ids);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!acquireLease()) {
+                    throw new IllegalStateException("价格历史归档租约已被其他节点接手");
+                }
+                jdbcTemplate.update(INSERT_SEGMENT_SQL,
+                    segment.getPath().getFileName().toString(),
+                    rows.size(),
+                    minId,
+                    maxId,
+                    Timestamp.valueOf(LocalDateTime.now()));
+                int deleted = historyRepository.deleteArchived(minId, maxId, cutoff);
+                if (deleted != rows.size()) {
+                    throw new IllegalStateException(String.format(
+                        "价格历史记录已被并发修改 - 归档: %d, 删除: %d", rows.size(), deleted));
+                }
+            });
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(segment.getPath());
+            throw e;
+        }
+        return segment;
+    }
+
+    /**
+     * 获取或续期归档租约
+     *
+     * @return 本节点持有租约
+     */
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return jdbcTemplate.update(ACQUIRE_LEASE_SQL,
+            nodeId, Timestamp.valueOf(now.plus(lease)), LEASE_NAME, nodeId, Timestamp.valueOf(now)) == 1;
+    }
+
+    private void releaseLease() {
+        try {
+            jdbcTemplate.update(RELEASE_LEASE_SQL, LEASE_NAME, nodeId);
+        } catch (RuntimeException e) {
+            // 租约到期后由其他节点接手
+            log.warn("价格历史归档租约释放失败 - 节点: {}", nodeId, e);
+        }
+    }
+
+    /**
+     * 搁置未登记的段文件
+     *
+     * 只在持有租约时执行: 段文件只由租约持有者写入，此时未登记的段是此前持有者落盘后未提交的遗留，
+     * 其记录仍在热表中
+     */
+    private void setAsideOrphans() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        Set<String> registered = new HashSet<>(jdbcTemplate.queryForList(SELECT_SEGMENTS_SQL, String.class));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+                if (!registered.contains(file.getFileName().toString())) {
+                    Path orphan = file.resolveSibling(file.getFileName() + ORPHAN_SUFFIX);
+                    Files.move(file, orphan, StandardCopyOption.ATOMIC_MOVE);
+                    log.warn("价格历史归档段未登记，已搁置 - 文件: {}", orphan);
+                }
+            }
+        }
+    }
+
+    private PriceHistorySegment writeSegment(List<PriceHistory> rows) throws IOException {
+        Files.createDirectories(directory);
+
+        String name = String.format("price-history-%s-%s-%04d",
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")),
+            instanceId,
+            sequence.incrementAndGet());
+        Path temp = directory.resolve(name + ".tmp");
+        Path target = directory.resolve(name + SEGMENT_SUFFIX);
+
+        // 写完再改名，启动加载时不会读到不完整的段
+        PriceHistorySegment.write(temp, rows);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        log.debug("价格历史归档段已写入 - 文件: {}, 记录数: {}, 大小: {} 字节",
+            target, rows.size(), Files.size(target));
+
+        return PriceHistorySegment.open(target);
+    }
+}
@@ -0,0 +1,402 @@
+package com.company.menu.archive;
+
+import com.company.menu.domain.PriceHistory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 价格历史归档段（列式存储）
+ *
+ * 对应 BDD 场景: "价格变更历史查询"
+ * - 已失效的冷数据从热表迁出后仍可查询
+ *
+ * 文件格式:
+ * <pre>
+ * 头部:   magic | version | rowCount | priceScale
+ *         字典: count, (length, UTF-8 bytes)*
+ *         块目录: count, (productId, regionId, rowCount, offset, length)*
+ * 数据块: 每个 (产品, 区域) 一个块，块内按生效时间排序，按列连续存放
+ * </pre>
+ *
+ * 列编码（均为变长整数）:
+ * - 字符串: 字典编号 + 1，0 表示空
+ * - ID、门店ID、时间（微秒）、价格（统一小数位的整数值）: 与块内上一行的差值，ZigZag 编码；
+ *   可空列 0 表示空，非空值 +1
+ *
+ * 查询时按 (产品, 区域) 定位到块，只解码该块；文件以内存映射方式只读打开。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public final class PriceHistorySegment {
+
+    private static final int MAGIC = 0x50485347; // "PHSG"
+    private static final int VERSION = 1;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int priceScale;
+    private final String[] dictionary;
+    private final Map<String, Integer> dictionaryIds;
+    private final Map<Long, Block> blocks;
+
+    private PriceHistorySegment(
+            Path path,
+            MappedByteBuffer buffer,
+            int rowCount,
+            int priceScale,
+            String[] dictionary,
+            Map<Long, Block> blocks) {
+        this.path = path;
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.priceScale = priceScale;
+        this.dictionary = dictionary;
+        this.blocks = blocks;
+        this.dictionaryIds = new HashMap<>(dictionary.length * 2);
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionaryIds.put(dictionary[i], i);
+        }
+    }
+
+    /**
+     * 以内存映射方式打开归档段
+     *
+     * @param path 文件路径
+     * @return 归档段
+     * @throws IOException 读取失败或格式不正确
+     */
+    public static PriceHistorySegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("不是有效的价格历史归档段: " + path);
+        }
+        int rowCount = header.getInt();
+        int priceScale = header.getInt();
+
+        String[] dictionary = new String[header.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[header.getInt()];
+            header.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int blockCount = header.getInt();
+        Map<Long, Block> blocks = new HashMap<>(blockCount * 2);
+        for (int i = 0; i < blockCount; i++) {
+            Block block = new Block(header.getInt(), header.getInt(), header.getInt(), header.getLong(), header.getInt());
+            blocks.put(key(block.productId(), block.regionId()), block);
+        }
+
+        return new PriceHistorySegment(path, buffer, rowCount, priceScale, dictionary, blocks);
+    }
+
+    /**
+     * 将价格历史写入归档段文件
+     *
+     * @param path 文件路径
+     * @param rows 价格历史（已失效的记录）
+     * @throws IOException 写入失败
+     */
+    public static void write(Path path, List<PriceHistory> rows) throws IOException {
+        int priceScale = rows.stream()
+            .flatMap(row -> Stream.of(row.getOriginalPrice(), row.getNewPrice()))
+            .filter(Objects::nonNull)
+            .mapToInt(BigDecimal::scale)
+            .max()
+            .orElse(2);
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        Map<Long, List<PriceHistory>> grouped = new LinkedHashMap<>();
+        rows.stream()
+            .sorted(Comparator.comparing(PriceHistory::getProductCode)
+                .thenComparing(PriceHistory::getRegionCode)
+                .thenComparing(PriceHistory::getEffectiveTime))
+            .forEach(row -> grouped.computeIfAbsent(
+                key(intern(dictionary, row.getProductCode()), intern(dictionary, row.getRegionCode())),
+                k -> new ArrayList<>()).add(row));
+
+        List<byte[]> blockData = new ArrayList<>(grouped.size());
+        for (List<PriceHistory> blockRows : grouped.values()) {
+            blockData.add(encodeBlock(blockRows, dictionary, priceScale));
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(rows.size());
+        header.writeInt(priceScale);
+        header.writeInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            header.writeInt(bytes.length);
+            header.write(bytes);
+        }
+
+        // 块目录每项 24 字节，数据块紧跟在目录之后
+        header.writeInt(grouped.size());
+        long offset = headerBytes.size() + 24L * grouped.size();
+        int index = 0;
+        for (Map.Entry<Long, List<PriceHistory>> entry : grouped.entrySet()) {
+            byte[] data = blockData.get(index++);
+            header.writeInt((int) (entry.getKey() >>> 32));
+            header.writeInt((int) entry.getKey().longValue());
+            header.writeInt(entry.getValue().size());
+            header.writeLong(offset);
+            header.writeInt(data.length);
+            offset += data.length;
+        }
+        header.flush();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(headerBytes.toByteArray()));
+            for (byte[] data : blockData) {
+                channel.write(ByteBuffer.wrap(data));
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 查询产品在区域的归档记录
+     *
+     * @param productCode 产品编码
+     * @param regionCode 区域代码
+     * @return 归档记录（按生效时间正序），无记录返回空列表
+     */
+    public List<PriceHistory> find(String productCode, String regionCode) {
+        Integer productId = dictionaryIds.get(productCode);
+        Integer regionId = dictionaryIds.get(regionCode);
+        if (productId == null || regionId == null) {
+            return List.of();
+        }
+
+        Block block = blocks.get(key(productId, regionId));
+        if (block == null) {
+            return List.of();
+        }
+
+        ByteBuffer data = buffer.duplicate();
+        data.position((int) block.offset());
+        data.limit((int) block.offset() + block.length());
+        return decodeBlock(data, block.rowCount(), productCode, regionCode);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // ==================== 编码 ====================
+
+    private static byte[] encodeBlock(List<PriceHistory> rows, Map<String, Integer> dictionary, int priceScale) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writeDeltas(out, rows, PriceHistory::getId);
+        writeDeltas(out, rows, PriceHistory::getStoreId);
+        writeDeltas(out, rows, row -> micros(row.getEffectiveTime()));
+        writeDeltas(out, rows, row -> micros(row.getExpiryTime()));
+        writeDeltas(out, rows, row -> micros(row.getApprovedAt()));
+        writeDeltas(out, rows, row -> micros(row.getCreatedAt()));
+        writeDeltas(out, rows, row -> unscaled(row.getOriginalPrice(), priceScale));
+        writeDeltas(out, rows, row -> unscaled(row.getNewPrice(), priceScale));
+
+        writeStrings(out, rows, dictionary, PriceHistory::getChangeOrderNo);
+        writeStrings(out, rows, dictionary, PriceHistory::getProductName);
+        writeStrings(out, rows, dictionary, PriceHistory::getRegionName);
+        writeStrings(out, rows, dictionary, PriceHistory::getStoreName);
+        writeStrings(out, rows, dictionary, PriceHistory::getChangeReason);
+        writeStrings(out, rows, dictionary, row -> row.getChangeType() == null ? null : row.getChangeType().name());
+        writeStrings(out, rows, dictionary, PriceHistory::getCreatedBy);
+        writeStrings(out, rows, dictionary, PriceHistory::getApprovedBy);
+        writeStrings(out, rows, dictionary, PriceHistory::getRemark);
+
+        return out.toByteArray();
+    }
+
+    private static void writeDeltas(ByteArrayOutputStream out, List<PriceHistory> rows, Function<PriceHistory, Long> column) {
+        long previous = 0;
+        for (PriceHistory row : rows) {
+            Long value = column.apply(row);
+            if (value == null) {
+                writeVarLong(out, 0);
+            } else {
+                writeVarLong(out, zigZag(value - previous) + 1);
+                previous = value;
+            }
+        }
+    }
+
+    private static void writeStrings(
+            ByteArrayOutputStream out,
+            List<PriceHistory> rows,
+            Map<String, Integer> dictionary,
+            Function<PriceHistory, String> column) {
+        for (PriceHistory row : rows) {
+            String value = column.apply(row);
+            writeVarLong(out, value == null ? 0 : intern(dictionary, value) + 1);
+        }
+    }
+
+    // ==================== 解码 ====================
+
+    private List<PriceHistory> decodeBlock(ByteBuffer data, int count, String productCode, String regionCode) {
+        List<PriceHistory> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(PriceHistory.builder()
+                .productCode(productCode)
+                .regionCode(regionCode)
+                .isActive(false)
+                .build());
+        }
+
+        readDeltas(data, rows, PriceHistory::setId);
+        readDeltas(data, rows, PriceHistory::setStoreId);
+        readDeltas(data, rows, (row, value) -> row.setEffectiveTime(fromMicros(value)));
+        readDeltas(data, rows, (row, value) -> row.setExpiryTime(fromMicros(value)));
+        readDeltas(data, rows, (row, value) -> row.setApprovedAt(fromMicros(value)));
+        readDeltas(data, rows, (row, value) -> row.setCreatedAt(fromMicros(value)));
+        readDeltas(data, rows, (row, value) -> row.setOriginalPrice(fromUnscaled(value)));
+        readDeltas(data, rows, (row, value) -> row.setNewPrice(fromUnscaled(value)));
+
+        readStrings(data, rows, PriceHistory::setChangeOrderNo);
+        readStrings(data, rows, PriceHistory::setProductName);
+        readStrings(data, rows, PriceHistory::setRegionName);
+        readStrings(data, rows, PriceHistory::setStoreName);
+        readStrings(data, rows, PriceHistory::setChangeReason);
+        readStrings(data, rows, (row, value) ->
+            row.setChangeType(value == null ? null : PriceHistory.ChangeType.valueOf(value)));
+        readStrings(data, rows, PriceHistory::setCreatedBy);
+        readStrings(data, rows, PriceHistory::setApprovedBy);
+        readStrings(data, rows, PriceHistory::setRemark);
+
+        rows.forEach(PriceHistory::calculatePriceDifference);
+        return rows;
+    }
+
+    private static void readDeltas(ByteBuffer data, List<PriceHistory> rows, BiConsumer<PriceHistory, Long> setter) {
+        long previous = 0;
+        for (PriceHistory row : rows) {
+            long encoded = readVarLong(data);
+            if (encoded == 0) {
+                setter.accept(row, null);
+            } else {
+                previous += unZigZag(encoded - 1);
+                setter.accept(row, previous);
+            }
+        }
+    }
+
+    private void readStrings(ByteBuffer data, List<PriceHistory> rows, BiConsumer<PriceHistory, String> setter) {
+        for (PriceHistory row : rows) {
+            long encoded = readVarLong(data);
+            setter.accept(row, encoded == 0 ? null : dictionary[(int) encoded - 1]);
+        }
+    }
+
+    private BigDecimal fromUnscaled(Long value) {
+        return value == null ? null : BigDecimal.valueOf(value, priceScale);
+    }
+
+    // ==================== 基础编码 ====================
+
+    private static int intern(Map<String, Integer> dictionary, String value) {
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static long key(int productId, int regionId) {
+        return ((long) productId << 32) | (regionId & 0xFFFFFFFFL);
+    }
+
+    private static Long micros(LocalDateTime time) {
+        if (time == null) {
+            return null;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(Long micros) {
+        if (micros == null) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+            ZoneOffset.UTC);
+    }
+
+    private static Long unscaled(BigDecimal price, int scale) {
+        if (price == null) {
+            return null;
+        }
+        BigInteger unscaled = price.setScale(scale).unscaledValue();
+        return unscaled.longValueExact();
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer data) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    /**
+     * 块目录项
+     */
+    private record Block(int productId, int regionId, int rowCount, long offset, int length) {}
+}
@@ -2,17 +2,28 @@ package com.company.menu.controller;
 
 import com.company.menu.domain.PriceChangeOrder;
 import com.company.menu.domain.PriceHistory;
+import com.company.menu.service.PriceChangeStreamService;
+import com.company.menu.service.PriceSnapshotService;
+import com.company.menu.service.PriceSnapshotService.PriceSnapshot;
 import com.company.menu.service.PricingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import javax.validation.Valid;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +39,12 @@ import java.util.List;
  * - POST   /api/v1/pricing/change-orders/{id}/approve  审批变更单
  * - POST   /api/v1/pricing/change-orders/{id}/execute  执行变更
  * - GET    /api/v1/pricing/history                查询价格历史
+ * - GET    /api/v1/pricing/stores/{storeId}/prices/{productCode}  门店查价
+ * - PUT    /api/v1/pricing/stores/{storeId}/prices/{productCode}  设置门店价格
+ * - PUT    /api/v1/pricing/base-prices            设置区域/全国基准价
+ * - GET    /api/v1/pricing/snapshots/stores/{storeId}     门店价格快照
+ * - GET    /api/v1/pricing/snapshots/regions/{regionCode} 区域价格快照
+ * - GET    /api/v1/pricing/stream                 订阅价格变更 (SSE)
  *
  * @author AI-Generated via menu-pricing skill
  * @version 1.0.0
@@ -42,6 +59,8 @@ import java.util.List;
 public class MenuPricingController {
 
     private final PricingService pricingService;
+    private final PriceSnapshotService snapshotService;
+    private final PriceChangeStreamService streamService;
 
     /**
      * 创建价格变更单
@@ -155,6 +174,147 @@ public class MenuPricingController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * 门店查价
+     *
+     * 按 门店价 → 区域价 → 全国价 解析
+     */
+    @GetMapping("/stores/{storeId}/prices/{productCode}")
+    @Operation(summary = "门店查价", description = "解析门店当前的产品价格")
+    public ResponseEntity<StorePriceResponse> resolveStorePrice(
+            @PathVariable @Parameter(description = "门店ID") Long storeId,
+            @PathVariable @Parameter(description = "产品编码") String productCode) {
+
+        return pricingService.resolveStorePrice(storeId, productCode)
+            .map(price -> ResponseEntity.ok(new StorePriceResponse(storeId, productCode, price)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 设置门店价格
+     */
+    @PutMapping("/stores/{storeId}/prices/{productCode}")
+    @Operation(summary = "设置门店价格", description = "设置门店级价格，优先于区域价和全国价")
+    public ResponseEntity<StorePriceResponse> setStorePriceOverride(
+            @PathVariable @Parameter(description = "门店ID") Long storeId,
+            @PathVariable @Parameter(description = "产品编码") String productCode,
+            @Valid @RequestBody SetPriceRequest request) {
+
+        log.info("接收到设置门店价格请求 - 门店: {}, 产品: {}", storeId, productCode);
+
+        PriceHistory history = pricingService.setStorePriceOverride(
+            storeId,
+            request.getRegionCode(),
+            productCode,
+            request.getProductName(),
+            request.getPrice(),
+            request.getChangeReason(),
+            request.getCreatedBy()
+        );
+
+        return ResponseEntity.ok(new StorePriceResponse(storeId, productCode, history.getNewPrice()));
+    }
+
+    /**
+     * 设置区域/全国基准价
+     */
+    @PutMapping("/base-prices")
+    @Operation(summary = "设置基准价", description = "设置区域基准价，区域代码为 NATIONAL 时设置全国价")
+    public ResponseEntity<PriceHistoryResponse> setBasePrice(
+            @RequestParam @Parameter(description = "产品编码") String productCode,
+            @Valid @RequestBody SetPriceRequest request) {
+
+        log.info("接收到设置基准价请求 - 产品: {}, 区域: {}", productCode, request.getRegionCode());
+
+        PriceHistory history = pricingService.setBasePrice(
+            productCode,
+            request.getProductName(),
+            request.getRegionCode(),
+            request.getPrice(),
+            request.getChangeReason(),
+            request.getCreatedBy()
+        );
+
+        return ResponseEntity.ok(PriceHistoryResponse.from(history));
+    }
+
+    /**
+     * 门店价格快照
+     *
+     * 供 POS 终端拉取: 携带 If-None-Match 且版本未变化时返回 304，
+     * 携带 since 时只返回该版本之后变化的价格
+     */
+    @GetMapping("/snapshots/stores/{storeId}")
+    @Operation(summary = "门店价格快照", description = "门店全部生效价格，支持 ETag 和按版本增量")
+    public ResponseEntity<PriceSnapshot> getStoreSnapshot(
+            @PathVariable @Parameter(description = "门店ID") Long storeId,
+            @RequestParam(required = false) @Parameter(description = "已持有的快照版本") String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String version = snapshotService.getStoreVersion(storeId);
+        if (matches(ifNoneMatch, version)) {
+            return notModified(version);
+        }
+        return snapshotResponse(snapshotService.getStoreSnapshot(storeId, since));
+    }
+
+    /**
+     * 区域价格快照
+     *
+     * 供边缘缓存拉取，语义同门店价格快照
+     */
+    @GetMapping("/snapshots/regions/{regionCode}")
+    @Operation(summary = "区域价格快照", description = "区域全部生效价格，支持 ETag 和按版本增量")
+    public ResponseEntity<PriceSnapshot> getRegionSnapshot(
+            @PathVariable @Parameter(description = "区域代码") String regionCode,
+            @RequestParam(required = false) @Parameter(description = "已持有的快照版本") String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String version = snapshotService.getRegionVersion(regionCode);
+        if (matches(ifNoneMatch, version)) {
+            return notModified(version);
+        }
+        return snapshotResponse(snapshotService.getRegionSnapshot(regionCode, since));
+    }
+
+    /**
+     * 订阅价格变更
+     *
+     * 推送 price-change 事件；收到 resync 事件时说明有变更被丢弃，应重新拉取价格快照
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "订阅价格变更", description = "以 Server-Sent Events 推送已生效的价格变更，可按区域和产品过滤")
+    public ResponseEntity<SseEmitter> streamPriceChanges(
+            @RequestParam(required = false) @Parameter(description = "区域代码") String regionCode,
+            @RequestParam(required = false) @Parameter(description = "产品编码") String productCode) {
+
+        return streamService.subscribe(regionCode, productCode)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    private boolean matches(String ifNoneMatch, String version) {
+        return ifNoneMatch != null && ifNoneMatch.contains(etag(version));
+    }
+
+    private ResponseEntity<PriceSnapshot> notModified(String version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag(version))
+            .cacheControl(CacheControl.noCache())
+            .build();
+    }
+
+    private ResponseEntity<PriceSnapshot> snapshotResponse(PriceSnapshot snapshot) {
+        return ResponseEntity.ok()
+            .eTag(etag(snapshot.version()))
+            .cacheControl(CacheControl.noCache())
+            .body(snapshot);
+    }
+
+    private String etag(String version) {
+        return "\"" + version + "\"";
+    }
+
     // ==================== Request/Response DTOs ====================
 
     /**
@@ -238,6 +398,31 @@ public class MenuPricingController {
         }
     }
 
+    /**
+     * 设置价格请求
+     *
+     * 门店价格需要所属区域才能按 门店 → 区域 → 全国 解析，区域代码必填
+     */
+    @lombok.Data
+    public static class SetPriceRequest {
+        private String productName;
+
+        @NotBlank(message = "区域代码不能为空")
+        private String regionCode;
+
+        @NotNull(message = "价格不能为空")
+        @DecimalMin(value = "0.01", message = "价格必须大于0")
+        private BigDecimal price;
+
+        private String changeReason;
+        private String createdBy;
+    }
+
+    /**
+     * 门店价格响应
+     */
+    public record StorePriceResponse(Long storeId, String productCode, BigDecimal price) {}
+
     /**
      * 执行结果响应
      */
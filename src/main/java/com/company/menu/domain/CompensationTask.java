@@ -0,0 +1,164 @@
+package com.company.menu.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 补偿任务（Saga 步骤日志）
+ *
+ * 对应 BDD 场景: "支付成功但库存释放失败的补偿"
+ * - 系统应创建补偿任务: 任务类型、目标服务、重试次数、状态
+ *
+ * 同一个 Saga（如取消订单）的各补偿步骤各占一行，互不依赖，可并行执行；
+ * 执行失败的步骤保持待执行状态，由后台工作线程按退避时间重试。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "compensation_tasks",
+    indexes = {
+        @Index(name = "idx_compensation_tasks_due", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_compensation_tasks_saga", columnList = "sagaId")
+    }
+)
+public class CompensationTask {
+
+    /**
+     * 任务ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 所属 Saga（取消订单时为订单号）
+     */
+    @Column(nullable = false)
+    private String sagaId;
+
+    /**
+     * 任务类型
+     */
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private TaskType taskType;
+
+    /**
+     * 补偿对象（退款为支付ID，释放库存为订单号）
+     */
+    private String targetRef;
+
+    /**
+     * 用户ID（退回积分时使用）
+     */
+    private String userId;
+
+    /**
+     * 积分数（退回积分时使用）
+     */
+    private Integer points;
+
+    /**
+     * 任务状态
+     */
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private TaskStatus status;
+
+    /**
+     * 重试次数（不含首次执行）
+     */
+    private int retryCount;
+
+    /**
+     * 下次执行时间
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 工作线程认领时间，超过租期仍未完成视为工作线程已失效
+     */
+    private LocalDateTime claimedAt;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 完成时间
+     */
+    private LocalDateTime completedAt;
+
+    /**
+     * 任务类型
+     */
+    public enum TaskType {
+        REFUND("退款", "支付网关"),
+        RELEASE_INVENTORY("释放库存", "库存系统"),
+        RESTORE_POINTS("退回积分", "会员系统");
+
+        private final String description;
+        private final String targetService;
+
+        TaskType(String description, String targetService) {
+            this.description = description;
+            this.targetService = targetService;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getTargetService() {
+            return targetService;
+        }
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum TaskStatus {
+        PENDING("待执行"),
+        RUNNING("执行中"),
+        SUCCEEDED("已完成"),
+        FAILED("已放弃");
+
+        private final String description;
+
+        TaskStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.company.menu.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会员积分调整日志
+ *
+ * 结账时积分在本地扣减后立即返回，调整记录写入日志，由后台任务批量回写会员系统。
+ * 幂等键随每次回写一起发送，重试不会重复扣减。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "member_points_journal",
+    indexes = {
+        @Index(name = "idx_member_points_journal_pending", columnList = "status, id"),
+        @Index(name = "idx_member_points_journal_user", columnList = "userId, status")
+    }
+)
+public class MemberPointsJournal {
+
+    /**
+     * 记录ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 幂等键
+     */
+    @Column(nullable = false, unique = true)
+    private String idempotencyKey;
+
+    /**
+     * 用户ID
+     */
+    @Column(nullable = false)
+    private String userId;
+
+    /**
+     * 调整积分数，负数为扣减，正数为增加
+     */
+    private int points;
+
+    /**
+     * 回写状态
+     */
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private JournalStatus status;
+
+    /**
+     * 回写尝试次数
+     */
+    private int attempts;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String failureReason;
+
+    /**
+     * 记录时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 回写成功时间
+     */
+    private LocalDateTime appliedAt;
+
+    /**
+     * 回写状态
+     */
+    public enum JournalStatus {
+        PENDING("待回写"),
+        APPLIED("已回写"),
+        FAILED("回写失败");
+
+        private final String description;
+
+        JournalStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
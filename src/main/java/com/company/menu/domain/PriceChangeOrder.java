@@ -1,13 +1,33 @@
 package com.company.menu.domain;
 
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import javax.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 价格变更单领域模型
@@ -21,22 +41,41 @@ import java.util.List;
  * - 场景: 单一区域价格上调
  * - 场景: 价格变更审批通过后自动生效
  *
+ * 按单号读取由 PriceChangeOrderCache 缓存，不使用 Hibernate 二级缓存:
+ * 状态流转为批量更新，每次提交都会使整个实体区域失效，二级缓存几乎不会命中
+ *
  * @author AI-Generated via menu-pricing skill
  * @version 1.0.0
  * @since 2026-02-04
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@Entity
+@Table(
+    name = "price_change_orders",
+    indexes = {
+        @Index(name = "uk_price_change_orders_order_no", columnList = "orderNo", unique = true),
+        @Index(name = "idx_price_change_orders_status_effective", columnList = "status, effectiveDate")
+    }
+)
 public class PriceChangeOrder {
 
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
     /**
      * 变更单号 (格式: PCO-YYYYMMDD-序号)
      * 例如: PCO-20260204-001
      */
     @NotBlank(message = "变更单号不能为空")
     @Pattern(regexp = "^PCO-\\d{8}-\\d{3}$", message = "变更单号格式不正确")
+    @Column(nullable = false, length = 16)
     private String orderNo;
 
     /**
@@ -83,6 +122,8 @@ public class PriceChangeOrder {
      * 调整类型
      */
     @NotNull(message = "调整类型不能为空")
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private AdjustmentType adjustmentType;
 
     /**
@@ -117,13 +158,24 @@ public class PriceChangeOrder {
 
     /**
      * 影响的门店ID列表
+     *
+     * 每个门店一行，存于 price_change_order_stores，按 order_id 索引
      */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(
+        name = "price_change_order_stores",
+        joinColumns = @JoinColumn(name = "order_id"),
+        indexes = @Index(name = "idx_price_change_order_stores_order", columnList = "order_id")
+    )
+    @Column(name = "store_id")
     private List<Long> affectedStoreIds;
 
     /**
      * 变更单状态
      */
     @NotNull(message = "状态不能为空")
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private OrderStatus status;
 
     /**
@@ -157,11 +209,27 @@ public class PriceChangeOrder {
      */
     private LocalDateTime executionCompletedAt;
 
+    /**
+     * 执行认领时间
+     *
+     * 开始执行时写入，作为执行租约: 超过租期仍在执行中的变更单退回已审批，由其他节点重新执行；
+     * 执行结果只在认领时间未变（租约未被收回）时提交
+     */
+    private LocalDateTime claimedAt;
+
     /**
      * 失败原因
      */
     private String failureReason;
 
+    /**
+     * 乐观锁版本号
+     *
+     * 每次保存或状态流转递增
+     */
+    @Version
+    private Long version;
+
     /**
      * 调整类型枚举
      */
@@ -184,9 +252,10 @@ public class PriceChangeOrder {
     /**
      * 变更单状态枚举
      *
-     * 状态流转:
+     * 状态流转（见 {@link Transition}）:
      * PENDING_APPROVAL → APPROVED → EXECUTING → COMPLETED
      *                             ↘ FAILED
+     * PENDING_APPROVAL / APPROVED → CANCELLED
      */
     public enum OrderStatus {
         PENDING_APPROVAL("待审批"),
@@ -207,6 +276,46 @@ public class PriceChangeOrder {
         }
     }
 
+    /**
+     * 状态流转表
+     *
+     * 每种流转定义允许的源状态和目标状态，所有状态变更都通过该表校验
+     */
+    public enum Transition {
+        APPROVE(OrderStatus.APPROVED, "只有待审批状态的变更单才能审批",
+            OrderStatus.PENDING_APPROVAL),
+        START_EXECUTION(OrderStatus.EXECUTING, "只有已审批的变更单才能执行",
+            OrderStatus.APPROVED),
+        COMPLETE_EXECUTION(OrderStatus.COMPLETED, "只有执行中的变更单才能标记为完成",
+            OrderStatus.EXECUTING),
+        FAIL_EXECUTION(OrderStatus.FAILED, "只有执行中的变更单才能标记为失败",
+            OrderStatus.EXECUTING),
+        CANCEL(OrderStatus.CANCELLED, "只有待审批或已审批的变更单才能取消",
+            OrderStatus.PENDING_APPROVAL, OrderStatus.APPROVED);
+
+        private final OrderStatus target;
+        private final String rejectionMessage;
+        private final Set<OrderStatus> sources;
+
+        Transition(OrderStatus target, String rejectionMessage, OrderStatus... sources) {
+            this.target = target;
+            this.rejectionMessage = rejectionMessage;
+            this.sources = EnumSet.copyOf(Arrays.asList(sources));
+        }
+
+        public OrderStatus getTarget() {
+            return target;
+        }
+
+        public String getRejectionMessage() {
+            return rejectionMessage;
+        }
+
+        public boolean isAllowedFrom(OrderStatus status) {
+            return sources.contains(status);
+        }
+    }
+
     /**
      * 业务规则验证: 价格下调不能超过原价30%
      *
@@ -240,10 +349,7 @@ public class PriceChangeOrder {
      * @param approver 审批人
      */
     public void approve(String approver) {
-        if (this.status != OrderStatus.PENDING_APPROVAL) {
-            throw new IllegalStateException("只有待审批状态的变更单才能审批");
-        }
-        this.status = OrderStatus.APPROVED;
+        transition(Transition.APPROVE);
         this.approvedBy = approver;
         this.approvedAt = LocalDateTime.now();
     }
@@ -252,21 +358,17 @@ public class PriceChangeOrder {
      * 开始执行
      */
     public void startExecution() {
-        if (this.status != OrderStatus.APPROVED) {
-            throw new IllegalStateException("只有已审批的变更单才能执行");
-        }
-        this.status = OrderStatus.EXECUTING;
-        this.executionStartedAt = LocalDateTime.now();
+        transition(Transition.START_EXECUTION);
+        // 截断到数据库时间精度，提交执行结果时按认领时间比较
+        this.executionStartedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        this.claimedAt = this.executionStartedAt;
     }
 
     /**
      * 执行完成
      */
     public void completeExecution() {
-        if (this.status != OrderStatus.EXECUTING) {
-            throw new IllegalStateException("只有执行中的变更单才能标记为完成");
-        }
-        this.status = OrderStatus.COMPLETED;
+        transition(Transition.COMPLETE_EXECUTION);
         this.executionCompletedAt = LocalDateTime.now();
     }
 
@@ -276,11 +378,28 @@ public class PriceChangeOrder {
      * @param reason 失败原因
      */
     public void failExecution(String reason) {
-        if (this.status != OrderStatus.EXECUTING) {
-            throw new IllegalStateException("只有执行中的变更单才能标记为失败");
-        }
-        this.status = OrderStatus.FAILED;
+        transition(Transition.FAIL_EXECUTION);
         this.failureReason = reason;
         this.executionCompletedAt = LocalDateTime.now();
     }
+
+    /**
+     * 取消变更单
+     */
+    public void cancel() {
+        transition(Transition.CANCEL);
+    }
+
+    /**
+     * 按状态流转表校验并变更状态
+     *
+     * @param transition 状态流转
+     * @throws IllegalStateException 当前状态不允许该流转
+     */
+    private void transition(Transition transition) {
+        if (!transition.isAllowedFrom(this.status)) {
+            throw new IllegalStateException(transition.getRejectionMessage());
+        }
+        this.status = transition.getTarget();
+    }
 }
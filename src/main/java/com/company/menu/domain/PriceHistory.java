@@ -1,9 +1,19 @@
 package com.company.menu.domain;
 
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -22,6 +32,13 @@ import java.time.LocalDateTime;
  * - 支持价格历史查询和审计
  * - 提供价格趋势分析数据
  *
+ * 生效区间维护:
+ * - 同一 (产品, 区域, 门店) 任一时刻只有一条生效的记录
+ * - 新价格执行完成时，旧记录以新记录的生效时间为失效时间 (见 PriceHistoryRepository.expireSuperseded)；
+ *   提前执行的变更单在生效时间之前，旧记录仍是当前价格
+ * - 到达失效时间的记录定期置为 isActive = false (见 PriceHistoryRepository.deactivateExpired)
+ * - 当前价格查询只扫描 isActive = true 的记录，并按生效、失效时间判断，不随历史增长变慢
+ *
  * @author AI-Generated via menu-pricing skill
  * @version 1.0.0
  * @since 2026-02-04
@@ -30,11 +47,33 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Entity
+@Table(
+    name = "price_history",
+    indexes = {
+        // 价格历史查询: 产品在区域的全部记录按生效时间倒序
+        @Index(name = "idx_price_history_product_region_time", columnList = "productCode, regionCode, effectiveTime"),
+        // 当前价格查询: 生效中的记录按生效时间倒序取第一条
+        @Index(name = "idx_price_history_active", columnList = "productCode, regionCode, isActive, effectiveTime"),
+        // 执行完成时按门店关闭旧记录
+        @Index(name = "idx_price_history_store_active", columnList = "productCode, regionCode, storeId, isActive"),
+        @Index(name = "idx_price_history_change_order", columnList = "changeOrderNo"),
+        // 冷数据归档
+        @Index(name = "idx_price_history_expiry", columnList = "isActive, expiryTime")
+    }
+)
 public class PriceHistory {
 
+    /**
+     * 全国统一价的区域代码
+     */
+    public static final String NATIONAL_REGION = "NATIONAL";
+
     /**
      * 历史记录ID
      */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     /**
@@ -121,6 +160,8 @@ public class PriceHistory {
      * 变更类型
      */
     @NotNull(message = "变更类型不能为空")
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private ChangeType changeType;
 
     /**
@@ -154,6 +195,29 @@ public class PriceHistory {
      */
     private String remark;
 
+    /**
+     * 价格层级
+     *
+     * 门店价格按 门店 → 区域 → 全国 的顺序解析，取最具体的一级
+     */
+    public enum PriceLevel {
+        NATIONAL,
+        REGION,
+        STORE
+    }
+
+    /**
+     * 该记录所在的价格层级
+     *
+     * @return 有门店ID为门店级；区域代码为 NATIONAL 为全国级；其余为区域级
+     */
+    public PriceLevel priceLevel() {
+        if (storeId != null) {
+            return PriceLevel.STORE;
+        }
+        return NATIONAL_REGION.equals(regionCode) ? PriceLevel.NATIONAL : PriceLevel.REGION;
+    }
+
     /**
      * 变更类型枚举
      */
@@ -0,0 +1,87 @@
+package com.company.menu.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 待重新同步的门店价格（隔离门店）
+ *
+ * 价格变更执行时失败门店数在容忍范围内，变更单照常完成，
+ * 失败的门店记录在此，由后台任务重新推送。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "store_price_resyncs",
+    indexes = {
+        @Index(name = "idx_store_price_resyncs_pending", columnList = "resolvedAt, createdAt"),
+        @Index(name = "idx_store_price_resyncs_product_store", columnList = "productCode, storeId")
+    }
+)
+public class StorePriceResync {
+
+    /**
+     * 记录ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 关联的价格变更单号
+     */
+    private String changeOrderNo;
+
+    /**
+     * 门店ID
+     */
+    private Long storeId;
+
+    /**
+     * 产品编码
+     */
+    private String productCode;
+
+    /**
+     * 应同步的价格
+     */
+    private BigDecimal price;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String failureReason;
+
+    /**
+     * 重新同步尝试次数
+     */
+    private int attempts;
+
+    /**
+     * 隔离时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 解除时间（重新同步成功或被更新的价格取代），为空表示待同步
+     */
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,19 @@
+package com.company.menu.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 价格变更单审批通过事件
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效"
+ * - When: 审批人通过该变更单
+ *
+ * @param orderNo 变更单号
+ * @param effectiveDate 生效时间
+ * @param targetRegion 目标区域
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public record PriceChangeApprovedEvent(String orderNo, LocalDateTime effectiveDate, String targetRegion) {}
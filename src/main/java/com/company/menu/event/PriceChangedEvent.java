@@ -0,0 +1,34 @@
+package com.company.menu.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 价格已生效事件
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效"
+ * - Then: 所有门店价格应更新
+ *
+ * 变更单执行完成、设置门店价或基准价后发布，事务提交后分发给订阅者。
+ *
+ * @param orderNo 变更单号，直接设置价格时为 null
+ * @param productCode 产品编码
+ * @param regionCode 区域代码，全国价为 NATIONAL
+ * @param storeIds 已更新的门店，区域价和全国价为空
+ * @param originalPrice 原价格
+ * @param newPrice 新价格
+ * @param effectiveTime 生效时间
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public record PriceChangedEvent(
+    String orderNo,
+    String productCode,
+    String regionCode,
+    List<Long> storeIds,
+    BigDecimal originalPrice,
+    BigDecimal newPrice,
+    LocalDateTime effectiveTime) {}
@@ -0,0 +1,48 @@
+package com.company.menu.integration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * 外部系统异步接口装配
+ *
+ * 默认由同步实现适配而来，阻塞调用在 integrationExecutor 中执行；
+ * 接入原生异步客户端时，以 @Primary 声明对应的异步实现即可替换适配器。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Configuration
+public class AsyncIntegrationConfig {
+
+    @Bean
+    public AsyncInventoryService asyncInventoryService(
+            InventoryService inventoryService,
+            @Qualifier("integrationExecutor") AsyncTaskExecutor integrationExecutor) {
+        return AsyncInventoryService.fromBlocking(inventoryService, integrationExecutor);
+    }
+
+    @Bean
+    public AsyncPaymentGateway asyncPaymentGateway(
+            PaymentGateway paymentGateway,
+            @Qualifier("integrationExecutor") AsyncTaskExecutor integrationExecutor) {
+        return AsyncPaymentGateway.fromBlocking(paymentGateway, integrationExecutor);
+    }
+
+    @Bean
+    public AsyncSmsService asyncSmsService(
+            SmsService smsService,
+            @Qualifier("integrationExecutor") AsyncTaskExecutor integrationExecutor) {
+        return AsyncSmsService.fromBlocking(smsService, integrationExecutor);
+    }
+
+    @Bean
+    public AsyncMemberService asyncMemberService(
+            MemberService memberService,
+            @Qualifier("integrationExecutor") AsyncTaskExecutor integrationExecutor) {
+        return AsyncMemberService.fromBlocking(memberService, integrationExecutor);
+    }
+}
@@ -0,0 +1,116 @@
+package com.company.menu.integration;
+
+import com.company.common.Futures;
+import com.company.menu.integration.dto.InventoryCheckResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 库存服务异步接口（外部依赖）
+ *
+ * 与 {@link InventoryService} 一一对应，返回 CompletableFuture，调用方可组合多次调用而不阻塞线程。
+ * - {@link #fromBlocking}: 将同步实现适配为异步接口，阻塞调用在指定线程池中执行
+ * - {@link #toBlocking}: 将异步实现适配为同步接口
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public interface AsyncInventoryService {
+
+    /**
+     * 检查库存是否充足
+     *
+     * @param productCode 产品编码
+     * @param quantity 需要数量
+     * @return 库存检查结果
+     */
+    CompletableFuture<InventoryCheckResult> checkInventory(String productCode, int quantity);
+
+    /**
+     * 锁定库存
+     *
+     * @param productCode 产品编码
+     * @param quantity 锁定数量
+     * @param orderId 订单ID
+     * @return 是否锁定成功
+     */
+    CompletableFuture<Boolean> lockInventory(String productCode, int quantity, String orderId);
+
+    /**
+     * 释放库存
+     *
+     * @param orderId 订单ID
+     */
+    CompletableFuture<Void> releaseInventory(String orderId);
+
+    /**
+     * 扣减库存（订单完成后）
+     *
+     * @param orderId 订单ID
+     */
+    CompletableFuture<Void> deductInventory(String orderId);
+
+    /**
+     * 将同步实现适配为异步接口
+     *
+     * @param service 同步实现
+     * @param executor 执行阻塞调用的线程池
+     * @return 异步接口
+     */
+    static AsyncInventoryService fromBlocking(InventoryService service, Executor executor) {
+        return new AsyncInventoryService() {
+            @Override
+            public CompletableFuture<InventoryCheckResult> checkInventory(String productCode, int quantity) {
+                return CompletableFuture.supplyAsync(() -> service.checkInventory(productCode, quantity), executor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> lockInventory(String productCode, int quantity, String orderId) {
+                return CompletableFuture.supplyAsync(
+                    () -> service.lockInventory(productCode, quantity, orderId), executor);
+            }
+
+            @Override
+            public CompletableFuture<Void> releaseInventory(String orderId) {
+                return CompletableFuture.runAsync(() -> service.releaseInventory(orderId), executor);
+            }
+
+            @Override
+            public CompletableFuture<Void> deductInventory(String orderId) {
+                return CompletableFuture.runAsync(() -> service.deductInventory(orderId), executor);
+            }
+        };
+    }
+
+    /**
+     * 适配为同步接口，调用线程等待结果
+     *
+     * @return 同步接口
+     */
+    default InventoryService toBlocking() {
+        AsyncInventoryService async = this;
+        return new InventoryService() {
+            @Override
+            public InventoryCheckResult checkInventory(String productCode, int quantity) {
+                return Futures.join(async.checkInventory(productCode, quantity));
+            }
+
+            @Override
+            public boolean lockInventory(String productCode, int quantity, String orderId) {
+                return Futures.join(async.lockInventory(productCode, quantity, orderId));
+            }
+
+            @Override
+            public void releaseInventory(String orderId) {
+                Futures.join(async.releaseInventory(orderId));
+            }
+
+            @Override
+            public void deductInventory(String orderId) {
+                Futures.join(async.deductInventory(orderId));
+            }
+        };
+    }
+}
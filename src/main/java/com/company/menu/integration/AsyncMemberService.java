@@ -0,0 +1,119 @@
+package com.company.menu.integration;
+
+import com.company.common.Futures;
+import com.company.menu.integration.dto.PointsAdjustment;
+import com.company.menu.integration.dto.PointsAdjustmentResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 会员服务异步接口（外部依赖）
+ *
+ * 与 {@link MemberService} 一一对应，返回 CompletableFuture，调用方可组合多次调用而不阻塞线程。
+ * - {@link #fromBlocking}: 将同步实现适配为异步接口，阻塞调用在指定线程池中执行
+ * - {@link #toBlocking}: 将异步实现适配为同步接口
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public interface AsyncMemberService {
+
+    /**
+     * 获取用户积分
+     *
+     * @param userId 用户ID
+     * @return 积分余额
+     */
+    CompletableFuture<Integer> getPoints(String userId);
+
+    /**
+     * 扣减积分
+     *
+     * @param userId 用户ID
+     * @param points 扣减积分数
+     * @return 是否扣减成功
+     */
+    CompletableFuture<Boolean> deductPoints(String userId, int points);
+
+    /**
+     * 增加积分
+     *
+     * @param userId 用户ID
+     * @param points 增加积分数
+     * @return 是否增加成功
+     */
+    CompletableFuture<Boolean> addPoints(String userId, int points);
+
+    /**
+     * 批量调整积分（按幂等键去重）
+     *
+     * @param adjustments 积分调整
+     * @return 各调整的结果，与请求按顺序一一对应
+     */
+    CompletableFuture<List<PointsAdjustmentResult>> applyPointsAdjustments(List<PointsAdjustment> adjustments);
+
+    /**
+     * 将同步实现适配为异步接口
+     *
+     * @param service 同步实现
+     * @param executor 执行阻塞调用的线程池
+     * @return 异步接口
+     */
+    static AsyncMemberService fromBlocking(MemberService service, Executor executor) {
+        return new AsyncMemberService() {
+            @Override
+            public CompletableFuture<Integer> getPoints(String userId) {
+                return CompletableFuture.supplyAsync(() -> service.getPoints(userId), executor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> deductPoints(String userId, int points) {
+                return CompletableFuture.supplyAsync(() -> service.deductPoints(userId, points), executor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> addPoints(String userId, int points) {
+                return CompletableFuture.supplyAsync(() -> service.addPoints(userId, points), executor);
+            }
+
+            @Override
+            public CompletableFuture<List<PointsAdjustmentResult>> applyPointsAdjustments(
+                    List<PointsAdjustment> adjustments) {
+                return CompletableFuture.supplyAsync(() -> service.applyPointsAdjustments(adjustments), executor);
+            }
+        };
+    }
+
+    /**
+     * 适配为同步接口，调用线程等待结果
+     *
+     * @return 同步接口
+     */
+    default MemberService toBlocking() {
+        AsyncMemberService async = this;
+        return new MemberService() {
+            @Override
+            public int getPoints(String userId) {
+                return Futures.join(async.getPoints(userId));
+            }
+
+            @Override
+            public boolean deductPoints(String userId, int points) {
+                return Futures.join(async.deductPoints(userId, points));
+            }
+
+            @Override
+            public boolean addPoints(String userId, int points) {
+                return Futures.join(async.addPoints(userId, points));
+            }
+
+            @Override
+            public List<PointsAdjustmentResult> applyPointsAdjustments(List<PointsAdjustment> adjustments) {
+                return Futures.join(async.applyPointsAdjustments(adjustments));
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.company.menu.integration;
+
+import com.company.common.Futures;
+import com.company.menu.integration.dto.PaymentOrder;
+import com.company.menu.integration.dto.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 支付网关异步接口（外部依赖）
+ *
+ * 与 {@link PaymentGateway} 一一对应，返回 CompletableFuture，调用方可组合多次调用而不阻塞线程。
+ * - {@link #fromBlocking}: 将同步实现适配为异步接口，阻塞调用在指定线程池中执行
+ * - {@link #toBlocking}: 将异步实现适配为同步接口
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public interface AsyncPaymentGateway {
+
+    /**
+     * 创建支付订单
+     *
+     * @param amount 支付金额
+     * @param orderNo 订单号
+     * @return 支付订单
+     */
+    CompletableFuture<PaymentOrder> createPayment(BigDecimal amount, String orderNo);
+
+    /**
+     * 查询支付状态
+     *
+     * @param paymentId 支付ID
+     * @return 支付状态
+     */
+    CompletableFuture<PaymentStatus> queryPaymentStatus(String paymentId);
+
+    /**
+     * 退款
+     *
+     * @param paymentId 支付ID
+     * @return 是否退款成功
+     */
+    CompletableFuture<Boolean> refund(String paymentId);
+
+    /**
+     * 将同步实现适配为异步接口
+     *
+     * @param gateway 同步实现
+     * @param executor 执行阻塞调用的线程池
+     * @return 异步接口
+     */
+    static AsyncPaymentGateway fromBlocking(PaymentGateway gateway, Executor executor) {
+        return new AsyncPaymentGateway() {
+            @Override
+            public CompletableFuture<PaymentOrder> createPayment(BigDecimal amount, String orderNo) {
+                return CompletableFuture.supplyAsync(() -> gateway.createPayment(amount, orderNo), executor);
+            }
+
+            @Override
+            public CompletableFuture<PaymentStatus> queryPaymentStatus(String paymentId) {
+                return CompletableFuture.supplyAsync(() -> gateway.queryPaymentStatus(paymentId), executor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> refund(String paymentId) {
+                return CompletableFuture.supplyAsync(() -> gateway.refund(paymentId), executor);
+            }
+        };
+    }
+
+    /**
+     * 适配为同步接口，调用线程等待结果
+     *
+     * @return 同步接口
+     */
+    default PaymentGateway toBlocking() {
+        AsyncPaymentGateway async = this;
+        return new PaymentGateway() {
+            @Override
+            public PaymentOrder createPayment(BigDecimal amount, String orderNo) {
+                return Futures.join(async.createPayment(amount, orderNo));
+            }
+
+            @Override
+            public PaymentStatus queryPaymentStatus(String paymentId) {
+                return Futures.join(async.queryPaymentStatus(paymentId));
+            }
+
+            @Override
+            public boolean refund(String paymentId) {
+                return Futures.join(async.refund(paymentId));
+            }
+        };
+    }
+}
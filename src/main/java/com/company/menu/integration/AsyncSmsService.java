@@ -0,0 +1,79 @@
+package com.company.menu.integration;
+
+import com.company.common.Futures;
+import com.company.menu.integration.dto.SmsResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 短信服务异步接口（外部依赖）
+ *
+ * 与 {@link SmsService} 一一对应，返回 CompletableFuture，批量通知时可同时发出多条短信而不阻塞线程。
+ * - {@link #fromBlocking}: 将同步实现适配为异步接口，阻塞调用在指定线程池中执行
+ * - {@link #toBlocking}: 将异步实现适配为同步接口
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public interface AsyncSmsService {
+
+    /**
+     * 发送短信
+     *
+     * @param phoneNumber 手机号
+     * @param content 短信内容
+     * @return 发送结果
+     */
+    CompletableFuture<SmsResponse> sendSms(String phoneNumber, String content);
+
+    /**
+     * 发送验证码
+     *
+     * @param phoneNumber 手机号
+     * @return 发送结果
+     */
+    CompletableFuture<SmsResponse> sendVerificationCode(String phoneNumber);
+
+    /**
+     * 将同步实现适配为异步接口
+     *
+     * @param service 同步实现
+     * @param executor 执行阻塞调用的线程池
+     * @return 异步接口
+     */
+    static AsyncSmsService fromBlocking(SmsService service, Executor executor) {
+        return new AsyncSmsService() {
+            @Override
+            public CompletableFuture<SmsResponse> sendSms(String phoneNumber, String content) {
+                return CompletableFuture.supplyAsync(() -> service.sendSms(phoneNumber, content), executor);
+            }
+
+            @Override
+            public CompletableFuture<SmsResponse> sendVerificationCode(String phoneNumber) {
+                return CompletableFuture.supplyAsync(() -> service.sendVerificationCode(phoneNumber), executor);
+            }
+        };
+    }
+
+    /**
+     * 适配为同步接口，调用线程等待结果
+     *
+     * @return 同步接口
+     */
+    default SmsService toBlocking() {
+        AsyncSmsService async = this;
+        return new SmsService() {
+            @Override
+            public SmsResponse sendSms(String phoneNumber, String content) {
+                return Futures.join(async.sendSms(phoneNumber, content));
+            }
+
+            @Override
+            public SmsResponse sendVerificationCode(String phoneNumber) {
+                return Futures.join(async.sendVerificationCode(phoneNumber));
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.company.menu.integration;
+
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 HTTP 的 POS 客户端
+ *
+ * 推送策略:
+ * - 多个门店合并为一个批量请求 (batch-size 个门店/请求)
+ * - 非阻塞发送，多个批量请求同时在途，在途数量上限为 max-in-flight
+ * - HTTP/2 下同一连接上多路复用请求；POS 只支持 HTTP/1.1 时由连接池复用连接
+ * - 每个批量请求有截止时间 (store-deadline)，从该批开始发送时计算（含等待在途名额），
+ *   超时的批次中门店记为失败，不影响其他批次；批次多于在途上限时，后面的批次不会因前面批次排队而提前超时
+ * - 调用方应在数据库事务之外调用，推送耗时不占用连接和行锁
+ *
+ * POS 接口:
+ * POST {base-url}/stores/prices/batch
+ * 请求: {"stores": [{"storeId": 1, "prices": {"LATTE-GRANDE": 38.00}}]}
+ * 响应: {"results": [{"storeId": 1, "success": true, "message": null}]}
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "pos.client.type", havingValue = "http")
+public class HttpPosSystemClient implements PosSystemClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI batchUri;
+
+    // 在途请求数上限
+    private final Semaphore inFlight;
+
+    // 每个请求包含的门店数
+    private final int batchSize;
+
+    // 单个批量请求的推送截止时间
+    private final Duration storeDeadline;
+
+    public HttpPosSystemClient(
+            ObjectMapper objectMapper,
+            @Value("${pos.client.base-url}") String baseUrl,
+            @Value("${pos.client.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${pos.client.store-deadline:PT5S}") Duration storeDeadline,
+            @Value("${pos.client.batch-size:50}") int batchSize,
+            @Value("${pos.client.max-in-flight:64}") int maxInFlight) {
+        this.objectMapper = objectMapper;
+        this.batchUri = URI.create(baseUrl.replaceAll("/+$", "") + "/stores/prices/batch");
+        this.storeDeadline = storeDeadline;
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .build();
+    }
+
+    @Override
+    public List<PosUpdateResult> updatePrices(List<StorePriceUpdate> updates) {
+        List<CompletableFuture<List<PosUpdateResult>>> batches = new ArrayList<>();
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            batches.add(send(updates.subList(from, Math.min(from + batchSize, updates.size()))));
+        }
+
+        return batches.stream()
+            .flatMap(batch -> batch.join().stream())
+            .toList();
+    }
+
+    /**
+     * 发送一个批量请求，在途请求已满时等待，等待超过截止时间则整批失败
+     *
+     * 截止时间从本批开始发送时计算，等待名额与请求本身共用这一时限
+     */
+    private CompletableFuture<List<PosUpdateResult>> send(List<StorePriceUpdate> batch) {
+        long deadline = System.nanoTime() + storeDeadline.toNanos();
+        try {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !inFlight.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.completedFuture(failed(batch, "超过门店更新截止时间"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(failed(batch, "推送被中断"));
+        }
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(batchUri)
+                .timeout(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                    objectMapper.writeValueAsBytes(new BatchRequest(batch))))
+                .build();
+        } catch (JsonProcessingException e) {
+            inFlight.release();
+            return CompletableFuture.completedFuture(failed(batch, "请求序列化失败"));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .handle((response, error) -> {
+                inFlight.release();
+                return toResults(batch, response, error);
+            });
+    }
+
+    private List<PosUpdateResult> toResults(
+            List<StorePriceUpdate> batch,
+            HttpResponse<byte[]> response,
+            Throwable error) {
+
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            String message = cause instanceof HttpTimeoutException
+                ? "超过门店更新截止时间"
+                : "POS 请求失败: " + cause.getMessage();
+            log.warn("POS 批量价格推送失败 - 门店数: {}, 原因: {}", batch.size(), message);
+            return failed(batch, message);
+        }
+
+        if (response.statusCode() != 200) {
+            log.warn("POS 批量价格推送失败 - 门店数: {}, 状态码: {}", batch.size(), response.statusCode());
+            return failed(batch, "POS 返回状态码 " + response.statusCode());
+        }
+
+        List<PosUpdateResult> results;
+        try {
+            results = objectMapper.readValue(response.body(), BatchResponse.class).getResults();
+        } catch (IOException e) {
+            return failed(batch, "POS 响应解析失败");
+        }
+
+        Map<Long, PosUpdateResult> byStore = results == null ? Map.of() : results.stream()
+            .collect(Collectors.toMap(PosUpdateResult::getStoreId, Function.identity(), (first, last) -> last));
+
+        return batch.stream()
+            .map(update -> byStore.getOrDefault(update.getStoreId(),
+                PosUpdateResult.failed(update.getStoreId(), "POS 未返回该门店结果")))
+            .toList();
+    }
+
+    private List<PosUpdateResult> failed(List<StorePriceUpdate> batch, String message) {
+        return batch.stream()
+            .map(update -> PosUpdateResult.failed(update.getStoreId(), message))
+            .toList();
+    }
+
+    /**
+     * 批量请求体
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchRequest {
+        private List<StorePriceUpdate> stores;
+    }
+
+    /**
+     * 批量响应体
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchResponse {
+        private List<PosUpdateResult> results;
+    }
+}
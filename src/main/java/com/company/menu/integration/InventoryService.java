@@ -36,6 +36,8 @@ public interface InventoryService {
     /**
      * 释放库存
      *
+     * 按订单ID幂等: 已释放的订单再次释放不做任何事（补偿任务重试依赖此约定）
+     *
      * @param orderId 订单ID
      */
     void releaseInventory(String orderId);
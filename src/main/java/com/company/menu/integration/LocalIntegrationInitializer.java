@@ -0,0 +1,151 @@
+package com.company.menu.integration;
+
+import com.company.menu.integration.dto.InventoryCheckResult;
+import com.company.menu.integration.dto.PaymentOrder;
+import com.company.menu.integration.dto.PaymentStatus;
+import com.company.menu.integration.dto.SmsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 外部系统本地替身
+ *
+ * 未对接库存、支付、短信、会员系统的环境（本地启动、CDS 训练运行、启动耗时测量）使用，
+ * 所有调用立即成功，只记录日志。app.integration.local-stubs=true 时生效。
+ *
+ * 以上下文初始化器在启动时注册而不是 @ConditionalOnProperty 配置类：Spring AOT 在构建期固定条件装配结果，
+ * 配置类方式下替身是否存在取决于构建参数。初始化器在每次启动时读取开关，同一构件既可对接真实外部系统，
+ * 也可在 CDS 训练运行、启动测量时加 -Dapp.integration.local-stubs=true 使用替身。
+ * AOT 预处理时开关须为关闭（以实例提供者注册的 Bean 无法生成 AOT 代码）。登记于 META-INF/spring.factories。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class LocalIntegrationInitializer implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    private static final String LOCAL_STUBS_PROPERTY = "app.integration.local-stubs";
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        if (!context.getEnvironment().getProperty(LOCAL_STUBS_PROPERTY, Boolean.class, false)) {
+            return;
+        }
+        context.registerBean("inventoryService", InventoryService.class, this::inventoryService);
+        context.registerBean("paymentGateway", PaymentGateway.class, this::paymentGateway);
+        context.registerBean("smsService", SmsService.class, this::smsService);
+        context.registerBean("memberService", MemberService.class, this::memberService);
+        log.info("外部系统本地替身已启用 (库存、支付、短信、会员)");
+    }
+
+    private InventoryService inventoryService() {
+        return new InventoryService() {
+            @Override
+            public InventoryCheckResult checkInventory(String productCode, int quantity) {
+                return InventoryCheckResult.builder()
+                    .productCode(productCode)
+                    .sufficient(true)
+                    .available(quantity)
+                    .warehouse("local")
+                    .build();
+            }
+
+            @Override
+            public boolean lockInventory(String productCode, int quantity, String orderId) {
+                log.debug("锁定库存 - 订单: {}, 产品: {}, 数量: {}", orderId, productCode, quantity);
+                return true;
+            }
+
+            @Override
+            public void releaseInventory(String orderId) {
+                log.debug("释放库存 - 订单: {}", orderId);
+            }
+
+            @Override
+            public void deductInventory(String orderId) {
+                log.debug("扣减库存 - 订单: {}", orderId);
+            }
+        };
+    }
+
+    private PaymentGateway paymentGateway() {
+        return new PaymentGateway() {
+            @Override
+            public PaymentOrder createPayment(BigDecimal amount, String orderNo) {
+                LocalDateTime now = LocalDateTime.now();
+                return PaymentOrder.builder()
+                    .paymentId(UUID.randomUUID().toString())
+                    .orderNo(orderNo)
+                    .amount(amount)
+                    .status(PaymentStatus.SUCCESS)
+                    .createdAt(now)
+                    .completedAt(now)
+                    .paymentMethod("local")
+                    .build();
+            }
+
+            @Override
+            public PaymentStatus queryPaymentStatus(String paymentId) {
+                return PaymentStatus.SUCCESS;
+            }
+
+            @Override
+            public boolean refund(String paymentId) {
+                log.debug("退款 - 支付单: {}", paymentId);
+                return true;
+            }
+        };
+    }
+
+    private SmsService smsService() {
+        return new SmsService() {
+            @Override
+            public SmsResponse sendSms(String phoneNumber, String content) {
+                log.debug("发送短信 - 手机号: {}, 内容: {}", phoneNumber, content);
+                return sent();
+            }
+
+            @Override
+            public SmsResponse sendVerificationCode(String phoneNumber) {
+                log.debug("发送验证码 - 手机号: {}", phoneNumber);
+                return sent();
+            }
+
+            private SmsResponse sent() {
+                return SmsResponse.builder()
+                    .code(0)
+                    .message("OK")
+                    .messageId(UUID.randomUUID().toString())
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+            }
+        };
+    }
+
+    private MemberService memberService() {
+        return new MemberService() {
+            @Override
+            public int getPoints(String userId) {
+                return 0;
+            }
+
+            @Override
+            public boolean deductPoints(String userId, int points) {
+                log.debug("扣减积分 - 用户: {}, 积分: {}", userId, points);
+                return true;
+            }
+
+            @Override
+            public boolean addPoints(String userId, int points) {
+                log.debug("增加积分 - 用户: {}, 积分: {}", userId, points);
+                return true;
+            }
+        };
+    }
+}
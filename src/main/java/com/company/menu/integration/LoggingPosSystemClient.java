@@ -0,0 +1,34 @@
+package com.company.menu.integration;
+
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 只记录日志的 POS 客户端
+ *
+ * 未对接 POS 系统的环境（本地开发、BDD 测试）使用，所有门店视为推送成功
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "pos.client.type", havingValue = "logging", matchIfMissing = true)
+public class LoggingPosSystemClient implements PosSystemClient {
+
+    @Override
+    public List<PosUpdateResult> updatePrices(List<StorePriceUpdate> updates) {
+        return updates.stream()
+            .map(update -> {
+                log.debug("更新门店价格 - 门店: {}, 新价格: {}", update.getStoreId(), update.getPrices());
+                return PosUpdateResult.succeeded(update.getStoreId());
+            })
+            .toList();
+    }
+}
@@ -1,5 +1,11 @@
 package com.company.menu.integration;
 
+import com.company.menu.integration.dto.PointsAdjustment;
+import com.company.menu.integration.dto.PointsAdjustmentResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 会员服务接口（外部依赖）
  *
@@ -37,4 +43,43 @@ public interface MemberService {
      * @return 是否增加成功
      */
     boolean addPoints(String userId, int points);
+
+    /**
+     * 是否按幂等键去重
+     *
+     * 返回 true 时同一调整重试只生效一次，积分日志回写失败会按原幂等键重试；
+     * 默认为 false，每条调整只发送一次，失败或结果未知时标记失败等待对账
+     *
+     * @return 是否按幂等键去重
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * 批量调整积分
+     *
+     * 供积分扣减日志回写使用。
+     * 默认实现逐条调用 {@link #deductPoints} / {@link #addPoints}，不具备幂等性（{@link #isIdempotent} 为 false），
+     * 会员系统实现应覆盖为按幂等键去重的批量接口，并覆盖 {@link #isIdempotent} 返回 true。
+     *
+     * @param adjustments 积分调整
+     * @return 各调整的结果，与请求按顺序一一对应
+     */
+    default List<PointsAdjustmentResult> applyPointsAdjustments(List<PointsAdjustment> adjustments) {
+        List<PointsAdjustmentResult> results = new ArrayList<>(adjustments.size());
+        for (PointsAdjustment adjustment : adjustments) {
+            try {
+                boolean applied = adjustment.getPoints() < 0
+                    ? deductPoints(adjustment.getUserId(), -adjustment.getPoints())
+                    : addPoints(adjustment.getUserId(), adjustment.getPoints());
+                results.add(applied
+                    ? PointsAdjustmentResult.succeeded(adjustment.getIdempotencyKey())
+                    : PointsAdjustmentResult.failed(adjustment.getIdempotencyKey(), "会员系统拒绝"));
+            } catch (RuntimeException e) {
+                results.add(PointsAdjustmentResult.failed(adjustment.getIdempotencyKey(), e.getMessage()));
+            }
+        }
+        return results;
+    }
 }
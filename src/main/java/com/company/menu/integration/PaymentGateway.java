@@ -37,6 +37,8 @@ public interface PaymentGateway {
     /**
      * 退款
      *
+     * 按支付ID幂等: 同一支付重复退款只退一次，已退款时返回 true（补偿任务重试依赖此约定）
+     *
      * @param paymentId 支付ID
      * @return 是否退款成功
      */
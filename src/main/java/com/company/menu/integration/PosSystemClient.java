@@ -0,0 +1,60 @@
+package com.company.menu.integration;
+
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 门店 POS 系统接口（外部依赖）
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效"
+ * - Then: 所有门店价格应更新
+ *
+ * 价格变更执行和回滚都通过此接口推送门店价格。
+ * 默认实现只记录日志 (pos.client.type=logging)，配置 pos.client.type=http 启用 HTTP 实现。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public interface PosSystemClient {
+
+    /**
+     * 批量推送多个门店的价格
+     *
+     * 单个门店失败不影响其他门店，结果与请求按顺序一一对应
+     *
+     * @param updates 各门店的价格更新
+     * @return 各门店的推送结果
+     */
+    List<PosUpdateResult> updatePrices(List<StorePriceUpdate> updates);
+
+    /**
+     * 推送单个门店的多个产品价格
+     *
+     * @param storeId 门店ID
+     * @param prices 产品编码 → 新价格
+     * @return 推送结果
+     */
+    default PosUpdateResult updatePrices(Long storeId, Map<String, BigDecimal> prices) {
+        return updatePrices(List.of(StorePriceUpdate.builder()
+            .storeId(storeId)
+            .prices(prices)
+            .build())).get(0);
+    }
+
+    /**
+     * 推送单个门店的单个产品价格
+     *
+     * @param storeId 门店ID
+     * @param productCode 产品编码
+     * @param newPrice 新价格
+     * @return 推送结果
+     */
+    default PosUpdateResult updatePrice(Long storeId, String productCode, BigDecimal newPrice) {
+        return updatePrices(storeId, Map.of(productCode, newPrice));
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.menu.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 积分调整请求
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsAdjustment {
+
+    /**
+     * 幂等键，会员系统按此去重，重试时不会重复扣减或增加
+     */
+    private String idempotencyKey;
+
+    /**
+     * 用户ID
+     */
+    private String userId;
+
+    /**
+     * 调整积分数，负数为扣减，正数为增加
+     */
+    private int points;
+}
@@ -0,0 +1,43 @@
+package com.company.menu.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 积分调整结果
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsAdjustmentResult {
+
+    /**
+     * 幂等键
+     */
+    private String idempotencyKey;
+
+    /**
+     * 是否成功
+     */
+    private boolean success;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+
+    public static PointsAdjustmentResult succeeded(String idempotencyKey) {
+        return new PointsAdjustmentResult(idempotencyKey, true, null);
+    }
+
+    public static PointsAdjustmentResult failed(String idempotencyKey, String message) {
+        return new PointsAdjustmentResult(idempotencyKey, false, message);
+    }
+}
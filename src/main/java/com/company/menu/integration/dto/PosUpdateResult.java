@@ -0,0 +1,43 @@
+package com.company.menu.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 门店价格推送结果
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosUpdateResult {
+
+    /**
+     * 门店ID
+     */
+    private Long storeId;
+
+    /**
+     * 是否成功
+     */
+    private boolean success;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+
+    public static PosUpdateResult succeeded(Long storeId) {
+        return new PosUpdateResult(storeId, true, null);
+    }
+
+    public static PosUpdateResult failed(Long storeId, String message) {
+        return new PosUpdateResult(storeId, false, message);
+    }
+}
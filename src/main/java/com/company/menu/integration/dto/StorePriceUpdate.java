@@ -0,0 +1,33 @@
+package com.company.menu.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 单个门店的价格更新
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorePriceUpdate {
+
+    /**
+     * 门店ID
+     */
+    private Long storeId;
+
+    /**
+     * 产品编码 → 新价格
+     */
+    private Map<String, BigDecimal> prices;
+}
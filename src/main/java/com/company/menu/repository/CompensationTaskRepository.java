@@ -0,0 +1,93 @@
+package com.company.menu.repository;
+
+import com.company.menu.domain.CompensationTask;
+import com.company.menu.domain.CompensationTask.TaskStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 补偿任务数据访问层
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Repository
+public interface CompensationTaskRepository extends JpaRepository<CompensationTask, Long> {
+
+    List<CompensationTask> findBySagaIdOrderById(String sagaId);
+
+    /**
+     * 查询已到执行时间的任务
+     *
+     * @param status 任务状态
+     * @param now 当前时间
+     * @param pageable 批大小
+     * @return 补偿任务
+     */
+    List<CompensationTask> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+        TaskStatus status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * 认领待执行任务（CAS），多个工作线程或节点同时认领时只有一个成功
+     *
+     * @param id 任务ID
+     * @param now 认领时间
+     * @return 更新行数，0 表示已被认领
+     */
+    @Modifying
+    @Query("""
+        UPDATE CompensationTask t
+        SET t.status = com.company.menu.domain.CompensationTask.TaskStatus.RUNNING, t.claimedAt = :now
+        WHERE t.id = :id
+        AND t.status = com.company.menu.domain.CompensationTask.TaskStatus.PENDING
+        """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * 记录步骤执行结果并释放认领
+     *
+     * 仅当任务仍处于本次认领（执行中且认领时间未变）时写入: 租约已被收回、任务已被重新认领或已记录结果时，
+     * 迟到的结果不生效，不会覆盖其他执行者记录的结果。
+     *
+     * @param task 已在内存中记录结果的任务
+     * @param claimedAt 本次认领的时间
+     * @return 更新行数，0 表示认领已失效
+     */
+    @Modifying
+    @Query("""
+        UPDATE CompensationTask t
+        SET t.status = :#{#task.status},
+            t.retryCount = :#{#task.retryCount},
+            t.nextAttemptAt = :#{#task.nextAttemptAt},
+            t.lastError = :#{#task.lastError},
+            t.completedAt = :#{#task.completedAt},
+            t.claimedAt = NULL
+        WHERE t.id = :#{#task.id}
+        AND t.status = com.company.menu.domain.CompensationTask.TaskStatus.RUNNING
+        AND t.claimedAt = :claimedAt
+        """)
+    int recordResult(@Param("task") CompensationTask task, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /**
+     * 认领超过租期仍未完成的任务退回待执行
+     *
+     * @param claimedBefore 租期起点
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("""
+        UPDATE CompensationTask t
+        SET t.status = com.company.menu.domain.CompensationTask.TaskStatus.PENDING, t.claimedAt = NULL
+        WHERE t.status = com.company.menu.domain.CompensationTask.TaskStatus.RUNNING
+        AND t.claimedAt < :claimedBefore
+        """)
+    int releaseExpiredClaims(@Param("claimedBefore") LocalDateTime claimedBefore);
+}
@@ -0,0 +1,48 @@
+package com.company.menu.repository;
+
+import com.company.menu.domain.MemberPointsJournal;
+import com.company.menu.domain.MemberPointsJournal.JournalStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 会员积分调整日志数据访问层
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Repository
+public interface MemberPointsJournalRepository extends JpaRepository<MemberPointsJournal, Long> {
+
+    /**
+     * 按记录顺序查询指定状态的调整
+     *
+     * @param status 回写状态
+     * @param pageable 批大小
+     * @return 调整记录
+     */
+    List<MemberPointsJournal> findByStatusOrderByIdAsc(JournalStatus status, Pageable pageable);
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    long countByUserIdAndStatus(String userId, JournalStatus status);
+
+    /**
+     * 用户尚未回写的积分调整合计
+     *
+     * @param userId 用户ID
+     * @return 调整合计，负数表示待扣减
+     */
+    @Query("""
+        SELECT COALESCE(SUM(j.points), 0) FROM MemberPointsJournal j
+        WHERE j.userId = :userId
+        AND j.status = com.company.menu.domain.MemberPointsJournal.JournalStatus.PENDING
+        """)
+    long sumPendingPoints(@Param("userId") String userId);
+}
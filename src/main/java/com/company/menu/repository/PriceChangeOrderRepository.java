@@ -2,11 +2,14 @@ package com.company.menu.repository;
 
 import com.company.menu.domain.PriceChangeOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,11 +24,28 @@ public interface PriceChangeOrderRepository extends JpaRepository<PriceChangeOrd
     /**
      * 根据变更单号查询
      *
+     * 按单号的缓存由 PriceChangeOrderCache 负责，此处不再使用查询缓存
+     *
      * @param orderNo 变更单号
      * @return 价格变更单
      */
     Optional<PriceChangeOrder> findByOrderNo(String orderNo);
 
+    /**
+     * 查询指定状态下、生效时间不晚于 horizon 的变更单（按生效时间排序）
+     *
+     * 对应 BDD 场景: "价格变更审批通过后自动生效"
+     * - When: 系统时间到达生效时间
+     *
+     * @param status 变更单状态
+     * @param horizon 生效时间上限
+     * @return 单号、生效时间和目标区域
+     */
+    List<ScheduledOrder> findByStatusAndEffectiveDateLessThanEqualOrderByEffectiveDate(
+        PriceChangeOrder.OrderStatus status,
+        LocalDateTime horizon
+    );
+
     /**
      * 统计指定日期创建的变更单数量 (用于生成序号)
      *
@@ -34,4 +54,80 @@ public interface PriceChangeOrderRepository extends JpaRepository<PriceChangeOrd
      */
     @Query("SELECT COUNT(o) FROM PriceChangeOrder o WHERE CAST(o.createdAt AS LocalDate) = :date")
     int countByCreatedAtDate(@Param("date") LocalDate date);
+
+    /**
+     * 状态流转的原子比较并设置 (CAS)
+     *
+     * 仅当数据库中的状态仍为 expected 时写入流转结果并递增版本号，
+     * 并发流转时只有一个能成功，无需悲观行锁。
+     * 从执行中流转时还要求认领时间未变: 租约已被收回并由其他节点重新认领时，本次执行结果不生效。
+     *
+     * @param order 已在内存中完成流转的变更单
+     * @param expected 流转前的状态
+     * @return 更新行数（0 表示状态已被其他请求修改）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE PriceChangeOrder o
+        SET o.status = :#{#order.status},
+            o.approvedBy = :#{#order.approvedBy},
+            o.approvedAt = :#{#order.approvedAt},
+            o.executionStartedAt = :#{#order.executionStartedAt},
+            o.executionCompletedAt = :#{#order.executionCompletedAt},
+            o.failureReason = :#{#order.failureReason},
+            o.claimedAt = :#{#order.claimedAt},
+            o.version = COALESCE(o.version, 0) + 1
+        WHERE o.orderNo = :#{#order.orderNo}
+        AND o.status = :expected
+        AND (o.status <> com.company.menu.domain.PriceChangeOrder.OrderStatus.EXECUTING
+            OR o.claimedAt = :#{#order.claimedAt})
+        """)
+    int compareAndSetTransition(
+        @Param("order") PriceChangeOrder order,
+        @Param("expected") PriceChangeOrder.OrderStatus expected
+    );
+
+    /**
+     * 查询认领超过租期仍在执行中的变更单
+     *
+     * @param claimedBefore 租期起点
+     * @return 变更单号
+     */
+    @Query("""
+        SELECT o.orderNo FROM PriceChangeOrder o
+        WHERE o.status = com.company.menu.domain.PriceChangeOrder.OrderStatus.EXECUTING
+        AND o.claimedAt < :claimedBefore
+        """)
+    List<String> findExpiredClaims(@Param("claimedBefore") LocalDateTime claimedBefore);
+
+    /**
+     * 认领超过租期仍未执行完成的变更单退回已审批
+     *
+     * @param orderNo 变更单号
+     * @param claimedBefore 租期起点
+     * @return 更新行数，0 表示已执行完成或已被重新认领
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE PriceChangeOrder o
+        SET o.status = com.company.menu.domain.PriceChangeOrder.OrderStatus.APPROVED,
+            o.executionStartedAt = NULL,
+            o.claimedAt = NULL,
+            o.version = COALESCE(o.version, 0) + 1
+        WHERE o.orderNo = :orderNo
+        AND o.status = com.company.menu.domain.PriceChangeOrder.OrderStatus.EXECUTING
+        AND o.claimedAt < :claimedBefore
+        """)
+    int releaseExpiredClaim(@Param("orderNo") String orderNo, @Param("claimedBefore") LocalDateTime claimedBefore);
+
+    /**
+     * 待调度变更单投影（只查询调度需要的列）
+     */
+    interface ScheduledOrder {
+        String getOrderNo();
+
+        LocalDateTime getEffectiveDate();
+
+        String getTargetRegion();
+    }
 }
@@ -1,15 +1,15 @@
 package com.company.menu.repository;
 
 import com.company.menu.domain.PriceHistory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * 价格历史数据访问层
@@ -35,25 +35,156 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
     );
 
     /**
-     * 查询指定时间点的生效价格
+     * 关闭被变更单取代的旧记录
+     *
+     * 变更单已写入价格历史的门店上，同一产品和区域此前生效的记录以新记录的生效时间为失效时间。
+     * 推送失败（隔离待同步）的门店没有新记录，旧记录保持生效。
+     * 只设置失效时间，不修改 isActive: 新价格尚未到生效时间时旧价格仍是当前价格，
+     * 到达失效时间后由 deactivateExpired 置为失效；已有更早失效时间的记录不会被推迟。
+     *
+     * @param changeOrderNo 执行完成的变更单号
+     * @param productCode 产品编码
+     * @param regionCode 区域代码
+     * @param effectiveTime 新记录的生效时间
+     * @return 设置了失效时间的记录数
+     */
+    @Modifying
+    @Query("""
+        UPDATE PriceHistory h SET h.expiryTime = :effectiveTime
+        WHERE h.productCode = :productCode
+        AND h.regionCode = :regionCode
+        AND h.isActive = true
+        AND h.effectiveTime <= :effectiveTime
+        AND (h.expiryTime IS NULL OR h.expiryTime > :effectiveTime)
+        AND (h.changeOrderNo IS NULL OR h.changeOrderNo <> :changeOrderNo)
+        AND h.storeId IN (
+            SELECT n.storeId FROM PriceHistory n WHERE n.changeOrderNo = :changeOrderNo
+        )
+        """)
+    int expireSuperseded(
+        @Param("changeOrderNo") String changeOrderNo,
+        @Param("productCode") String productCode,
+        @Param("regionCode") String regionCode,
+        @Param("effectiveTime") LocalDateTime effectiveTime
+    );
+
+    /**
+     * 已到失效时间的记录置为失效
+     *
+     * @param now 当前时间
+     * @return 置为失效的记录数
+     */
+    @Modifying
+    @Query("""
+        UPDATE PriceHistory h SET h.isActive = false
+        WHERE h.isActive = true
+        AND h.expiryTime <= :now
+        """)
+    int deactivateExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * 作废执行失败的变更单写入的记录
+     *
+     * 失效时间等于生效时间，任何时间点都不再生效
+     *
+     * @param changeOrderNo 执行失败的变更单号
+     * @return 作废的记录数
+     */
+    @Modifying
+    @Query("""
+        UPDATE PriceHistory h SET h.isActive = false, h.expiryTime = h.effectiveTime
+        WHERE h.changeOrderNo = :changeOrderNo
+        """)
+    int voidByChangeOrder(@Param("changeOrderNo") String changeOrderNo);
+
+    /**
+     * 查询失效早于指定时间的记录（冷数据归档用）
+     *
+     * @param cutoff 失效时间上限
+     * @param pageable 批大小和排序
+     * @return 待归档记录
+     */
+    List<PriceHistory> findByIsActiveFalseAndExpiryTimeBefore(LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * 删除已归档的记录（冷数据归档用）
+     *
+     * 条件与查询待归档记录一致，按ID区间删除；返回的记录数与归档段不一致时说明记录已被并发修改或删除
+     *
+     * @param minId 归档段的最小记录ID
+     * @param maxId 归档段的最大记录ID
+     * @param cutoff 失效时间上限
+     * @return 删除的记录数
+     */
+    @Modifying
+    @Query("""
+        DELETE FROM PriceHistory h
+        WHERE h.id BETWEEN :minId AND :maxId
+        AND h.isActive = false
+        AND h.expiryTime < :cutoff
+        """)
+    int deleteArchived(
+        @Param("minId") Long minId,
+        @Param("maxId") Long maxId,
+        @Param("cutoff") LocalDateTime cutoff
+    );
+
+    /**
+     * 查询指定时间生效的记录（构建价格解析缓存用）
+     *
+     * @param now 当前时间
+     * @return 生效中的记录
+     */
+    @Query("""
+        SELECT h FROM PriceHistory h
+        WHERE h.isActive = true
+        AND h.effectiveTime <= :now
+        AND (h.expiryTime IS NULL OR h.expiryTime > :now)
+        """)
+    List<PriceHistory> findActiveAt(@Param("now") LocalDateTime now);
+
+    /**
+     * 查询指定时间之后写入或到达生效时间、当前仍生效的记录（多节点同步价格解析缓存用）
+     *
+     * 只扫描 isActive = true 的记录，按ID升序返回
+     *
+     * @param after 写入时间或生效时间的下限
+     * @param now 当前时间
+     * @return 生效中的记录
+     */
+    @Query("""
+        SELECT h FROM PriceHistory h
+        WHERE h.isActive = true
+        AND (h.createdAt > :after OR h.effectiveTime > :after)
+        AND h.effectiveTime <= :now
+        AND (h.expiryTime IS NULL OR h.expiryTime > :now)
+        ORDER BY h.id
+        """)
+    List<PriceHistory> findActivatedSince(@Param("after") LocalDateTime after, @Param("now") LocalDateTime now);
+
+    /**
+     * 关闭同一层级上生效中的旧记录
+     *
+     * storeId 为空时关闭区域级（或全国级）记录，否则关闭该门店的记录
      *
      * @param productCode 产品编码
      * @param regionCode 区域代码
-     * @param queryTime 查询时间
-     * @return 价格
+     * @param storeId 门店ID，可为空
+     * @param effectiveTime 新记录的生效时间
+     * @return 失效的记录数
      */
+    @Modifying
     @Query("""
-        SELECT h.newPrice FROM PriceHistory h
+        UPDATE PriceHistory h SET h.isActive = false, h.expiryTime = :effectiveTime
         WHERE h.productCode = :productCode
         AND h.regionCode = :regionCode
-        AND h.effectiveTime <= :queryTime
-        AND (h.expiryTime IS NULL OR h.expiryTime > :queryTime)
-        ORDER BY h.effectiveTime DESC
-        LIMIT 1
+        AND ((:storeId IS NULL AND h.storeId IS NULL) OR h.storeId = :storeId)
+        AND h.isActive = true
         """)
-    Optional<BigDecimal> findCurrentPrice(
+    int expireActiveAtLevel(
         @Param("productCode") String productCode,
         @Param("regionCode") String regionCode,
-        @Param("queryTime") LocalDateTime queryTime
+        @Param("storeId") Long storeId,
+        @Param("effectiveTime") LocalDateTime effectiveTime
     );
 }
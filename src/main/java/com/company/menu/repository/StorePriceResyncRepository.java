@@ -0,0 +1,85 @@
+package com.company.menu.repository;
+
+import com.company.menu.domain.StorePriceResync;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 待重新同步门店价格数据访问层
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Repository
+public interface StorePriceResyncRepository extends JpaRepository<StorePriceResync, Long> {
+
+    /**
+     * 查询待同步记录（尝试次数少的优先，避免持续失败的门店占满批次）
+     *
+     * @param pageable 批大小
+     * @return 待同步记录
+     */
+    List<StorePriceResync> findByResolvedAtIsNullOrderByAttemptsAscCreatedAtAsc(Pageable pageable);
+
+    /**
+     * 解除产品在指定门店上的待同步记录
+     *
+     * @param productCode 产品编码
+     * @param storeIds 门店ID
+     * @param now 解除时间
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("""
+        UPDATE StorePriceResync r SET r.resolvedAt = :now
+        WHERE r.productCode = :productCode
+        AND r.storeId IN :storeIds
+        AND r.resolvedAt IS NULL
+        """)
+    int resolvePending(
+        @Param("productCode") String productCode,
+        @Param("storeIds") Collection<Long> storeIds,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * 重新同步成功，解除仍待同步的记录
+     *
+     * 推送期间已被后续变更单解除的记录不再更新
+     *
+     * @param ids 记录ID
+     * @param now 解除时间
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("""
+        UPDATE StorePriceResync r SET r.resolvedAt = :now, r.attempts = r.attempts + 1
+        WHERE r.id IN :ids
+        AND r.resolvedAt IS NULL
+        """)
+    int markResynced(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 重新同步失败，记录尝试次数和失败原因
+     *
+     * @param ids 记录ID
+     * @param failureReason 失败原因
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("""
+        UPDATE StorePriceResync r SET r.failureReason = :failureReason, r.attempts = r.attempts + 1
+        WHERE r.id IN :ids
+        AND r.resolvedAt IS NULL
+        """)
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids, @Param("failureReason") String failureReason);
+}
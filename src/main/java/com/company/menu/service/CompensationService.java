@@ -0,0 +1,331 @@
+package com.company.menu.service;
+
+import com.company.common.Futures;
+import com.company.menu.domain.CompensationTask;
+import com.company.menu.domain.CompensationTask.TaskStatus;
+import com.company.menu.domain.CompensationTask.TaskType;
+import com.company.menu.domain.Order;
+import com.company.menu.integration.AsyncInventoryService;
+import com.company.menu.integration.AsyncPaymentGateway;
+import com.company.menu.repository.CompensationTaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 补偿服务（Saga）
+ *
+ * 对应 BDD 场景: "支付成功但库存释放失败的补偿"
+ * - 用户取消订单: 退款成功，库存释放失败
+ * - 系统应创建补偿任务，并在库存系统恢复后自动完成
+ *
+ * 执行流程:
+ * - 补偿步骤先写入步骤日志（独立事务提交），进程在执行途中退出也不会丢失
+ * - 各步骤互不依赖（退款、释放库存、退回积分），通过异步集成接口并行执行
+ * - 失败的步骤保持待执行，按带抖动的指数退避安排下次执行时间，超过最大重试次数后放弃并告警
+ * - 后台工作线程池定期认领到期任务（CAS），多节点部署时同一任务只会被一个节点执行；
+ *   认领超过租期仍未完成的任务退回待执行
+ *
+ * 各步骤以支付ID、订单号或幂等键为补偿对象，重复执行不会重复退款或释放
+ * （支付网关按支付ID、库存系统按订单号去重，见 PaymentGateway#refund、InventoryService#releaseInventory）。
+ * 步骤超时只是不再等待，外部调用不会被取消: 超时的任务保持认领状态，等调用真正结束后按实际结果记录，
+ * 调用一直不结束时认领租期到后才会重试，同一步骤不会有两个调用同时进行。
+ * 租期应长于外部系统客户端自身的超时时间。
+ * 结果按认领时间条件写入: 租约已被收回后才结束的调用不记录结果，不会覆盖重新认领后记录的结果（如已成功）。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class CompensationService {
+
+    private final CompensationTaskRepository taskRepository;
+    private final AsyncPaymentGateway paymentGateway;
+    private final AsyncInventoryService inventoryService;
+    private final MemberPointsService memberPointsService;
+
+    // 步骤日志独立提交，不随调用方事务回滚
+    private final TransactionTemplate taskTransaction;
+
+    // 执行重试的工作线程
+    private final ExecutorService workers;
+
+    // 每次认领的任务数
+    private final int batchSize;
+
+    // 最大重试次数
+    private final int maxRetries;
+
+    // 首次重试的退避时间
+    private final Duration retryBackoff;
+
+    // 退避时间上限
+    private final Duration maxBackoff;
+
+    // 单个步骤的超时时间
+    private final Duration stepTimeout;
+
+    // 认领租期
+    private final Duration claimLease;
+
+    public CompensationService(
+            CompensationTaskRepository taskRepository,
+            AsyncPaymentGateway paymentGateway,
+            AsyncInventoryService inventoryService,
+            MemberPointsService memberPointsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${menu.compensation.workers:8}") int workerCount,
+            @Value("${menu.compensation.batch-size:200}") int batchSize,
+            @Value("${menu.compensation.max-retries:20}") int maxRetries,
+            @Value("${menu.compensation.retry-backoff:PT5S}") Duration retryBackoff,
+            @Value("${menu.compensation.max-backoff:PT30M}") Duration maxBackoff,
+            @Value("${menu.compensation.step-timeout:PT10S}") Duration stepTimeout,
+            @Value("${menu.compensation.claim-lease:PT5M}") Duration claimLease) {
+        this.taskRepository = taskRepository;
+        this.paymentGateway = paymentGateway;
+        this.inventoryService = inventoryService;
+        this.memberPointsService = memberPointsService;
+        this.taskTransaction = new TransactionTemplate(transactionManager);
+        this.taskTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.stepTimeout = stepTimeout;
+        this.claimLease = claimLease;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "compensation-worker-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 取消订单的补偿: 退款、释放库存、退回积分
+     *
+     * 各步骤并行执行一次，失败的步骤留给后台重试，本方法不因补偿失败抛出异常
+     *
+     * @param order 已取消的订单
+     * @return 本次创建的补偿任务（含首次执行结果）
+     */
+    public List<CompensationTask> compensateCancellation(Order order) {
+        String sagaId = order.getOrderNo();
+        LocalDateTime now = claimTime();
+
+        List<CompensationTask> tasks = new ArrayList<>();
+        if (order.getPaymentId() != null) {
+            tasks.add(newTask(sagaId, TaskType.REFUND, order.getPaymentId(), now));
+        }
+        tasks.add(newTask(sagaId, TaskType.RELEASE_INVENTORY, order.getOrderNo(), now));
+        if (order.getPointsDiscount() != null && order.getPointsDiscount().signum() > 0) {
+            CompensationTask restorePoints = newTask(sagaId, TaskType.RESTORE_POINTS, order.getOrderNo(), now);
+            restorePoints.setUserId(order.getUserName());
+            // 100 积分 = 1 元
+            restorePoints.setPoints(order.getPointsDiscount().multiply(BigDecimal.valueOf(100)).intValue());
+            tasks.add(restorePoints);
+        }
+
+        // 以"执行中"写入，由本线程执行首次尝试；进程退出时租期到后由工作线程接手
+        List<CompensationTask> saved = taskTransaction.execute(status -> taskRepository.saveAll(tasks));
+
+        CompletableFuture.allOf(saved.stream()
+                .map(task -> execute(task, false).exceptionally(error -> null))
+                .toArray(CompletableFuture[]::new))
+            .join();
+
+        long pending = saved.stream().filter(task -> task.getStatus() != TaskStatus.SUCCEEDED).count();
+        if (pending > 0) {
+            log.warn("订单取消补偿未全部完成，已转入后台重试 - 订单: {}, 待执行: {}", sagaId, pending);
+        }
+        return saved;
+    }
+
+    /**
+     * 查询 Saga 的补偿任务
+     *
+     * @param sagaId Saga ID（取消订单时为订单号）
+     * @return 补偿任务
+     */
+    public List<CompensationTask> findTasks(String sagaId) {
+        return taskRepository.findBySagaIdOrderById(sagaId);
+    }
+
+    /**
+     * 认领并执行到期的补偿任务，直到没有到期任务
+     */
+    @Scheduled(fixedDelayString = "${menu.compensation.poll-interval:PT5S}")
+    public void drainPending() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer expired = taskTransaction.execute(status ->
+            taskRepository.releaseExpiredClaims(now.minus(claimLease)));
+        if (expired != null && expired > 0) {
+            log.warn("补偿任务认领已过期，退回待执行 - 数量: {}", expired);
+        }
+
+        List<CompensationTask> due;
+        do {
+            due = taskRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                TaskStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+            CompletableFuture.allOf(due.stream()
+                    .map(task -> CompletableFuture.runAsync(() -> retry(task), workers))
+                    .toArray(CompletableFuture[]::new))
+                .join();
+
+            if (!due.isEmpty()) {
+                long succeeded = due.stream().filter(task -> task.getStatus() == TaskStatus.SUCCEEDED).count();
+                log.info("补偿任务重试 - 到期: {}, 成功: {}", due.size(), succeeded);
+            }
+        } while (due.size() == batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void retry(CompensationTask task) {
+        LocalDateTime now = claimTime();
+        Integer claimed = taskTransaction.execute(status -> taskRepository.claim(task.getId(), now));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        task.setStatus(TaskStatus.RUNNING);
+        task.setClaimedAt(now);
+
+        try {
+            Futures.join(execute(task, true));
+        } catch (RuntimeException e) {
+            // 结果已由 execute 记录；超时的任务在调用结束后记录
+        }
+    }
+
+    /**
+     * 执行一个补偿步骤，调用结束后记录结果
+     *
+     * 返回的 Future 最多等待 stepTimeout；超时后外部调用仍在进行，任务保持认领，结果在调用结束时记录
+     *
+     * @param retried 是否为后台重试
+     */
+    private CompletableFuture<Void> execute(CompensationTask task, boolean retried) {
+        CompletableFuture<Void> step;
+        try {
+            step = switch (task.getTaskType()) {
+                case REFUND -> paymentGateway.refund(task.getTargetRef()).thenAccept(refunded -> {
+                    if (!refunded) {
+                        throw new IllegalStateException("支付网关拒绝退款");
+                    }
+                });
+                case RELEASE_INVENTORY -> inventoryService.releaseInventory(task.getTargetRef());
+                case RESTORE_POINTS -> {
+                    // 只写本地余额和积分日志，在当前线程执行，不占用工作线程；日志随步骤结果独立提交
+                    taskTransaction.executeWithoutResult(status -> memberPointsService.addPoints(
+                        task.getUserId(), task.getPoints(), "compensation:" + task.getSagaId() + ":points"));
+                    yield CompletableFuture.completedFuture(null);
+                }
+            };
+        } catch (RuntimeException e) {
+            step = CompletableFuture.failedFuture(e);
+        }
+
+        return step
+            .whenComplete((result, error) -> complete(task, error, retried))
+            .orTimeout(stepTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录步骤执行结果
+     *
+     * @param retried 是否为后台重试（首次执行不计入重试次数）
+     */
+    private void complete(CompensationTask task, Throwable error, boolean retried) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimedAt = task.getClaimedAt();
+        task.setClaimedAt(null);
+
+        if (error == null) {
+            task.setStatus(TaskStatus.SUCCEEDED);
+            task.setCompletedAt(now);
+            task.setLastError(null);
+        } else {
+            Throwable cause = Futures.unwrap(error);
+            task.setLastError(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+            if (retried) {
+                task.setRetryCount(task.getRetryCount() + 1);
+            }
+
+            if (task.getRetryCount() >= maxRetries) {
+                task.setStatus(TaskStatus.FAILED);
+                log.error("补偿任务重试耗尽，需人工处理 - Saga: {}, 类型: {}, 对象: {}, 原因: {}",
+                    task.getSagaId(), task.getTaskType().getDescription(), task.getTargetRef(), task.getLastError());
+            } else {
+                task.setStatus(TaskStatus.PENDING);
+                task.setNextAttemptAt(now.plus(backoff(task.getRetryCount())));
+                log.warn("补偿任务执行失败，等待重试 - Saga: {}, 类型: {}, 已重试: {}, 原因: {}",
+                    task.getSagaId(), task.getTaskType().getDescription(), task.getRetryCount(), task.getLastError());
+            }
+        }
+
+        Integer recorded = taskTransaction.execute(status -> taskRepository.recordResult(task, claimedAt));
+        if (recorded == null || recorded == 0) {
+            log.warn("补偿任务认领已失效，本次结果不记录 - Saga: {}, 类型: {}, 认领时间: {}",
+                task.getSagaId(), task.getTaskType().getDescription(), claimedAt);
+        }
+    }
+
+    /**
+     * 认领时间，截断到数据库时间戳精度 (微秒)，记录结果时按相等比较
+     */
+    private static LocalDateTime claimTime() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * 带抖动的指数退避: 在 [上限/2, 上限] 内随机，避免大量失败任务同时重试
+     *
+     * @param retries 已重试次数
+     * @return 距下次执行的时间
+     */
+    private Duration backoff(int retries) {
+        long ceiling = retryBackoff.toMillis() << Math.min(retries, 20);
+        ceiling = Math.min(ceiling, maxBackoff.toMillis());
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private CompensationTask newTask(String sagaId, TaskType taskType, String targetRef, LocalDateTime now) {
+        return CompensationTask.builder()
+            .sagaId(sagaId)
+            .taskType(taskType)
+            .targetRef(targetRef)
+            .status(TaskStatus.RUNNING)
+            .retryCount(0)
+            .nextAttemptAt(now)
+            .claimedAt(now)
+            .createdAt(now)
+            .build();
+    }
+}
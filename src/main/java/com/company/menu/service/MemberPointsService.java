@@ -0,0 +1,386 @@
+package com.company.menu.service;
+
+import com.company.menu.domain.MemberPointsJournal;
+import com.company.menu.domain.MemberPointsJournal.JournalStatus;
+import com.company.menu.integration.MemberService;
+import com.company.menu.integration.dto.PointsAdjustment;
+import com.company.menu.integration.dto.PointsAdjustmentResult;
+import com.company.menu.repository.MemberPointsJournalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 会员积分服务（本地余额 + 回写日志）
+ *
+ * 对应 BDD 场景: behaviors/order/order_with_external_deps.feature - "多个外部服务协同工作"
+ * - 结账时查询积分、使用积分抵扣，会员系统变慢时结账不受影响
+ *
+ * 余额策略:
+ * - 每个用户一份本地余额 = 会员系统余额 + 尚未回写的调整合计，读取后在 TTL 内直接使用
+ * - 扣减和增加在用户锁内完成"校验余额 → 写日志 → 更新余额"，余额不足时拒绝，本节点内不会透支
+ * - 本地余额按节点维护，只包含本节点的调整: 同一用户在多个节点上同时扣减时，各节点的校验都可能通过，
+ *   合计可能超过会员系统余额。超出部分在回写时由会员系统拒绝，调整标记失败、需与订单对账；
+ *   需要严格不透支时，同一用户的结账应路由到固定节点
+ * - 用户有未回写的调整时本地余额为准，不重新加载，避免回写途中把已生效的调整计算两次
+ * - 没有未回写调整且已过期的本地余额定期清除，内存占用随活跃用户数而不是历史用户数增长
+ *
+ * 回写策略:
+ * - 调整写入积分日志后即返回，后台任务按记录顺序批量回写会员系统；
+ *   调用方有事务时日志随调用方事务提交（如下单事务），事务回滚时日志和本地余额的调整一并撤销
+ * - 每条调整带幂等键，会员系统按幂等键去重时 (MemberService#isIdempotent)，
+ *   回写失败按原幂等键重试，超过最大尝试次数标记失败
+ * - 会员系统不去重时每条调整只发送一次: 发送前先提交尝试次数，失败或结果未知（回写途中退出）的调整标记失败，
+ *   不重复发送，避免重复扣减
+ * - 标记失败的用户，本地余额在调整全部结清后从会员系统重新加载
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class MemberPointsService {
+
+    private final MemberService memberService;
+    private final MemberPointsJournalRepository journalRepository;
+
+    // 日志加入调用方事务，没有事务时单独提交
+    private final TransactionTemplate journalTransaction;
+
+    // 用户ID → 本地余额
+    private final Map<String, Balance> balances = new ConcurrentHashMap<>();
+
+    // 本地余额有效期
+    private final Duration ttl;
+
+    // 每批回写的调整数
+    private final int batchSize;
+
+    // 最大回写尝试次数
+    private final int maxAttempts;
+
+    public MemberPointsService(
+            MemberService memberService,
+            MemberPointsJournalRepository journalRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${menu.member.points.ttl:PT30S}") Duration ttl,
+            @Value("${menu.member.points.batch-size:200}") int batchSize,
+            @Value("${menu.member.points.max-attempts:10}") int maxAttempts) {
+        this.memberService = memberService;
+        this.journalRepository = journalRepository;
+        this.journalTransaction = new TransactionTemplate(transactionManager);
+        this.journalTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * 查询用户可用积分
+     *
+     * @param userId 用户ID
+     * @return 可用积分（含尚未回写的调整）
+     */
+    public int getPoints(String userId) {
+        Balance balance = lockBalance(userId);
+        try {
+            refreshIfStale(userId, balance);
+            return balance.available;
+        } finally {
+            balance.lock.unlock();
+        }
+    }
+
+    /**
+     * 扣减积分
+     *
+     * @param userId 用户ID
+     * @param points 扣减积分数
+     * @param idempotencyKey 幂等键，同一键重复调用只扣减一次
+     * @return 余额充足并已扣减返回 true，余额不足返回 false
+     */
+    public boolean deductPoints(String userId, int points, String idempotencyKey) {
+        return adjust(userId, -points, idempotencyKey);
+    }
+
+    /**
+     * 增加积分（如订单取消时退回）
+     *
+     * @param userId 用户ID
+     * @param points 增加积分数
+     * @param idempotencyKey 幂等键，同一键重复调用只增加一次
+     */
+    public void addPoints(String userId, int points, String idempotencyKey) {
+        adjust(userId, points, idempotencyKey);
+    }
+
+    /**
+     * 批量回写积分调整
+     */
+    @Scheduled(fixedDelayString = "${menu.member.points.flush-interval:PT1S}")
+    public void flushJournal() {
+        List<MemberPointsJournal> pending = journalRepository
+            .findByStatusOrderByIdAsc(JournalStatus.PENDING, PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        boolean idempotent = memberService.isIdempotent();
+        List<MemberPointsJournal> settled = new ArrayList<>();
+        if (!idempotent) {
+            pending = claimOnce(pending, settled);
+            if (pending.isEmpty()) {
+                settled.forEach(this::settle);
+                return;
+            }
+        }
+
+        List<PointsAdjustment> adjustments = pending.stream()
+            .map(entry -> PointsAdjustment.builder()
+                .idempotencyKey(entry.getIdempotencyKey())
+                .userId(entry.getUserId())
+                .points(entry.getPoints())
+                .build())
+            .toList();
+
+        List<PointsAdjustmentResult> results;
+        try {
+            results = memberService.applyPointsAdjustments(adjustments);
+        } catch (RuntimeException e) {
+            log.warn("积分调整回写失败 - 条数: {}", adjustments.size(), e);
+            results = adjustments.stream()
+                .map(adjustment -> PointsAdjustmentResult.failed(adjustment.getIdempotencyKey(), e.getMessage()))
+                .toList();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pending.size(); i++) {
+            MemberPointsJournal entry = pending.get(i);
+            PointsAdjustmentResult result = i < results.size() ? results.get(i) : null;
+
+            if (idempotent) {
+                entry.setAttempts(entry.getAttempts() + 1);
+            }
+            if (result != null && result.isSuccess()) {
+                entry.setStatus(JournalStatus.APPLIED);
+                entry.setAppliedAt(now);
+                settled.add(entry);
+            } else {
+                entry.setFailureReason(result == null ? "无回写结果" : result.getMessage());
+                if (!idempotent || entry.getAttempts() >= maxAttempts) {
+                    entry.setStatus(JournalStatus.FAILED);
+                    settled.add(entry);
+                    log.error("积分调整回写失败，已停止重试 - 用户: {}, 积分: {}, 幂等键: {}, 原因: {}",
+                        entry.getUserId(), entry.getPoints(), entry.getIdempotencyKey(), entry.getFailureReason());
+                }
+            }
+        }
+
+        // 状态提交后再结清本地余额，重新加载时不会把已回写的调整计算两次
+        List<MemberPointsJournal> sent = pending;
+        journalTransaction.executeWithoutResult(status -> journalRepository.saveAll(sent));
+        settled.forEach(this::settle);
+
+        log.info("积分调整回写 - 条数: {}, 结清: {}, 待重试: {}",
+            pending.size(), settled.size(), pending.stream().filter(entry -> entry.getStatus() == JournalStatus.PENDING).count());
+    }
+
+    /**
+     * 清除没有未回写调整、已过期的本地余额
+     */
+    @Scheduled(fixedDelayString = "${menu.member.points.evict-interval:PT1M}")
+    public void evictIdleBalances() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int before = balances.size();
+
+        balances.forEach((userId, balance) -> {
+            // 正在使用的余额留到下一轮
+            if (!balance.lock.tryLock()) {
+                return;
+            }
+            try {
+                if (balance.pending == 0 && (balance.loadedAt == null || balance.loadedAt.isBefore(cutoff))) {
+                    balance.evicted = true;
+                    balances.remove(userId, balance);
+                }
+            } finally {
+                balance.lock.unlock();
+            }
+        });
+
+        log.debug("清除过期的本地积分余额 - 清除前: {}, 清除后: {}", before, balances.size());
+    }
+
+    /**
+     * 会员系统不按幂等键去重时，每条调整只发送一次
+     *
+     * 已发送过（尝试次数大于 0）的调整结果未知，标记失败不再发送；其余调整先提交尝试次数再发送
+     *
+     * @param pending 待回写的调整
+     * @param settled 标记失败的调整加入此列表
+     * @return 本次发送的调整
+     */
+    private List<MemberPointsJournal> claimOnce(List<MemberPointsJournal> pending, List<MemberPointsJournal> settled) {
+        List<MemberPointsJournal> unsent = new ArrayList<>();
+        for (MemberPointsJournal entry : pending) {
+            if (entry.getAttempts() > 0) {
+                entry.setStatus(JournalStatus.FAILED);
+                entry.setFailureReason("回写结果未知，需与会员系统对账");
+                settled.add(entry);
+                log.error("积分调整回写结果未知，不再重复发送 - 用户: {}, 积分: {}, 幂等键: {}",
+                    entry.getUserId(), entry.getPoints(), entry.getIdempotencyKey());
+            } else {
+                entry.setAttempts(1);
+                unsent.add(entry);
+            }
+        }
+
+        journalTransaction.executeWithoutResult(status -> journalRepository.saveAll(pending));
+        return unsent;
+    }
+
+    private boolean adjust(String userId, int delta, String idempotencyKey) {
+        Balance balance = lockBalance(userId);
+        try {
+            if (journalRepository.existsByIdempotencyKey(idempotencyKey)) {
+                log.debug("积分调整已记录，忽略重复请求 - 用户: {}, 幂等键: {}", userId, idempotencyKey);
+                return true;
+            }
+
+            refreshIfStale(userId, balance);
+            if (balance.available + delta < 0) {
+                log.info("积分不足 - 用户: {}, 可用: {}, 扣减: {}", userId, balance.available, -delta);
+                return false;
+            }
+
+            journalTransaction.executeWithoutResult(status -> {
+                journalRepository.save(MemberPointsJournal.builder()
+                    .idempotencyKey(idempotencyKey)
+                    .userId(userId)
+                    .points(delta)
+                    .status(JournalStatus.PENDING)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+
+                balance.available += delta;
+                balance.pending++;
+                revertOnRollback(balance, delta);
+            });
+
+            log.debug("积分已调整 - 用户: {}, 调整: {}, 可用: {}", userId, delta, balance.available);
+            return true;
+        } finally {
+            balance.lock.unlock();
+        }
+    }
+
+    /**
+     * 日志所在事务回滚时撤销本地余额的调整
+     */
+    private void revertOnRollback(Balance balance, int delta) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                balance.lock.lock();
+                try {
+                    balance.available -= delta;
+                    balance.pending = Math.max(0, balance.pending - 1);
+                } finally {
+                    balance.lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * 调整已回写或已放弃，失败时本地余额在调整全部结清后重新加载
+     */
+    private void settle(MemberPointsJournal entry) {
+        Balance balance = balances.get(entry.getUserId());
+        if (balance == null) {
+            return;
+        }
+        balance.lock.lock();
+        try {
+            if (balance.evicted) {
+                return;
+            }
+            balance.pending = Math.max(0, balance.pending - 1);
+            if (entry.getStatus() == JournalStatus.FAILED) {
+                balance.loadedAt = null;
+            }
+        } finally {
+            balance.lock.unlock();
+        }
+    }
+
+    /**
+     * 取得并锁定用户的本地余额，拿到已清除的余额时重新取
+     */
+    private Balance lockBalance(String userId) {
+        while (true) {
+            Balance balance = balances.computeIfAbsent(userId, id -> new Balance());
+            balance.lock.lock();
+            if (!balance.evicted) {
+                return balance;
+            }
+            balance.lock.unlock();
+        }
+    }
+
+    /**
+     * 没有未结清的调整且已过期时，从会员系统重新加载
+     *
+     * 调用方持有用户锁
+     */
+    private void refreshIfStale(String userId, Balance balance) {
+        boolean expired = balance.loadedAt == null
+            || balance.loadedAt.plus(ttl).isBefore(LocalDateTime.now());
+        if (!expired || balance.pending > 0) {
+            return;
+        }
+
+        int remote = memberService.getPoints(userId);
+        long pendingPoints = journalRepository.sumPendingPoints(userId);
+        balance.available = (int) (remote + pendingPoints);
+        balance.pending = (int) journalRepository.countByUserIdAndStatus(userId, JournalStatus.PENDING);
+        balance.loadedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 用户本地余额，字段由 lock 保护
+     */
+    private static final class Balance {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private int available;
+
+        // 已记录、尚未结清的调整数
+        private int pending;
+
+        private LocalDateTime loadedAt;
+
+        // 已从 balances 中清除，持有者需重新取
+        private boolean evicted;
+    }
+}
@@ -1,5 +1,7 @@
 package com.company.menu.service;
 
+import com.company.common.Futures;
+import com.company.menu.domain.CompensationTask;
 import com.company.menu.domain.Order;
 import com.company.menu.integration.*;
 import com.company.menu.integration.dto.*;
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 订单服务
@@ -20,6 +23,8 @@ import java.util.UUID;
  * 演示如何在业务服务中集成外部依赖
  * 在测试中，外部依赖会被 Mock
  *
+ * 下单和支付流程基于异步集成接口组合，同步方法等待组合结果，异常与直接调用同步接口时一致。
+ *
  * @author AI-Generated
  * @version 1.0.0
  * @since 2026-02-04
@@ -29,16 +34,19 @@ import java.util.UUID;
 public class OrderService {
 
     @Autowired
-    private InventoryService inventoryService;
+    private AsyncInventoryService asyncInventoryService;
+
+    @Autowired
+    private AsyncPaymentGateway asyncPaymentGateway;
 
     @Autowired
-    private PaymentGateway paymentGateway;
+    private AsyncSmsService asyncSmsService;
 
     @Autowired
-    private SmsService smsService;
+    private MemberPointsService memberPointsService;
 
     @Autowired
-    private MemberService memberService;
+    private CompensationService compensationService;
 
     /**
      * 创建订单
@@ -47,52 +55,65 @@ public class OrderService {
      */
     @Transactional
     public Order createOrder(String userName, String productName, int quantity) {
+        return Futures.join(createOrderAsync(userName, productName, quantity));
+    }
+
+    /**
+     * 异步创建订单
+     *
+     * 检查库存 → 锁定库存 → 创建支付订单，各步骤按依赖顺序组合，等待外部系统时不占用线程；
+     * 支付网关失败时先释放库存再以失败结束。
+     */
+    public CompletableFuture<Order> createOrderAsync(String userName, String productName, int quantity) {
         log.info("创建订单 - 用户: {}, 产品: {}, 数量: {}", userName, productName, quantity);
 
         // 1. 检查库存（外部依赖）
         String productCode = "LATTE-GRANDE"; // 简化处理
-        InventoryCheckResult inventoryCheck = inventoryService.checkInventory(productCode, quantity);
-
-        if (!inventoryCheck.isSufficient()) {
-            throw new RuntimeException("库存不足");
-        }
-
-        // 2. 创建订单
-        String orderNo = generateOrderNo();
-        BigDecimal unitPrice = new BigDecimal("36.00");
-        BigDecimal totalAmount = unitPrice.multiply(new BigDecimal(quantity));
-
-        Order order = Order.builder()
-            .orderNo(orderNo)
-            .userName(userName)
-            .productName(productName)
-            .productCode(productCode)
-            .quantity(quantity)
-            .totalAmount(totalAmount)
-            .actualAmount(totalAmount)
-            .status(Order.OrderStatus.PENDING_PAYMENT)
-            .createdAt(LocalDateTime.now())
-            .build();
-
-        // 3. 锁定库存（外部依赖）
-        boolean locked = inventoryService.lockInventory(productCode, quantity, orderNo);
-        if (!locked) {
-            throw new RuntimeException("库存锁定失败");
-        }
+        return asyncInventoryService.checkInventory(productCode, quantity).thenCompose(inventoryCheck -> {
+            if (!inventoryCheck.isSufficient()) {
+                throw new RuntimeException("库存不足");
+            }
 
-        // 4. 创建支付订单（外部依赖）
-        try {
-            PaymentOrder paymentOrder = paymentGateway.createPayment(totalAmount, orderNo);
-            order.setPaymentId(paymentOrder.getPaymentId());
-        } catch (Exception e) {
-            log.error("支付网关调用失败", e);
-            // 回滚库存
-            inventoryService.releaseInventory(orderNo);
-            throw new RuntimeException("支付网关超时", e);
-        }
+            // 2. 创建订单
+            String orderNo = generateOrderNo();
+            BigDecimal unitPrice = new BigDecimal("36.00");
+            BigDecimal totalAmount = unitPrice.multiply(new BigDecimal(quantity));
+
+            Order order = Order.builder()
+                .orderNo(orderNo)
+                .userName(userName)
+                .productName(productName)
+                .productCode(productCode)
+                .quantity(quantity)
+                .totalAmount(totalAmount)
+                .actualAmount(totalAmount)
+                .status(Order.OrderStatus.PENDING_PAYMENT)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+            // 3. 锁定库存（外部依赖）
+            return asyncInventoryService.lockInventory(productCode, quantity, orderNo).thenCompose(locked -> {
+                if (!locked) {
+                    throw new RuntimeException("库存锁定失败");
+                }
 
-        log.info("✓ 订单创建成功: {}", orderNo);
-        return order;
+                // 4. 创建支付订单（外部依赖）
+                return asyncPaymentGateway.createPayment(totalAmount, orderNo)
+                    .thenApply(paymentOrder -> {
+                        order.setPaymentId(paymentOrder.getPaymentId());
+                        log.info("✓ 订单创建成功: {}", orderNo);
+                        return order;
+                    })
+                    .exceptionallyCompose(error -> {
+                        log.error("支付网关调用失败", Futures.unwrap(error));
+                        // 回滚库存
+                        return asyncInventoryService.releaseInventory(orderNo)
+                            .<Order>thenApply(released -> {
+                                throw new RuntimeException("支付网关超时", Futures.unwrap(error));
+                            });
+                    });
+            });
+        });
     }
 
     /**
@@ -117,8 +138,16 @@ public class OrderService {
 
     /**
      * 应用积分抵扣
+     *
+     * 积分在本地余额上扣减后立即生效，由 MemberPointsService 异步回写会员系统；
+     * 在下单事务中调用时扣减随订单一起提交，订单回滚时扣减一并撤销；
+     * 以订单号作为幂等键，重复抵扣同一订单不会重复扣减
      */
     public void applyPointsDeduction(Order order, int points) {
+        if (!memberPointsService.deductPoints(order.getUserName(), points, order.getOrderNo() + ":points")) {
+            throw new RuntimeException("积分不足");
+        }
+
         // 100 积分 = 1 元
         BigDecimal discount = new BigDecimal(points).divide(new BigDecimal("100"));
 
@@ -133,44 +162,57 @@ public class OrderService {
      */
     @Transactional
     public void completePayment(Order order) {
+        Futures.join(completePaymentAsync(order));
+    }
+
+    /**
+     * 异步完成支付
+     *
+     * 查询支付状态 → 扣减库存 → 发送短信通知，短信失败降级，不影响主流程
+     */
+    public CompletableFuture<Void> completePaymentAsync(Order order) {
         log.info("完成支付 - 订单: {}", order.getOrderNo());
 
-        try {
-            // 1. 查询支付状态（外部依赖）
-            PaymentStatus status = paymentGateway.queryPaymentStatus(order.getPaymentId());
+        // 1. 查询支付状态（外部依赖）
+        return asyncPaymentGateway.queryPaymentStatus(order.getPaymentId())
+            .thenCompose(status -> {
+                if (status != PaymentStatus.SUCCESS) {
+                    throw new RuntimeException("支付失败");
+                }
 
-            if (status == PaymentStatus.SUCCESS) {
                 // 2. 更新订单状态
                 order.completePay(order.getPaymentId());
 
                 // 3. 扣减库存（外部依赖）
-                inventoryService.deductInventory(order.getOrderNo());
-
+                return asyncInventoryService.deductInventory(order.getOrderNo());
+            })
+            .thenCompose(deducted -> {
                 // 4. 发送短信通知（外部依赖，可降级）
-                try {
-                    String message = "订单支付成功，订单号: " + order.getOrderNo();
-                    smsService.sendSms("13800138000", message);
-                } catch (Exception e) {
-                    log.warn("短信发送失败，降级处理", e);
-                    // 短信失败不影响主流程
-                }
-
-                log.info("✓ 支付完成: {}", order.getOrderNo());
-            } else {
-                throw new RuntimeException("支付失败");
-            }
-
-        } catch (Exception e) {
-            // 支付超时，设置为处理中
-            order.setPaymentProcessing();
-            throw new RuntimeException("支付超时", e);
-        }
+                String message = "订单支付成功，订单号: " + order.getOrderNo();
+                return asyncSmsService.sendSms("13800138000", message)
+                    .handle((response, error) -> {
+                        if (error != null) {
+                            log.warn("短信发送失败，降级处理", Futures.unwrap(error));
+                            // 短信失败不影响主流程
+                        }
+                        log.info("✓ 支付完成: {}", order.getOrderNo());
+                        return (Void) null;
+                    });
+            })
+            .exceptionally(error -> {
+                // 支付超时，设置为处理中
+                order.setPaymentProcessing();
+                throw new RuntimeException("支付超时", Futures.unwrap(error));
+            });
     }
 
     /**
      * 取消订单
      *
-     * 依赖外部服务：支付网关、库存系统
+     * 依赖外部服务：支付网关、库存系统、会员系统
+     *
+     * 退款、释放库存、退回积分作为补偿步骤并行执行，失败的步骤转为补偿任务由后台重试，
+     * 订单取消本身不因外部系统故障而失败
      */
     @Transactional
     public void cancelOrder(Order order) {
@@ -179,21 +221,14 @@ public class OrderService {
         // 1. 取消订单
         order.cancel();
 
-        // 2. 退款（如果已支付）
-        if (order.getPaymentId() != null) {
-            paymentGateway.refund(order.getPaymentId());
-        }
+        // 2. 退款、释放库存、退回积分（补偿）
+        List<CompensationTask> tasks = compensationService.compensateCancellation(order);
 
-        // 3. 释放库存（可能失败，需要补偿）
-        try {
-            inventoryService.releaseInventory(order.getOrderNo());
-        } catch (Exception e) {
-            log.error("库存释放失败，需要创建补偿任务", e);
-            // 创建补偿任务（简化处理）
-            throw e;
+        if (tasks.stream().allMatch(task -> task.getStatus() == CompensationTask.TaskStatus.SUCCEEDED)) {
+            log.info("✓ 订单取消成功");
+        } else {
+            log.info("✓ 订单已取消，补偿任务待后台完成: {}", order.getOrderNo());
         }
-
-        log.info("✓ 订单取消成功");
     }
 
     /**
@@ -0,0 +1,207 @@
+package com.company.menu.service;
+
+import com.company.menu.domain.PriceChangeOrder;
+import com.company.menu.repository.PriceChangeOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 价格变更单缓存
+ *
+ * 对应 BDD 场景: behaviors/menu/price_state_flow.feature
+ * - 审批、执行过程中反复按单号读取和保存变更单
+ *
+ * 缓存策略:
+ * - 读穿透: 按单号读取，未命中时查询数据库并回填
+ * - 写穿透: 保存后立即使缓存失效，事务提交后写入最新状态；事务回滚则只失效不回填
+ * - 版本化失效: 每次状态流转（审批、开始执行、执行完成、执行失败）分配递增版本，
+ *   失效标记与缓存内容放在同一个有界条目中；读穿透回填前校验版本，避免并发读取把旧状态写回缓存
+ * - 容量上限: 按 LRU 淘汰（失效标记同样计入容量），被淘汰条目的最大版本记为淘汰水位，
+ *   单号无条目时以水位校验回填，不为每个单号长期保留版本
+ *
+ * 缓存中保存副本，读取时返回副本，调用方修改不会影响缓存内容。
+ *
+ * 指标 (标签 cache=price-change-order): cache.gets 按 result=hit/miss 统计按单号读取是否命中，
+ * cache.size 为缓存的变更单数（不含失效标记），用于调整 max-size。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class PriceChangeOrderCache {
+
+    private static final String METRIC_CACHE_NAME = "price-change-order";
+
+    private final PriceChangeOrderRepository orderRepository;
+
+    // 按访问顺序排列，超过容量时淘汰最久未访问的单号
+    private final Map<String, Entry> entries;
+
+    // 失效版本时钟，以下字段均在 entries 锁内读写
+    private long clock;
+
+    // 已淘汰条目的最大版本
+    private long evictedVersion;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PriceChangeOrderCache(
+            PriceChangeOrderRepository orderRepository,
+            MeterRegistry meterRegistry,
+            @Value("${menu.pricing.order-cache.max-size:10000}") int maxSize) {
+        this.orderRepository = orderRepository;
+        this.hits = Counter.builder("cache.gets")
+            .tag("cache", METRIC_CACHE_NAME)
+            .tag("result", "hit")
+            .description("按单号读取变更单命中缓存的次数")
+            .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+            .tag("cache", METRIC_CACHE_NAME)
+            .tag("result", "miss")
+            .description("按单号读取变更单未命中、查询数据库的次数")
+            .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictedVersion = Math.max(evictedVersion, eldest.getValue().version());
+                return true;
+            }
+        };
+        Gauge.builder("cache.size", this, PriceChangeOrderCache::size)
+            .tag("cache", METRIC_CACHE_NAME)
+            .description("缓存的变更单数")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 按单号读取变更单（读穿透）
+     *
+     * @param orderNo 变更单号
+     * @return 价格变更单副本
+     */
+    public Optional<PriceChangeOrder> findByOrderNo(String orderNo) {
+        long version;
+        synchronized (entries) {
+            Entry cached = entries.get(orderNo);
+            if (cached != null && cached.order() != null) {
+                hits.increment();
+                return Optional.of(copy(cached.order()));
+            }
+            version = clock;
+        }
+        misses.increment();
+
+        Optional<PriceChangeOrder> loaded = orderRepository.findByOrderNo(orderNo);
+        loaded.ifPresent(order -> putIfVersion(orderNo, version, order));
+
+        // 返回副本，调用方修改不会成为持久化上下文中的脏数据
+        return loaded.map(this::copy);
+    }
+
+    /**
+     * 保存变更单（写穿透）
+     *
+     * @param order 价格变更单
+     * @return 保存后的变更单
+     */
+    public PriceChangeOrder save(PriceChangeOrder order) {
+        PriceChangeOrder saved = orderRepository.save(order);
+        refresh(saved);
+        return saved;
+    }
+
+    /**
+     * 变更单已在数据库中更新（如 CAS 状态流转），失效缓存并在事务提交后回填
+     *
+     * @param order 更新后的变更单
+     */
+    public void refresh(PriceChangeOrder order) {
+        String orderNo = order.getOrderNo();
+        long version = invalidate(orderNo);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PriceChangeOrder snapshot = copy(order);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putIfVersion(orderNo, version, snapshot);
+                }
+            });
+        } else {
+            putIfVersion(orderNo, version, order);
+        }
+    }
+
+    /**
+     * 使单号对应的缓存失效
+     *
+     * @param orderNo 变更单号
+     * @return 失效后的版本
+     */
+    public long invalidate(String orderNo) {
+        long version;
+        synchronized (entries) {
+            version = ++clock;
+            entries.put(orderNo, new Entry(null, version));
+        }
+        log.debug("变更单缓存失效 - 单号: {}, 版本: {}", orderNo, version);
+        return version;
+    }
+
+    /**
+     * 当前缓存条目数（不含失效标记）
+     */
+    public int size() {
+        synchronized (entries) {
+            return (int) entries.values().stream().filter(entry -> entry.order() != null).count();
+        }
+    }
+
+    /**
+     * 读取或失效之后单号没有再次失效时回填
+     *
+     * @param version 读取开始时的时钟，或本次失效分配的版本
+     */
+    private void putIfVersion(String orderNo, long version, PriceChangeOrder order) {
+        synchronized (entries) {
+            Entry current = entries.get(orderNo);
+            long invalidatedAt = current != null ? current.version() : evictedVersion;
+            if (invalidatedAt <= version) {
+                entries.put(orderNo, new Entry(copy(order), invalidatedAt));
+            }
+        }
+    }
+
+    private PriceChangeOrder copy(PriceChangeOrder order) {
+        // toBuilder 为浅拷贝，集合字段单独复制
+        return order.toBuilder()
+            .affectedStoreIds(order.getAffectedStoreIds() == null
+                ? null : new ArrayList<>(order.getAffectedStoreIds()))
+            .build();
+    }
+
+    /**
+     * 缓存条目，order 为 null 表示已失效、等待回填
+     *
+     * @param version 最近一次失效的版本
+     */
+    private record Entry(PriceChangeOrder order, long version) {
+    }
+}
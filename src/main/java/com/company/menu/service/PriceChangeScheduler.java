@@ -0,0 +1,201 @@
+package com.company.menu.service;
+
+import com.company.menu.domain.PriceChangeOrder;
+import com.company.menu.event.PriceChangeApprovedEvent;
+import com.company.menu.repository.PriceChangeOrderRepository;
+import com.company.menu.repository.PriceChangeOrderRepository.ScheduledOrder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 价格变更生效调度器
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效"
+ * - When: 系统时间到达生效时间
+ * - Then: 所有门店价格应更新
+ *
+ * 调度策略:
+ * - 定期扫描即将生效的已审批变更单，审批通过事件到达时也立即登记
+ * - 生效时间和目标区域相同的变更单归为一组，按生效时间排入延时队列，
+ *   到点整组触发 executeCoalescedPriceChanges，每个门店只推送一次多产品价格更新
+ * - 执行线程数固定，午夜批量生效时对数据库的并发压力有上限
+ * - 多节点部署时各节点都会登记同一变更单，执行时由"已审批 → 执行中"的 CAS 流转认领，
+ *   只有一个节点能认领成功，其余节点认领失败的变更单从本组中跳过
+ * - 认领时间即执行租约: 定期收回超过租期仍在执行中的变更单（执行节点中途退出），
+ *   退回已审批后重新登记执行
+ * - 定期把已到失效时间的价格历史置为失效
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "menu.pricing.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class PriceChangeScheduler {
+
+    private final PricingService pricingService;
+    private final PriceChangeOrderRepository orderRepository;
+
+    // 延时队列 + 固定执行线程数
+    private final ScheduledThreadPoolExecutor executor;
+
+    // 已登记的单号，避免重复调度
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    // 生效时间 + 区域 → 待合并执行的单号
+    private final Map<GroupKey, Set<String>> groups = new ConcurrentHashMap<>();
+
+    // 扫描时向前预读的时间窗口
+    private final Duration lookAhead;
+
+    // 执行租期，需长于推送全部门店（含重试）的最长耗时
+    private final Duration claimLease;
+
+    public PriceChangeScheduler(
+            PricingService pricingService,
+            PriceChangeOrderRepository orderRepository,
+            @Value("${menu.pricing.scheduler.max-concurrency:4}") int maxConcurrency,
+            @Value("${menu.pricing.scheduler.look-ahead:PT10M}") Duration lookAhead,
+            @Value("${menu.pricing.scheduler.claim-lease:PT10M}") Duration claimLease) {
+        this.pricingService = pricingService;
+        this.orderRepository = orderRepository;
+        this.lookAhead = lookAhead;
+        this.claimLease = claimLease;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "price-change-executor-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 扫描即将生效的已审批变更单
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.scheduler.scan-interval:PT1M}")
+    public void scanApprovedOrders() {
+        LocalDateTime horizon = LocalDateTime.now().plus(lookAhead);
+
+        int registered = 0;
+        for (ScheduledOrder order : orderRepository.findByStatusAndEffectiveDateLessThanEqualOrderByEffectiveDate(
+                PriceChangeOrder.OrderStatus.APPROVED, horizon)) {
+            if (schedule(order.getOrderNo(), order.getEffectiveDate(), order.getTargetRegion())) {
+                registered++;
+            }
+        }
+
+        if (registered > 0) {
+            log.info("登记待生效价格变更单 - 数量: {}, 排队中: {}", registered, executor.getQueue().size());
+        }
+    }
+
+    /**
+     * 收回执行租约到期的变更单并重新登记
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.scheduler.lease-check-interval:PT1M}")
+    public void releaseExpiredClaims() {
+        int released = pricingService.releaseExpiredClaims(LocalDateTime.now().minus(claimLease));
+        if (released > 0) {
+            log.warn("执行租约到期的价格变更单已退回 - 数量: {}", released);
+            scanApprovedOrders();
+        }
+    }
+
+    /**
+     * 清理已到失效时间的价格历史
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.scheduler.expiry-sweep-interval:PT1M}")
+    public void deactivateExpiredPrices() {
+        int deactivated = pricingService.deactivateExpiredPrices();
+        if (deactivated > 0) {
+            log.debug("已到失效时间的价格历史已置为失效 - 数量: {}", deactivated);
+        }
+    }
+
+    /**
+     * 审批通过后立即登记（生效时间在预读窗口外的留给后续扫描）
+     */
+    @TransactionalEventListener
+    public void onApproved(PriceChangeApprovedEvent event) {
+        if (!event.effectiveDate().isAfter(LocalDateTime.now().plus(lookAhead))) {
+            schedule(event.orderNo(), event.effectiveDate(), event.targetRegion());
+        }
+    }
+
+    /**
+     * 当前已登记、尚未执行完成的变更单数
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean schedule(String orderNo, LocalDateTime effectiveDate, String targetRegion) {
+        if (!scheduled.add(orderNo)) {
+            return false;
+        }
+
+        GroupKey key = new GroupKey(effectiveDate, targetRegion);
+        groups.compute(key, (k, orderNos) -> {
+            if (orderNos == null) {
+                // 组内第一个变更单负责登记延时任务，后续变更单加入同一组
+                long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), effectiveDate).toMillis());
+                executor.schedule(() -> execute(key), delayMillis, TimeUnit.MILLISECONDS);
+                orderNos = new LinkedHashSet<>();
+            }
+            orderNos.add(orderNo);
+            return orderNos;
+        });
+
+        log.debug("价格变更单已登记 - 单号: {}, 生效时间: {}, 区域: {}", orderNo, effectiveDate, targetRegion);
+        return true;
+    }
+
+    private void execute(GroupKey key) {
+        // 取出整组后，迟到的变更单会新建一组并立即触发
+        Set<String> orderNos = groups.remove(key);
+        if (orderNos == null) {
+            return;
+        }
+
+        try {
+            Map<String, Boolean> results = pricingService.executeCoalescedPriceChanges(orderNos);
+            if (results.size() < orderNos.size()) {
+                log.debug("部分价格变更单已由其他节点执行或状态已变化 - 生效时间: {}, 区域: {}, 登记: {}, 执行: {}",
+                    key.effectiveDate(), key.targetRegion(), orderNos.size(), results.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("价格变更单定时执行失败 - 生效时间: {}, 区域: {}, 单号: {}",
+                key.effectiveDate(), key.targetRegion(), orderNos, e);
+        } finally {
+            scheduled.removeAll(orderNos);
+        }
+    }
+
+    /**
+     * 合并执行分组键
+     */
+    private record GroupKey(LocalDateTime effectiveDate, String targetRegion) {}
+}
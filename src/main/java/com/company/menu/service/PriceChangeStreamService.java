@@ -0,0 +1,316 @@
+package com.company.menu.service;
+
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.event.PriceChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 价格变更推送服务 (Server-Sent Events)
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效"
+ * - POS、App、电子菜单板订阅价格变更，不再轮询价格历史
+ *
+ * 推送策略:
+ * - 订阅者按区域、产品过滤；全国价变更推送给所有区域的订阅者
+ * - 每条变更只序列化一次，生成的 SSE 帧由所有订阅者共享
+ * - 每个订阅者一个有界缓冲区，由固定数量的分发线程异步写出，慢订阅者不阻塞发布方和其他订阅者
+ * - 缓冲区满时丢弃积压的变更，改为发送一条 resync 事件，订阅者收到后应拉取价格快照重新同步
+ * - 长连接基于 Servlet 异步请求，不占用请求线程；定时发送心跳以清理已断开的连接
+ * - 写出是阻塞的: 对端不读取时 send 会卡住分发线程，由容器的写超时
+ *   (server.tomcat.connection-timeout) 结束阻塞的写出，send 抛出异常后释放分发线程
+ * - 单次写出超过 write-timeout 的订阅者由定时检查标记断开并移除，不再接收新的变更；
+ *   定时线程不触碰连接（关闭连接需要等待与卡住的写出相同的锁），连接由分发线程在写出返回后关闭
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class PriceChangeStreamService {
+
+    private static final String EVENT_PRICE_CHANGE = "price-change";
+    private static final String EVENT_RESYNC = "resync";
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    private final ObjectMapper objectMapper;
+
+    // 当前订阅者
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // 写出缓冲区的分发线程
+    private final ExecutorService dispatcher;
+
+    // 事件序号，作为 SSE 事件 ID
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Set<DataWithMediaType> resyncFrame = SseEmitter.event()
+        .name(EVENT_RESYNC)
+        .data("{}", MediaType.APPLICATION_JSON)
+        .build();
+
+    private final Set<DataWithMediaType> heartbeatFrame = SseEmitter.event()
+        .comment("heartbeat")
+        .build();
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Duration writeTimeout;
+
+    public PriceChangeStreamService(
+            ObjectMapper objectMapper,
+            @Value("${menu.pricing.stream.buffer-size:64}") int bufferSize,
+            @Value("${menu.pricing.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${menu.pricing.stream.timeout:PT30M}") Duration timeout,
+            @Value("${menu.pricing.stream.dispatch-threads:4}") int dispatchThreads,
+            @Value("${menu.pricing.stream.write-timeout:PT10S}") Duration writeTimeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.writeTimeout = writeTimeout;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-dispatcher-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 订阅价格变更
+     *
+     * @param regionCode 区域过滤，为空时订阅所有区域
+     * @param productCode 产品过滤，为空时订阅所有产品
+     * @return SSE 连接；订阅者已达上限时为空
+     */
+    public Optional<SseEmitter> subscribe(String regionCode, String productCode) {
+        if (subscribers.size() >= maxSubscribers) {
+            log.warn("价格变更订阅者已达上限 - 上限: {}", maxSubscribers);
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = createEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, blankToNull(regionCode), blankToNull(productCode), bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        log.debug("新增价格变更订阅 - 区域: {}, 产品: {}, 订阅者: {}", regionCode, productCode, subscribers.size());
+        return Optional.of(emitter);
+    }
+
+    /**
+     * 事务提交后向匹配的订阅者分发价格变更
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(EVENT_PRICE_CHANGE)
+                .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (JsonProcessingException e) {
+            log.error("价格变更序列化失败 - 产品: {}, 区域: {}", event.productCode(), event.regionCode(), e);
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                enqueue(subscriber, frame);
+            }
+        }
+    }
+
+    /**
+     * 定时心跳，及时发现已断开的连接
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.stream.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // 缓冲区有积压时连接仍在写出，不必再发心跳
+            if (subscriber.buffer.isEmpty() && subscriber.buffer.offer(heartbeatFrame)) {
+                dispatch(subscriber);
+            }
+        }
+    }
+
+    /**
+     * 断开单次写出超时的订阅者
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.stream.stall-check-interval:PT5S}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != NOT_SENDING && now - sendingSince > writeTimeout.toNanos()) {
+                log.warn("价格变更订阅者写出超时，断开连接 - 区域: {}, 产品: {}",
+                    subscriber.regionCode, subscriber.productCode);
+                evict(subscriber, new TimeoutException("写出超过 " + writeTimeout));
+            }
+        }
+    }
+
+    /**
+     * 当前订阅者数
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.buffer.offer(frame)) {
+            // 积压的变更已无法完整送达，整体丢弃并要求订阅者重新同步
+            synchronized (subscriber) {
+                subscriber.buffer.clear();
+                subscriber.buffer.offer(resyncFrame);
+            }
+            log.debug("价格变更订阅者缓冲区已满，要求重新同步 - 区域: {}, 产品: {}",
+                subscriber.regionCode, subscriber.productCode);
+        }
+        dispatch(subscriber);
+    }
+
+    private void dispatch(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * 创建 SSE 连接
+     *
+     * @param timeoutMillis 连接超时时间
+     */
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (subscriber.closeCause.get() == null && (frame = subscriber.buffer.poll()) != null) {
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(frame);
+                subscriber.sendingSince = NOT_SENDING;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 连接已断开、已完成或写出超时
+            evict(subscriber, e);
+        } finally {
+            subscriber.sendingSince = NOT_SENDING;
+            subscriber.draining.set(false);
+        }
+
+        if (subscriber.closeCause.get() != null) {
+            complete(subscriber);
+        } else if (!subscriber.buffer.isEmpty()) {
+            // 释放标记前后到达的帧重新调度写出
+            dispatch(subscriber);
+        }
+    }
+
+    /**
+     * 标记订阅者断开并移除，不触碰连接
+     *
+     * 正在写出时由写出所在的分发线程在 send 返回后关闭连接，否则调度一次分发关闭连接。
+     */
+    private void evict(Subscriber subscriber, Throwable cause) {
+        subscriber.closeCause.compareAndSet(null, cause);
+        subscribers.remove(subscriber);
+        subscriber.buffer.clear();
+        dispatch(subscriber);
+    }
+
+    /**
+     * 在分发线程上关闭连接，只执行一次
+     */
+    private void complete(Subscriber subscriber) {
+        if (!subscriber.completed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            subscriber.emitter.completeWithError(subscriber.closeCause.get());
+        } catch (RuntimeException e) {
+            log.debug("关闭价格变更订阅失败", e);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * 订阅者
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String regionCode;
+        private final String productCode;
+        private final Queue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        // 断开原因，非空表示已断开、等待分发线程关闭连接
+        private final AtomicReference<Throwable> closeCause = new AtomicReference<>();
+
+        // 当前写出的开始时间 (System.nanoTime)，未在写出时为 NOT_SENDING
+        private volatile long sendingSince = NOT_SENDING;
+
+        private Subscriber(SseEmitter emitter, String regionCode, String productCode, int bufferSize) {
+            this.emitter = emitter;
+            this.regionCode = regionCode;
+            this.productCode = productCode;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean accepts(PriceChangedEvent event) {
+            return (productCode == null || productCode.equals(event.productCode()))
+                && (regionCode == null
+                    || regionCode.equals(event.regionCode())
+                    || PriceHistory.NATIONAL_REGION.equals(event.regionCode()));
+        }
+    }
+}
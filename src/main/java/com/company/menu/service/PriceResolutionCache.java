@@ -0,0 +1,500 @@
+package com.company.menu.service;
+
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.repository.PriceHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 门店价格解析缓存
+ *
+ * 门店价格按层级解析: 门店价 → 所属区域价 → 全国价，取最具体的一级。
+ * 价格变更执行后，送达的门店写入门店级记录，因此已执行过的门店解析为 POS 上的实际价格；
+ * 区域价和全国价覆盖尚未有门店级记录的门店和产品。
+ *
+ * 缓存策略:
+ * - 预计算: 每个 (门店, 产品) 的解析结果预先算好，POS 查价只需一次哈希查找
+ * - 精确失效: 门店价变更只重算该门店该产品；区域价变更重算该区域各门店该产品；
+ *   全国价变更重算所有门店该产品
+ * - 事务提交后生效，事务回滚不影响缓存；未到生效时间的记录（提前执行的变更单）到点后由同步任务应用
+ *
+ * 多节点同步: 缓存在各节点本地维护，本节点的写入在事务提交后立即应用；
+ * 其他节点的写入由定期同步任务从价格历史读取（sync-interval 内写入或到达生效时间的生效中记录，
+ * 向前多读 sync-lookback 容忍各节点时钟偏差和事务提交延迟）。同一层级上只应用比已应用记录更新的记录，
+ * 重复读取不会改变缓存。其他节点写入的价格最迟 sync-interval 后在本节点生效。
+ *
+ * 区域状态: 区域快照取区域价与该区域最近执行完成的变更单价格中较新的一个（无则为全国价）。
+ * 变更单只写门店级记录，区域的已执行价格由这些记录的变更单号和区域推导，重启后同样可从价格历史重建。
+ *
+ * 版本: 版本号取自价格历史记录ID，记录每个解析结果、每个门店、每个区域最近一次变化对应的记录ID，
+ * 供价格快照按版本返回增量 (见 PriceSnapshotService)。同一数据库上各节点、重启前后的版本号一致。
+ * 记录ID在写入时分配，并发事务可能晚于更大ID的记录提交，此时持有较大版本号的客户端会错过较早提交的增量，
+ * 下次该门店或区域有新变更、或客户端不带版本全量拉取时补齐。
+ *
+ * 指标 (标签 cache=price-resolution): cache.gets 按 result=hit/miss 统计查价是否命中预计算结果
+ * （未命中时回退全国价），cache.size 为解析条目数，用于评估预计算覆盖的门店和产品。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class PriceResolutionCache {
+
+    private static final String METRIC_CACHE_NAME = "price-resolution";
+
+    private final PriceHistoryRepository historyRepository;
+
+    // 同步时向前多读的时间，覆盖节点间时钟偏差和写入到提交的延迟
+    private final Duration syncLookback;
+
+    // 上次同步（或构建）的时间
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    // 各层级的当前价格（只在持锁时修改）
+    private final Map<String, BigDecimal> nationalPrices = new ConcurrentHashMap<>();
+    private final Map<RegionProduct, BigDecimal> regionPrices = new ConcurrentHashMap<>();
+    private final Map<StoreProduct, BigDecimal> storePrices = new HashMap<>();
+
+    // 门店 ↔ 区域
+    private final Map<Long, String> storeRegions = new HashMap<>();
+    private final Map<String, Set<Long>> regionStores = new HashMap<>();
+
+    // 出现过的产品
+    private final Set<String> products = ConcurrentHashMap.newKeySet();
+
+    // 预计算的解析结果，无锁读取
+    private final Map<StoreProduct, BigDecimal> resolved = new ConcurrentHashMap<>();
+
+    // 区域内最近执行完成的变更单价格（由变更单写入的门店级记录推导）
+    private final Map<RegionProduct, BigDecimal> executedPrices = new ConcurrentHashMap<>();
+
+    // 各价格、条目、门店、区域最近一次变化的版本（价格历史记录ID）
+    private final Map<StoreProduct, Long> storePriceVersions = new HashMap<>();
+    private final Map<StoreProduct, Long> resolvedVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> storeVersions = new ConcurrentHashMap<>();
+    private final Map<RegionProduct, Long> regionPriceVersions = new ConcurrentHashMap<>();
+    private final Map<RegionProduct, Long> executedPriceVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> nationalPriceVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> regionVersions = new ConcurrentHashMap<>();
+
+    // 正在应用的记录ID，重建时为 0（解析结果取其来源记录的ID）
+    private long applying;
+
+    private volatile long version;
+    private volatile long nationalVersion;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PriceResolutionCache(
+            PriceHistoryRepository historyRepository,
+            MeterRegistry meterRegistry,
+            @Value("${menu.pricing.resolution-cache.sync-lookback:PT1M}") Duration syncLookback) {
+        this.historyRepository = historyRepository;
+        this.syncLookback = syncLookback;
+        this.hits = Counter.builder("cache.gets")
+            .tag("cache", METRIC_CACHE_NAME)
+            .tag("result", "hit")
+            .description("门店查价命中预计算结果的次数")
+            .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+            .tag("cache", METRIC_CACHE_NAME)
+            .tag("result", "miss")
+            .description("门店查价未命中预计算结果、回退全国价的次数")
+            .register(meterRegistry);
+        Gauge.builder("cache.size", resolved, Map::size)
+            .tag("cache", METRIC_CACHE_NAME)
+            .description("预计算的 (门店, 产品) 解析条目数")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 启动后从当前生效的价格历史构建缓存
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PriceHistory> active = historyRepository.findActiveAt(now);
+        lastSync = now;
+
+        synchronized (this) {
+            nationalPrices.clear();
+            regionPrices.clear();
+            storePrices.clear();
+            storeRegions.clear();
+            regionStores.clear();
+            products.clear();
+            resolved.clear();
+            executedPrices.clear();
+            storePriceVersions.clear();
+            resolvedVersions.clear();
+            storeVersions.clear();
+            regionPriceVersions.clear();
+            executedPriceVersions.clear();
+            nationalPriceVersions.clear();
+            regionVersions.clear();
+            version = 0;
+            nationalVersion = 0;
+            applying = 0;
+
+            active.stream()
+                .sorted(Comparator.comparing(PriceHistory::getId))
+                .forEach(this::record);
+            storeRegions.keySet().forEach(storeId -> products.forEach(productCode -> recompute(storeId, productCode)));
+        }
+
+        log.info("门店价格解析缓存已构建 - 门店数: {}, 产品数: {}, 条目数: {}",
+            storeRegions.size(), products.size(), resolved.size());
+    }
+
+    /**
+     * 应用其他节点写入、以及本节点提前写入现已到达生效时间的价格记录
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.resolution-cache.sync-interval:PT5S}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PriceHistory> activated = historyRepository.findActivatedSince(lastSync.minus(syncLookback), now);
+        lastSync = now;
+
+        if (!activated.isEmpty()) {
+            long before = version;
+            synchronized (this) {
+                activated.forEach(this::applyNow);
+            }
+            log.debug("门店价格解析缓存已同步 - 读取记录数: {}, 版本: {} → {}", activated.size(), before, version);
+        }
+    }
+
+    /**
+     * 解析门店的产品价格
+     *
+     * @param storeId 门店ID
+     * @param productCode 产品编码
+     * @return 价格；未登记的门店只能解析到全国价
+     */
+    public Optional<BigDecimal> resolve(Long storeId, String productCode) {
+        BigDecimal price = resolved.get(new StoreProduct(storeId, productCode));
+        if (price == null) {
+            misses.increment();
+            price = nationalPrices.get(productCode);
+        } else {
+            hits.increment();
+        }
+        return Optional.ofNullable(price);
+    }
+
+    /**
+     * 查询某一层级上的当前价格（不做层级回退）
+     *
+     * @param regionCode 区域代码（全国级为 PriceHistory.NATIONAL_REGION）
+     * @param storeId 门店ID，区域级和全国级为空
+     * @param productCode 产品编码
+     * @return 价格
+     */
+    public synchronized Optional<BigDecimal> findLevelPrice(String regionCode, Long storeId, String productCode) {
+        if (storeId != null) {
+            return Optional.ofNullable(storePrices.get(new StoreProduct(storeId, productCode)));
+        }
+        if (PriceHistory.NATIONAL_REGION.equals(regionCode)) {
+            return Optional.ofNullable(nationalPrices.get(productCode));
+        }
+        return Optional.ofNullable(regionPrices.get(new RegionProduct(regionCode, productCode)));
+    }
+
+    /**
+     * 解析区域当前价格（区域价与区域内最近执行完成的变更单价格中较新的一个，都没有时为全国价）
+     *
+     * 门店单独定价不计入区域价格。
+     *
+     * @param regionCode 区域代码
+     * @param productCode 产品编码
+     * @return 价格
+     */
+    public Optional<BigDecimal> resolveRegion(String regionCode, String productCode) {
+        return Optional.ofNullable(regionPrice(new RegionProduct(regionCode, productCode)));
+    }
+
+    /**
+     * 应用一条新的生效价格记录（事务提交后生效）
+     *
+     * @param history 价格历史记录
+     */
+    public void apply(PriceHistory history) {
+        afterCommit(() -> applyNow(history));
+    }
+
+    /**
+     * 应用变更单写入的门店级记录（事务提交后生效）
+     *
+     * @param histories 变更单送达门店的价格历史记录
+     */
+    public void applyAll(Collection<PriceHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+        List<PriceHistory> applied = List.copyOf(histories);
+        afterCommit(() -> {
+            synchronized (this) {
+                applied.forEach(this::applyNow);
+            }
+        });
+    }
+
+    /**
+     * 当前缓存的解析条目数
+     */
+    public int size() {
+        return resolved.size();
+    }
+
+    /**
+     * 已应用的最大价格历史记录ID
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 门店价格最近一次变化的版本
+     *
+     * @param storeId 门店ID
+     * @return 版本；未登记的门店返回全国价的版本
+     */
+    public long getStoreVersion(Long storeId) {
+        return storeVersions.getOrDefault(storeId, nationalVersion);
+    }
+
+    /**
+     * 区域价格（含全国价回退）最近一次变化的版本
+     *
+     * @param regionCode 区域代码
+     * @return 版本
+     */
+    public long getRegionVersion(String regionCode) {
+        return Math.max(regionVersions.getOrDefault(regionCode, 0L), nationalVersion);
+    }
+
+    /**
+     * 门店在指定版本之后变化过的价格
+     *
+     * @param storeId 门店ID
+     * @param since 起始版本，小于 0 时返回全部价格
+     * @return 产品编码 → 价格
+     */
+    public Map<String, BigDecimal> getStorePricesSince(Long storeId, long since) {
+        Map<String, BigDecimal> prices = new TreeMap<>();
+        for (String productCode : products) {
+            StoreProduct key = new StoreProduct(storeId, productCode);
+            BigDecimal price = resolved.get(key);
+            long changed = resolvedVersions.getOrDefault(key, 0L);
+            if (price == null) {
+                price = nationalPrices.get(productCode);
+                changed = nationalPriceVersions.getOrDefault(productCode, 0L);
+            }
+            if (price != null && (since < 0 || changed > since)) {
+                prices.put(productCode, price);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * 区域在指定版本之后变化过的价格（区域价与已执行变更单价格中较新的一个，都没有时为全国价）
+     *
+     * @param regionCode 区域代码
+     * @param since 起始版本，小于 0 时返回全部价格
+     * @return 产品编码 → 价格
+     */
+    public Map<String, BigDecimal> getRegionPricesSince(String regionCode, long since) {
+        Map<String, BigDecimal> prices = new TreeMap<>();
+        for (String productCode : products) {
+            RegionProduct key = new RegionProduct(regionCode, productCode);
+            BigDecimal price = regionPrice(key);
+            long changed = Math.max(
+                Math.max(regionPriceVersions.getOrDefault(key, 0L), executedPriceVersions.getOrDefault(key, 0L)),
+                nationalPriceVersions.getOrDefault(productCode, 0L));
+            if (price != null && (since < 0 || changed > since)) {
+                prices.put(productCode, price);
+            }
+        }
+        return prices;
+    }
+
+    private BigDecimal regionPrice(RegionProduct key) {
+        long regionVersion = regionPriceVersions.getOrDefault(key, 0L);
+        long executedVersion = executedPriceVersions.getOrDefault(key, 0L);
+        BigDecimal price = executedVersion > regionVersion ? executedPrices.get(key) : regionPrices.get(key);
+        return price != null ? price : nationalPrices.get(key.productCode());
+    }
+
+    private synchronized void applyNow(PriceHistory history) {
+        if (history.getEffectiveTime() != null && history.getEffectiveTime().isAfter(LocalDateTime.now())) {
+            // 未到生效时间，到点后由同步任务应用
+            return;
+        }
+        if (!isNewer(history)) {
+            return;
+        }
+
+        applying = history.getId();
+        String productCode = history.getProductCode();
+        boolean moved = history.priceLevel() == PriceHistory.PriceLevel.STORE
+            && registerStore(history.getStoreId(), history.getRegionCode());
+        record(history);
+
+        switch (history.priceLevel()) {
+            case STORE -> recomputeStore(history.getStoreId(), productCode, moved);
+            case REGION -> regionStores.getOrDefault(history.getRegionCode(), Set.of())
+                .forEach(storeId -> recompute(storeId, productCode));
+            case NATIONAL -> storeRegions.keySet()
+                .forEach(storeId -> recompute(storeId, productCode));
+        }
+    }
+
+    /**
+     * 记录一条价格，只更新层级数据，不重算解析结果
+     */
+    private void record(PriceHistory history) {
+        String productCode = history.getProductCode();
+        long id = history.getId();
+        products.add(productCode);
+        version = Math.max(version, id);
+
+        switch (history.priceLevel()) {
+            case STORE -> {
+                StoreProduct key = new StoreProduct(history.getStoreId(), productCode);
+                registerStore(history.getStoreId(), history.getRegionCode());
+                storePrices.put(key, history.getNewPrice());
+                storePriceVersions.put(key, id);
+                if (history.getChangeOrderNo() != null) {
+                    RegionProduct executed = new RegionProduct(history.getRegionCode(), productCode);
+                    executedPrices.put(executed, history.getNewPrice());
+                    executedPriceVersions.put(executed, id);
+                    regionVersions.merge(history.getRegionCode(), id, Math::max);
+                }
+            }
+            case REGION -> {
+                RegionProduct key = new RegionProduct(history.getRegionCode(), productCode);
+                regionPrices.put(key, history.getNewPrice());
+                regionPriceVersions.put(key, id);
+                regionVersions.merge(history.getRegionCode(), id, Math::max);
+            }
+            case NATIONAL -> {
+                nationalPrices.put(productCode, history.getNewPrice());
+                nationalPriceVersions.put(productCode, id);
+                nationalVersion = Math.max(nationalVersion, id);
+            }
+        }
+    }
+
+    /**
+     * 是否比同一层级上已应用的记录更新
+     */
+    private boolean isNewer(PriceHistory history) {
+        String productCode = history.getProductCode();
+        Long applied = switch (history.priceLevel()) {
+            case STORE -> storePriceVersions.get(new StoreProduct(history.getStoreId(), productCode));
+            case REGION -> regionPriceVersions.get(new RegionProduct(history.getRegionCode(), productCode));
+            case NATIONAL -> nationalPriceVersions.get(productCode);
+        };
+        return applied == null || applied < history.getId();
+    }
+
+    /**
+     * 登记门店所属区域
+     *
+     * @return 新门店或门店调整了区域时返回 true
+     */
+    private boolean registerStore(Long storeId, String regionCode) {
+        String previous = storeRegions.put(storeId, regionCode);
+        if (regionCode.equals(previous)) {
+            return false;
+        }
+
+        if (previous != null) {
+            regionStores.getOrDefault(previous, new HashSet<>()).remove(storeId);
+        }
+        regionStores.computeIfAbsent(regionCode, region -> new HashSet<>()).add(storeId);
+        return true;
+    }
+
+    /**
+     * 门店价变更后重算: 新门店或调整区域的门店重算所有产品，否则只重算该产品
+     */
+    private void recomputeStore(Long storeId, String productCode, boolean moved) {
+        if (moved) {
+            products.forEach(product -> recompute(storeId, product));
+        } else {
+            recompute(storeId, productCode);
+        }
+    }
+
+    private void recompute(Long storeId, String productCode) {
+        StoreProduct key = new StoreProduct(storeId, productCode);
+
+        BigDecimal price = storePrices.get(key);
+        long source = storePriceVersions.getOrDefault(key, 0L);
+        if (price == null) {
+            String regionCode = storeRegions.get(storeId);
+            RegionProduct regionKey = new RegionProduct(regionCode, productCode);
+            price = regionCode == null ? null : regionPrices.get(regionKey);
+            source = regionCode == null ? 0L : regionPriceVersions.getOrDefault(regionKey, 0L);
+        }
+        if (price == null) {
+            price = nationalPrices.get(productCode);
+            source = nationalPriceVersions.getOrDefault(productCode, 0L);
+        }
+
+        BigDecimal previous = price == null ? resolved.remove(key) : resolved.put(key, price);
+        boolean changed = price == null
+            ? previous != null
+            : previous == null || previous.compareTo(price) != 0;
+        if (changed) {
+            long changedAt = Math.max(source, applying);
+            resolvedVersions.put(key, changedAt);
+            storeVersions.merge(storeId, changedAt, Math::max);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record StoreProduct(Long storeId, String productCode) {}
+
+    private record RegionProduct(String regionCode, String productCode) {}
+}
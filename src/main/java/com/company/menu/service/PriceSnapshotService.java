@@ -0,0 +1,132 @@
+package com.company.menu.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 价格快照服务
+ *
+ * 为 POS 终端和边缘缓存提供门店/区域的生效价格快照:
+ * - 快照直接取自 PriceResolutionCache 的预计算结果，不查询数据库，
+ *   价格变更时缓存按条目增量更新，快照无需整体重建
+ * - 版本号为最近一次变化对应的价格历史记录ID，作为 ETag 使用；
+ *   同一数据库上各节点、重启前后一致，请求落到任一节点都能按版本取增量
+ * - 传入 since 时只返回该版本之后变化过的价格（增量快照）
+ *
+ * 版本号先于价格读取，并发变更时快照可能包含比版本号更新的价格，
+ * 客户端下次按该版本号取增量时会重复收到这些价格，覆盖写入即可。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceSnapshotService {
+
+    private final PriceResolutionCache resolutionCache;
+
+    /**
+     * 门店当前快照版本
+     *
+     * @param storeId 门店ID
+     * @return 版本号
+     */
+    public String getStoreVersion(Long storeId) {
+        return formatVersion(resolutionCache.getStoreVersion(storeId));
+    }
+
+    /**
+     * 区域当前快照版本
+     *
+     * @param regionCode 区域代码
+     * @return 版本号
+     */
+    public String getRegionVersion(String regionCode) {
+        return formatVersion(resolutionCache.getRegionVersion(regionCode));
+    }
+
+    /**
+     * 门店价格快照
+     *
+     * @param storeId 门店ID
+     * @param since 客户端已持有的版本号，为空或已失效时返回全量快照
+     * @return 价格快照
+     */
+    public PriceSnapshot getStoreSnapshot(Long storeId, String since) {
+        long version = resolutionCache.getStoreVersion(storeId);
+        long base = parseVersion(since);
+        Map<String, BigDecimal> prices = resolutionCache.getStorePricesSince(storeId, base);
+
+        log.debug("生成门店价格快照 - 门店: {}, 版本: {}, 基准: {}, 条目: {}", storeId, version, base, prices.size());
+
+        return snapshot("store:" + storeId, version, base, prices);
+    }
+
+    /**
+     * 区域价格快照（区域价，无区域价时为全国价）
+     *
+     * @param regionCode 区域代码
+     * @param since 客户端已持有的版本号，为空或已失效时返回全量快照
+     * @return 价格快照
+     */
+    public PriceSnapshot getRegionSnapshot(String regionCode, String since) {
+        long version = resolutionCache.getRegionVersion(regionCode);
+        long base = parseVersion(since);
+        Map<String, BigDecimal> prices = resolutionCache.getRegionPricesSince(regionCode, base);
+
+        log.debug("生成区域价格快照 - 区域: {}, 版本: {}, 基准: {}, 条目: {}", regionCode, version, base, prices.size());
+
+        return snapshot("region:" + regionCode, version, base, prices);
+    }
+
+    private PriceSnapshot snapshot(String scope, long version, long base, Map<String, BigDecimal> prices) {
+        boolean full = base < 0;
+        return new PriceSnapshot(scope, formatVersion(version), full ? null : formatVersion(base), full, prices);
+    }
+
+    private String formatVersion(long version) {
+        return Long.toString(version);
+    }
+
+    /**
+     * 解析客户端版本号
+     *
+     * @return 价格历史记录ID；为空、格式错误或大于当前版本（数据库已重置）时返回 -1（全量）
+     */
+    private long parseVersion(String version) {
+        if (version == null || version.isBlank()) {
+            return -1;
+        }
+        try {
+            long parsed = Long.parseLong(version);
+            if (parsed < 0 || parsed > resolutionCache.getVersion()) {
+                return -1;
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 价格快照
+     *
+     * @param scope 快照范围 (store:{id} / region:{code})
+     * @param version 快照版本
+     * @param baseVersion 增量快照的起始版本，全量快照为 null
+     * @param full 是否全量快照
+     * @param prices 产品编码 → 生效价格
+     */
+    public record PriceSnapshot(
+        String scope,
+        String version,
+        String baseVersion,
+        boolean full,
+        Map<String, BigDecimal> prices) {}
+}
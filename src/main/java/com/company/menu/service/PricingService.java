@@ -1,20 +1,36 @@
 package com.company.menu.service;
 
+import com.company.menu.archive.PriceHistoryArchiveService;
 import com.company.menu.domain.PriceChangeOrder;
 import com.company.menu.domain.PriceHistory;
+import com.company.menu.event.PriceChangeApprovedEvent;
+import com.company.menu.event.PriceChangedEvent;
+import com.company.menu.integration.PosSystemClient;
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
 import com.company.menu.repository.PriceChangeOrderRepository;
 import com.company.menu.repository.PriceHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 价格管理服务
@@ -39,6 +55,14 @@ public class PricingService {
     private final PriceHistoryRepository historyRepository;
     private final NotificationService notificationService;
     private final RollbackService rollbackService;
+    private final PriceChangeOrderCache orderCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PosSystemClient posSystemClient;
+    private final StoreFailurePolicy failurePolicy;
+    private final StoreResyncService resyncService;
+    private final PriceHistoryArchiveService archiveService;
+    private final PriceResolutionCache resolutionCache;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 创建价格变更单
@@ -111,7 +135,7 @@ public class PricingService {
         order.validatePriceDecrease();
 
         // 7. 保存变更单
-        PriceChangeOrder savedOrder = orderRepository.save(order);
+        PriceChangeOrder savedOrder = orderCache.save(order);
 
         log.info("价格变更单创建成功 - 单号: {}, 影响门店数: {}",
             orderNo, affectedStoreIds.size());
@@ -167,20 +191,25 @@ public class PricingService {
      * @param orderNo 变更单号
      * @param approver 审批人
      * @return 审批后的变更单
+     * @throws IllegalStateException 当前状态不允许审批
+     * @throws OrderStateConflictException 并发审批时已被其他审批人抢先
      */
     @Transactional
     public PriceChangeOrder approvePriceChangeOrder(String orderNo, String approver) {
         log.info("审批价格变更单 - 单号: {}, 审批人: {}", orderNo, approver);
 
-        PriceChangeOrder order = orderRepository.findByOrderNo(orderNo)
+        PriceChangeOrder order = orderCache.findByOrderNo(orderNo)
             .orElseThrow(() -> new IllegalArgumentException("变更单不存在: " + orderNo));
 
+        PriceChangeOrder.OrderStatus expected = order.getStatus();
         order.approve(approver);
-        PriceChangeOrder approvedOrder = orderRepository.save(order);
+        commitTransition(order, expected);
+        eventPublisher.publishEvent(new PriceChangeApprovedEvent(
+            orderNo, order.getEffectiveDate(), order.getTargetRegion()));
 
         log.info("价格变更单审批成功 - 单号: {}", orderNo);
 
-        return approvedOrder;
+        return order;
     }
 
     /**
@@ -190,76 +219,228 @@ public class PricingService {
      * When: 系统时间到达生效时间
      * Then: 所有门店价格应更新
      *
+     * 对应 BDD 场景: "价格调整异常回滚"
+     * - 失败门店数超过 StoreFailurePolicy 的阈值时回滚所有已更新的门店
+     * - 未超过阈值时变更单照常完成，失败门店隔离后由 StoreResyncService 重新同步
+     *
+     * 认领（已审批 → 执行中）在独立的短事务中提交，认领时间即执行租约的起点；
+     * 推送及失败门店的退避重试在事务外进行，不占用数据库连接和行锁；
+     * 执行结果在独立事务中记录，提交时校验认领时间，租约已被收回（见 releaseExpiredClaims）时本次结果不生效。
+     *
      * @param orderNo 变更单号
      * @return 执行结果
      */
-    @Transactional
     public boolean executePriceChange(String orderNo) {
         log.info("开始执行价格变更 - 单号: {}", orderNo);
 
-        PriceChangeOrder order = orderRepository.findByOrderNo(orderNo)
-            .orElseThrow(() -> new IllegalArgumentException("变更单不存在: " + orderNo));
+        // 1. 认领并提交
+        PriceChangeOrder order = claim(orderNo);
+
+        // 2. 批量推送各门店价格（事务外，失败门店按策略退避重试）
+        List<StorePriceUpdate> updates = order.getAffectedStoreIds().stream()
+            .map(storeId -> StorePriceUpdate.builder()
+                .storeId(storeId)
+                .prices(Map.of(order.getProductCode(), order.getNewPrice()))
+                .build())
+            .toList();
+        List<PosUpdateResult> pushResults = pushPrices(updates);
+
+        Map<Long, PosUpdateResult> storeResults = new LinkedHashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            storeResults.put(updates.get(i).getStoreId(), pushResults.get(i));
+        }
 
-        // 1. 开始执行
-        order.startExecution();
-        orderRepository.save(order);
-
-        AtomicInteger successCount = new AtomicInteger(0);
-        AtomicInteger failureCount = new AtomicInteger(0);
-
-        try {
-            // 2. 为每个门店更新价格并记录历史
-            order.getAffectedStoreIds().forEach(storeId -> {
-                try {
-                    // 更新门店价格 (调用POS系统API)
-                    updateStorePricing(storeId, order.getProductCode(), order.getNewPrice());
-
-                    // 记录价格历史
-                    savePriceHistory(order, storeId);
-
-                    successCount.incrementAndGet();
-                } catch (Exception e) {
-                    log.error("门店价格更新失败 - 门店ID: {}, 错误: {}",
-                        storeId, e.getMessage());
-                    failureCount.incrementAndGet();
-
-                    // 如果失败数量超过阈值，触发回滚
-                    if (failureCount.get() >= 1) {
-                        throw new PriceUpdateException(
-                            "门店价格同步失败",
-                            storeId,
-                            e
-                        );
-                    }
-                }
-            });
+        // 3. 记录结果
+        return settle(order, storeResults);
+    }
 
-            // 3. 执行完成
-            order.completeExecution();
-            orderRepository.save(order);
+    /**
+     * 合并执行同一生效时间、同一区域的多个价格变更单
+     *
+     * 对应 BDD 场景: "价格变更审批通过后自动生效"
+     * - 菜单刷新时每个产品×区域各生成一个变更单，影响的门店列表相同
+     * - 按门店合并，每个门店只推送一次多产品价格更新，而不是每个变更单各推送一次
+     * - 所有门店的更新一次交给 POS 客户端批量推送
+     *
+     * 同一产品有多个变更单时不合并到同一次推送: 变更单按生效时间、单号排序后分轮执行，
+     * 每轮每个产品只有一个变更单，门店上最终保留最晚生效的价格。
+     *
+     * 成功、失败和回滚仍按变更单分别记录: 某门店推送失败时，该门店计入其涉及的每个变更单的失败门店，
+     * 各变更单按失败策略分别判断完成（隔离失败门店）或回滚已成功推送的门店。
+     * 与 executePriceChange 相同，认领、推送、记录结果分开进行，每个变更单的结果在各自的事务中提交。
+     *
+     * @param orderNos 变更单号
+     * @return 单号 → 执行结果；未能认领（已被其他节点执行或状态已变化）或结果提交时租约已被收回的变更单不在结果中
+     */
+    public Map<String, Boolean> executeCoalescedPriceChanges(Collection<String> orderNos) {
+        log.info("开始合并执行价格变更 - 变更单数: {}", orderNos.size());
+
+        // 1. 认领变更单（已审批 → 执行中），每个变更单的认领各自提交
+        List<PriceChangeOrder> orders = new ArrayList<>();
+        for (String orderNo : orderNos) {
+            try {
+                orders.add(claim(orderNo));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                log.info("变更单未能认领，跳过合并执行 - 单号: {}, 原因: {}", orderNo, e.getMessage());
+            }
+        }
 
-            // 4. 发送通知
-            notificationService.sendPriceChangeNotification(order);
+        // 2. 按产品分轮，逐轮推送并记录结果
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        List<List<PriceChangeOrder>> rounds = splitByProduct(orders);
+        for (List<PriceChangeOrder> round : rounds) {
+            executeRound(round, results);
+        }
 
-            log.info("价格变更执行成功 - 单号: {}, 成功: {}, 失败: {}",
-                orderNo, successCount.get(), failureCount.get());
+        log.info("合并执行价格变更完成 - 变更单数: {}, 轮数: {}, 失败变更单数: {}",
+            orders.size(), rounds.size(), results.values().stream().filter(success -> !success).count());
 
-            return true;
+        return results;
+    }
 
-        } catch (PriceUpdateException e) {
-            // 执行回滚
-            log.error("价格变更执行失败，开始回滚 - 单号: {}", orderNo, e);
+    /**
+     * 按生效时间、单号排序后分轮，同一产品的第 n 个变更单进入第 n 轮
+     */
+    private List<List<PriceChangeOrder>> splitByProduct(List<PriceChangeOrder> orders) {
+        List<List<PriceChangeOrder>> rounds = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+
+        orders.stream()
+            .sorted(Comparator.comparing(PriceChangeOrder::getEffectiveDate)
+                .thenComparing(PriceChangeOrder::getOrderNo))
+            .forEach(order -> {
+                int round = seen.merge(order.getProductCode(), 1, Integer::sum) - 1;
+                if (round == rounds.size()) {
+                    rounds.add(new ArrayList<>());
+                }
+                rounds.get(round).add(order);
+            });
 
-            rollbackService.rollbackPriceChanges(order, successCount.get());
+        return rounds;
+    }
 
-            order.failExecution(e.getMessage());
-            orderRepository.save(order);
+    /**
+     * 执行一轮: 每个门店一个多产品价格更新，整体一次批量推送，再按变更单分别记录结果
+     */
+    private void executeRound(List<PriceChangeOrder> orders, Map<String, Boolean> results) {
+        Map<Long, List<PriceChangeOrder>> ordersByStore = new LinkedHashMap<>();
+        orders.forEach(order -> order.getAffectedStoreIds().forEach(storeId ->
+            ordersByStore.computeIfAbsent(storeId, id -> new ArrayList<>()).add(order)));
+
+        List<StorePriceUpdate> updates = new ArrayList<>(ordersByStore.size());
+        ordersByStore.forEach((storeId, storeOrders) -> {
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            storeOrders.forEach(order -> prices.put(order.getProductCode(), order.getNewPrice()));
+            updates.add(StorePriceUpdate.builder().storeId(storeId).prices(prices).build());
+        });
+
+        // 事务外推送，失败门店按策略退避重试
+        List<PosUpdateResult> pushResults = pushPrices(updates);
+        Map<Long, PosUpdateResult> resultsByStore = new HashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            PosUpdateResult result = pushResults.get(i);
+            resultsByStore.put(updates.get(i).getStoreId(), result);
+            if (!result.isSuccess()) {
+                log.error("门店价格更新失败 - 门店ID: {}, 涉及变更单数: {}, 错误: {}",
+                    updates.get(i).getStoreId(), ordersByStore.get(updates.get(i).getStoreId()).size(),
+                    result.getMessage());
+            }
+        }
 
-            // 发送失败通知
-            notificationService.sendPriceChangeFailureNotification(order, e.getMessage());
+        // 每个变更单的结果各自提交，一个变更单提交失败不影响其他变更单
+        for (PriceChangeOrder order : orders) {
+            Map<Long, PosUpdateResult> storeResults = new LinkedHashMap<>();
+            order.getAffectedStoreIds().forEach(storeId -> storeResults.put(storeId, resultsByStore.get(storeId)));
+            try {
+                results.put(order.getOrderNo(), settle(order, storeResults));
+            } catch (OrderStateConflictException e) {
+                log.warn("变更单执行结果未能提交，租约已被收回 - 单号: {}", order.getOrderNo());
+            }
+        }
+    }
 
+    /**
+     * 在独立事务中记录一个变更单的执行结果，执行失败时在事务提交后向已更新的门店推送回滚
+     *
+     * @param order 已认领的变更单
+     * @param storeResults 门店ID → 推送结果
+     * @return 执行结果
+     * @throws OrderStateConflictException 租约已被收回，本次结果未提交
+     */
+    private boolean settle(PriceChangeOrder order, Map<Long, PosUpdateResult> storeResults) {
+        String orderNo = order.getOrderNo();
+        List<Long> updatedStoreIds = new ArrayList<>();
+        List<PosUpdateResult> failed = new ArrayList<>();
+        storeResults.forEach((storeId, result) -> {
+            if (result.isSuccess()) {
+                updatedStoreIds.add(storeId);
+            } else {
+                log.error("门店价格更新失败 - 单号: {}, 门店ID: {}, 错误: {}", orderNo, storeId, result.getMessage());
+                failed.add(result);
+            }
+        });
+
+        boolean tolerable = failurePolicy.isTolerable(failed.size(), storeResults.size());
+        PriceUpdateException error = tolerable ? null : toPriceUpdateException(failed.get(0));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 记录价格历史
+            List<PriceHistory> histories = updatedStoreIds.stream()
+                .map(storeId -> savePriceHistory(order, storeId))
+                .toList();
+
+            if (tolerable) {
+                // 失败门店在容忍范围内，隔离后重新同步
+                completeOrder(order, histories, failed);
+            } else {
+                // 失败门店数超过阈值，作废本单记录
+                failOrder(order, error);
+            }
+        });
+
+        if (!tolerable) {
+            log.error("价格变更执行失败，回滚已更新门店 - 单号: {}, 失败门店数: {}", orderNo, failed.size(), error);
+            rollbackService.rollbackPriceChanges(order, updatedStoreIds);
             return false;
         }
+
+        log.info("价格变更执行成功 - 单号: {}, 成功: {}, 失败: {}", orderNo, updatedStoreIds.size(), failed.size());
+        return true;
+    }
+
+    /**
+     * 收回超过租期仍未执行完成的变更单
+     *
+     * 执行节点在推送途中退出时变更单会停留在执行中；租约到期后退回已审批，由调度器重新认领执行。
+     * 原节点若仍在执行，其结果因认领时间已变而提交失败，重复推送的是同一价格。
+     *
+     * @param claimedBefore 租期起点，早于此时间认领的变更单视为租约到期
+     * @return 退回的变更单数
+     */
+    public int releaseExpiredClaims(LocalDateTime claimedBefore) {
+        int released = 0;
+        for (String orderNo : orderRepository.findExpiredClaims(claimedBefore)) {
+            Integer updated = transactionTemplate.execute(status ->
+                orderRepository.releaseExpiredClaim(orderNo, claimedBefore));
+            orderCache.invalidate(orderNo);
+            if (updated != null && updated > 0) {
+                log.warn("价格变更单执行租约到期，退回已审批 - 单号: {}", orderNo);
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * 已到失效时间的价格历史置为失效
+     *
+     * 提前执行的变更单只为旧价格设置失效时间，旧价格到点后由此清理，使生效中的记录保持精简
+     *
+     * @return 置为失效的记录数
+     */
+    @Transactional
+    public int deactivateExpiredPrices() {
+        return historyRepository.deactivateExpired(LocalDateTime.now());
     }
 
     /**
@@ -269,6 +450,8 @@ public class PricingService {
      * When: 查询产品在区域的价格历史
      * Then: 应返回历史记录并按时间倒序排列
      *
+     * 热表和冷数据归档段合并返回
+     *
      * @param productCode 产品编码
      * @param regionCode 区域代码
      * @return 价格历史列表 (按时间倒序)
@@ -276,10 +459,248 @@ public class PricingService {
     public List<PriceHistory> queryPriceHistory(String productCode, String regionCode) {
         log.info("查询价格历史 - 产品: {}, 区域: {}", productCode, regionCode);
 
-        return historyRepository.findByProductCodeAndRegionCodeOrderByEffectiveTimeDesc(
+        List<PriceHistory> hot = historyRepository.findByProductCodeAndRegionCodeOrderByEffectiveTimeDesc(
             productCode,
             regionCode
         );
+
+        // 合并已归档的冷数据
+        List<PriceHistory> archived = archiveService.query(productCode, regionCode);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+
+        Set<Long> hotIds = hot.stream().map(PriceHistory::getId).collect(Collectors.toSet());
+        return Stream.concat(hot.stream(), archived.stream().filter(h -> !hotIds.contains(h.getId())))
+            .sorted(Comparator.comparing(PriceHistory::getEffectiveTime).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 解析门店当前的产品价格（门店价 → 区域价 → 全国价）
+     *
+     * 供 POS 查价使用，直接读取预计算缓存
+     *
+     * @param storeId 门店ID
+     * @param productCode 产品编码
+     * @return 价格
+     */
+    public Optional<BigDecimal> resolveStorePrice(Long storeId, String productCode) {
+        return resolutionCache.resolve(storeId, productCode);
+    }
+
+    /**
+     * 设置区域基准价或全国基准价
+     *
+     * 没有门店级价格的门店按此价格解析
+     *
+     * @param productCode 产品编码
+     * @param productName 产品名称
+     * @param regionCode 区域代码，全国价为 PriceHistory.NATIONAL_REGION
+     * @param price 价格
+     * @param changeReason 变更原因
+     * @param createdBy 操作人
+     * @return 新的价格记录
+     */
+    @Transactional
+    public PriceHistory setBasePrice(
+            String productCode,
+            String productName,
+            String regionCode,
+            BigDecimal price,
+            String changeReason,
+            String createdBy) {
+
+        log.info("设置基准价 - 产品: {}, 区域: {}, 价格: {}", productCode, regionCode, price);
+        return saveLevelPrice(productCode, productName, regionCode, null, price, changeReason, createdBy);
+    }
+
+    /**
+     * 设置门店价格覆盖
+     *
+     * @param storeId 门店ID
+     * @param regionCode 门店所属区域
+     * @param productCode 产品编码
+     * @param productName 产品名称
+     * @param price 价格
+     * @param changeReason 变更原因
+     * @param createdBy 操作人
+     * @return 新的价格记录
+     */
+    @Transactional
+    public PriceHistory setStorePriceOverride(
+            Long storeId,
+            String regionCode,
+            String productCode,
+            String productName,
+            BigDecimal price,
+            String changeReason,
+            String createdBy) {
+
+        log.info("设置门店价格 - 门店: {}, 产品: {}, 价格: {}", storeId, productCode, price);
+        return saveLevelPrice(productCode, productName, regionCode, storeId, price, changeReason, createdBy);
+    }
+
+    /**
+     * 关闭同一层级上的旧价格并写入新价格，事务提交后精确更新解析缓存
+     */
+    private PriceHistory saveLevelPrice(
+            String productCode,
+            String productName,
+            String regionCode,
+            Long storeId,
+            BigDecimal price,
+            String changeReason,
+            String createdBy) {
+
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal previous = resolutionCache.findLevelPrice(regionCode, storeId, productCode).orElse(price);
+
+        historyRepository.expireActiveAtLevel(productCode, regionCode, storeId, now);
+
+        PriceHistory history = PriceHistory.builder()
+            .productCode(productCode)
+            .productName(productName)
+            .regionCode(regionCode)
+            .storeId(storeId)
+            .originalPrice(previous)
+            .newPrice(price)
+            .effectiveTime(now)
+            .changeReason(changeReason)
+            .changeType(PriceHistory.ChangeType.MARKET_ADJUSTMENT)
+            .createdBy(createdBy)
+            .createdAt(now)
+            .isActive(true)
+            .build();
+
+        history.calculatePriceDifference();
+        PriceHistory saved = historyRepository.save(history);
+        resolutionCache.apply(saved);
+        eventPublisher.publishEvent(new PriceChangedEvent(
+            null, productCode, regionCode, storeId == null ? List.of() : List.of(storeId), previous, price, now));
+
+        return saved;
+    }
+
+    /**
+     * 推送门店价格，失败门店按策略原地重试
+     *
+     * 重试间隔期间线程休眠，调用方不能持有数据库事务
+     *
+     * @param updates 各门店的价格更新
+     * @return 各门店的最终推送结果，与请求按顺序一一对应
+     */
+    private List<PosUpdateResult> pushPrices(List<StorePriceUpdate> updates) {
+        List<PosUpdateResult> results = new ArrayList<>(posSystemClient.updatePrices(updates));
+
+        for (int attempt = 1; attempt <= failurePolicy.getRetryAttempts(); attempt++) {
+            List<Integer> failedIndexes = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                if (!results.get(i).isSuccess()) {
+                    failedIndexes.add(i);
+                }
+            }
+            if (failedIndexes.isEmpty()) {
+                break;
+            }
+
+            log.warn("门店价格推送重试 - 第{}次, 失败门店数: {}", attempt, failedIndexes.size());
+            try {
+                Thread.sleep(failurePolicy.backoff(attempt).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            List<PosUpdateResult> retried = posSystemClient.updatePrices(
+                failedIndexes.stream().map(updates::get).toList());
+            for (int i = 0; i < failedIndexes.size(); i++) {
+                results.set(failedIndexes.get(i), retried.get(i));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * 执行完成: 关闭被取代的价格历史，隔离失败门店，解除已更新门店上的旧待同步记录，发送通知
+     */
+    private void completeOrder(PriceChangeOrder order, List<PriceHistory> histories, List<PosUpdateResult> failed) {
+        List<Long> updatedStoreIds = histories.stream().map(PriceHistory::getStoreId).toList();
+        resyncService.clear(order.getProductCode(), updatedStoreIds);
+        historyRepository.expireSuperseded(
+            order.getOrderNo(), order.getProductCode(), order.getTargetRegion(), order.getEffectiveDate());
+        historyRepository.deactivateExpired(LocalDateTime.now());
+        resolutionCache.applyAll(histories);
+        eventPublisher.publishEvent(new PriceChangedEvent(
+            order.getOrderNo(), order.getProductCode(), order.getTargetRegion(), List.copyOf(updatedStoreIds),
+            order.getOriginalPrice(), order.getNewPrice(), order.getEffectiveDate()));
+        if (!failed.isEmpty()) {
+            resyncService.quarantine(order, failed);
+        }
+
+        order.completeExecution();
+        commitTransition(order, PriceChangeOrder.OrderStatus.EXECUTING);
+
+        notificationService.sendPriceChangeNotification(order);
+    }
+
+    /**
+     * 执行失败: 作废本单写入的价格历史，发送失败通知；已更新门店的回滚在事务提交后推送 (见 settle)
+     */
+    private void failOrder(PriceChangeOrder order, PriceUpdateException e) {
+        historyRepository.voidByChangeOrder(order.getOrderNo());
+
+        order.failExecution(e.getMessage());
+        commitTransition(order, PriceChangeOrder.OrderStatus.EXECUTING);
+
+        notificationService.sendPriceChangeFailureNotification(order, e.getMessage());
+    }
+
+    private PriceUpdateException toPriceUpdateException(PosUpdateResult failed) {
+        return new PriceUpdateException(
+            "门店价格同步失败",
+            failed.getStoreId(),
+            new IllegalStateException(failed.getMessage())
+        );
+    }
+
+    /**
+     * 认领变更单（已审批 → 执行中），独立事务提交
+     *
+     * 从数据库重新读取: 租约收回等其他节点上的流转不会使本节点的变更单缓存失效
+     */
+    private PriceChangeOrder claim(String orderNo) {
+        return transactionTemplate.execute(status -> {
+            orderCache.invalidate(orderNo);
+            PriceChangeOrder order = orderCache.findByOrderNo(orderNo)
+                .orElseThrow(() -> new IllegalArgumentException("变更单不存在: " + orderNo));
+            order.startExecution();
+            commitTransition(order, PriceChangeOrder.OrderStatus.APPROVED);
+            return order;
+        });
+    }
+
+    /**
+     * 以 CAS 方式提交状态流转
+     *
+     * 对应 BDD 场景: "并发状态检查"
+     * - 多个审批人同时审批时，只有第一个成功，其余被拒绝
+     *
+     * @param order 已在内存中完成流转的变更单
+     * @param expected 流转前的状态
+     * @throws OrderStateConflictException 数据库中的状态已被其他请求修改
+     */
+    private void commitTransition(PriceChangeOrder order, PriceChangeOrder.OrderStatus expected) {
+        int updated = orderRepository.compareAndSetTransition(order, expected);
+        if (updated == 0) {
+            orderCache.invalidate(order.getOrderNo());
+            throw new OrderStateConflictException(order.getOrderNo(), expected);
+        }
+
+        // 与 CAS 语句中的 COALESCE(version, 0) + 1 保持一致：迁移前写入的变更单版本号可能为空
+        order.setVersion(order.getVersion() == null ? 1L : order.getVersion() + 1);
+        orderCache.refresh(order);
     }
 
     /**
@@ -294,16 +715,17 @@ public class PricingService {
     }
 
     /**
-     * 获取当前价格
+     * 获取区域当前价格
+     *
+     * 区域价与区域内最近执行完成的变更单价格中较新的一个，都没有时回退到全国价；
+     * 门店单独定价不作为区域当前价格。读取本节点的解析缓存，其他节点写入的价格最迟 sync-interval 后可见。
      *
      * @param productCode 产品编码
      * @param region 区域
      * @return 当前价格
      */
     private BigDecimal getCurrentPrice(String productCode, String region) {
-        // 从价格历史表查询最新生效价格
-        return historyRepository
-            .findCurrentPrice(productCode, region, LocalDateTime.now())
+        return resolutionCache.resolveRegion(region, productCode)
             .orElse(new BigDecimal("36.00")); // 默认基准价格
     }
 
@@ -327,27 +749,14 @@ public class PricingService {
         };
     }
 
-    /**
-     * 更新门店价格 (调用POS系统API)
-     *
-     * @param storeId 门店ID
-     * @param productCode 产品编码
-     * @param newPrice 新价格
-     */
-    private void updateStorePricing(Long storeId, String productCode, BigDecimal newPrice) {
-        // 调用 POS System API
-        // posSystemClient.updatePrice(storeId, productCode, newPrice);
-        log.debug("更新门店价格 - 门店: {}, 产品: {}, 新价格: {}",
-            storeId, productCode, newPrice);
-    }
-
     /**
      * 保存价格历史记录
      *
      * @param order 价格变更单
      * @param storeId 门店ID
+     * @return 保存的记录
      */
-    private void savePriceHistory(PriceChangeOrder order, Long storeId) {
+    private PriceHistory savePriceHistory(PriceChangeOrder order, Long storeId) {
         PriceHistory history = PriceHistory.builder()
             .changeOrderNo(order.getOrderNo())
             .productCode(order.getProductCode())
@@ -367,7 +776,7 @@ public class PricingService {
             .build();
 
         history.calculatePriceDifference();
-        historyRepository.save(history);
+        return historyRepository.save(history);
     }
 
     /**
@@ -411,4 +820,22 @@ public class PricingService {
             return storeId;
         }
     }
+
+    /**
+     * 状态流转冲突异常
+     *
+     * 变更单状态已被并发请求修改，本次流转未生效
+     */
+    public static class OrderStateConflictException extends IllegalStateException {
+        private final String orderNo;
+
+        public OrderStateConflictException(String orderNo, PriceChangeOrder.OrderStatus expected) {
+            super("变更单状态已被修改，期望状态: " + expected.getDescription());
+            this.orderNo = orderNo;
+        }
+
+        public String getOrderNo() {
+            return orderNo;
+        }
+    }
 }
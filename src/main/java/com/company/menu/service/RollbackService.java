@@ -1,10 +1,19 @@
 package com.company.menu.service;
 
 import com.company.menu.domain.PriceChangeOrder;
+import com.company.menu.integration.PosSystemClient;
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 回滚服务
  *
@@ -12,6 +21,10 @@ import org.springframework.stereotype.Service;
  * When: 执行过程中门店更新失败
  * Then: 系统应自动回滚所有已更新的门店价格
  *
+ * 回滚价格: 变更单已作废，门店恢复为按层级解析的价格（门店价 → 区域价 → 全国价），
+ * 而不是变更单的原价格（原价格是区域价格，有单独定价的门店回滚后应恢复单独定价）。
+ * 回滚推送失败的门店隔离待重新同步，由后台任务补推回滚后的价格。
+ *
  * @author AI-Generated via menu-pricing skill
  * @version 1.0.0
  */
@@ -20,51 +33,62 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class RollbackService {
 
+    private final PosSystemClient posSystemClient;
+    private final PriceResolutionCache resolutionCache;
+    private final StoreResyncService resyncService;
+
     /**
-     * 回滚价格变更
+     * 回滚指定门店的价格变更
+     *
+     * 合并执行时各变更单已更新的门店不一定是列表前缀，由调用方给出
      *
      * @param order 价格变更单
-     * @param successCount 已成功更新的门店数
+     * @param updatedStoreIds 已成功更新的门店ID
      */
-    public void rollbackPriceChanges(PriceChangeOrder order, int successCount) {
+    public void rollbackPriceChanges(PriceChangeOrder order, List<Long> updatedStoreIds) {
         log.warn("开始回滚价格变更 - 单号: {}, 需回滚门店数: {}",
-            order.getOrderNo(), successCount);
+            order.getOrderNo(), updatedStoreIds.size());
+        if (updatedStoreIds.isEmpty()) {
+            return;
+        }
+
+        // 恢复各门店回滚后的解析价格，已更新的门店一次批量推送
+        Map<Long, BigDecimal> rollbackPrices = new LinkedHashMap<>();
+        updatedStoreIds.forEach(storeId -> rollbackPrices.put(storeId,
+            resolutionCache.resolve(storeId, order.getProductCode()).orElse(order.getOriginalPrice())));
 
-        // 获取已成功更新的门店列表
-        order.getAffectedStoreIds().stream()
-            .limit(successCount)
-            .forEach(storeId -> {
-                try {
-                    // 恢复原价格
-                    rollbackStorePrice(
-                        storeId,
-                        order.getProductCode(),
-                        order.getOriginalPrice()
-                    );
-                    log.debug("门店价格回滚成功 - 门店ID: {}", storeId);
-                } catch (Exception e) {
+        List<StorePriceUpdate> updates = new ArrayList<>(rollbackPrices.size());
+        rollbackPrices.forEach((storeId, price) -> updates.add(StorePriceUpdate.builder()
+            .storeId(storeId)
+            .prices(Map.of(order.getProductCode(), price))
+            .build()));
+
+        List<PosUpdateResult> failed = new ArrayList<>();
+        try {
+            posSystemClient.updatePrices(updates).forEach(result -> {
+                if (result.isSuccess()) {
+                    log.debug("门店价格回滚成功 - 门店ID: {}", result.getStoreId());
+                } else {
                     log.error("门店价格回滚失败 - 门店ID: {}, 错误: {}",
-                        storeId, e.getMessage());
+                        result.getStoreId(), result.getMessage());
+                    failed.add(result);
                 }
             });
+        } catch (RuntimeException e) {
+            log.error("门店价格回滚失败 - 单号: {}, 错误: {}", order.getOrderNo(), e.getMessage());
+            failed.clear();
+            rollbackPrices.keySet().forEach(storeId -> failed.add(PosUpdateResult.failed(storeId, e.getMessage())));
+        }
 
-        log.info("价格变更回滚完成 - 单号: {}", order.getOrderNo());
-    }
+        if (!failed.isEmpty()) {
+            try {
+                resyncService.quarantineRollback(order, rollbackPrices, failed);
+            } catch (RuntimeException e) {
+                log.error("回滚失败门店隔离失败，需人工同步 - 单号: {}, 门店: {}", order.getOrderNo(),
+                    failed.stream().map(PosUpdateResult::getStoreId).toList(), e);
+            }
+        }
 
-    /**
-     * 回滚单个门店价格
-     *
-     * @param storeId 门店ID
-     * @param productCode 产品编码
-     * @param originalPrice 原价格
-     */
-    private void rollbackStorePrice(
-            Long storeId,
-            String productCode,
-            java.math.BigDecimal originalPrice) {
-        // 调用 POS System API 恢复价格
-        // posSystemClient.updatePrice(storeId, productCode, originalPrice);
-        log.debug("回滚门店价格 - 门店: {}, 产品: {}, 回滚至: {}",
-            storeId, productCode, originalPrice);
+        log.info("价格变更回滚完成 - 单号: {}, 回滚失败门店数: {}", order.getOrderNo(), failed.size());
     }
 }
@@ -0,0 +1,73 @@
+package com.company.menu.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 门店价格推送失败策略
+ *
+ * 对应 BDD 场景: "价格调整异常回滚"
+ * - When: 执行过程中门店更新失败
+ *
+ * 策略:
+ * - 原地重试: 推送失败的门店按指数退避重试 retry-attempts 次
+ * - 失败阈值: 重试后仍失败的门店数不超过 max-failed-stores，或占比不超过 max-failed-percent，
+ *   变更单照常完成，失败门店隔离后由后台重新同步；超过阈值则回滚已更新的门店
+ *
+ * 默认不重试、阈值为 0，即任一门店失败都回滚整个变更单。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Component
+public class StoreFailurePolicy {
+
+    // 允许失败的门店数
+    private final int maxFailedStores;
+
+    // 允许失败的门店占比 (%)
+    private final double maxFailedPercent;
+
+    // 原地重试次数
+    private final int retryAttempts;
+
+    // 首次重试的退避时间
+    private final Duration retryBackoff;
+
+    public StoreFailurePolicy(
+            @Value("${menu.pricing.failure.max-failed-stores:0}") int maxFailedStores,
+            @Value("${menu.pricing.failure.max-failed-percent:0}") double maxFailedPercent,
+            @Value("${menu.pricing.failure.retry-attempts:0}") int retryAttempts,
+            @Value("${menu.pricing.failure.retry-backoff:PT0.2S}") Duration retryBackoff) {
+        this.maxFailedStores = maxFailedStores;
+        this.maxFailedPercent = maxFailedPercent;
+        this.retryAttempts = retryAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * 失败门店数是否在容忍范围内
+     *
+     * @param failedStores 失败门店数
+     * @param totalStores 门店总数
+     * @return 在容忍范围内返回 true
+     */
+    public boolean isTolerable(int failedStores, int totalStores) {
+        return failedStores <= maxFailedStores
+            || failedStores * 100.0 <= totalStores * maxFailedPercent;
+    }
+
+    public int getRetryAttempts() {
+        return retryAttempts;
+    }
+
+    /**
+     * 第 attempt 次重试前的退避时间
+     */
+    public Duration backoff(int attempt) {
+        return retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 10));
+    }
+}
@@ -0,0 +1,170 @@
+package com.company.menu.service;
+
+import com.company.menu.domain.PriceChangeOrder;
+import com.company.menu.domain.StorePriceResync;
+import com.company.menu.integration.PosSystemClient;
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
+import com.company.menu.repository.StorePriceResyncRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 门店价格隔离与重新同步服务
+ *
+ * 对应 BDD 场景: "价格调整异常回滚"
+ * - 失败门店数在容忍范围内时不回滚，失败门店隔离后在后台重新同步
+ * - 超过阈值回滚时，回滚推送失败的门店同样隔离，重新同步回滚后的价格
+ *
+ * 同一产品在同一门店上只保留最新一条待同步记录:
+ * - 隔离新记录时，旧的待同步记录被取代
+ * - 后续变更单成功推送到该门店时，待同步记录被解除
+ *
+ * 重新同步时推送在事务外进行，结果只写回推送期间仍未被解除的记录。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class StoreResyncService {
+
+    private final StorePriceResyncRepository resyncRepository;
+    private final PosSystemClient posSystemClient;
+    private final TransactionTemplate transactionTemplate;
+
+    // 每次重新同步的记录数
+    private final int batchSize;
+
+    public StoreResyncService(
+            StorePriceResyncRepository resyncRepository,
+            PosSystemClient posSystemClient,
+            TransactionTemplate transactionTemplate,
+            @Value("${menu.pricing.resync.batch-size:500}") int batchSize) {
+        this.resyncRepository = resyncRepository;
+        this.posSystemClient = posSystemClient;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 隔离推送失败的门店
+     *
+     * @param order 价格变更单
+     * @param failed 失败门店的推送结果
+     */
+    @Transactional
+    public void quarantine(PriceChangeOrder order, List<PosUpdateResult> failed) {
+        save(order, failed, storeId -> order.getNewPrice());
+    }
+
+    /**
+     * 隔离回滚推送失败的门店，重新同步时推送各门店回滚后的价格
+     *
+     * @param order 执行失败的价格变更单
+     * @param rollbackPrices 门店ID → 回滚后的价格
+     * @param failed 回滚失败门店的推送结果
+     */
+    @Transactional
+    public void quarantineRollback(
+            PriceChangeOrder order, Map<Long, BigDecimal> rollbackPrices, List<PosUpdateResult> failed) {
+        save(order, failed, rollbackPrices::get);
+    }
+
+    /**
+     * 产品价格已成功推送到门店，解除这些门店上的待同步记录
+     *
+     * @param productCode 产品编码
+     * @param storeIds 门店ID
+     */
+    @Transactional
+    public void clear(String productCode, Collection<Long> storeIds) {
+        if (!storeIds.isEmpty()) {
+            resyncRepository.resolvePending(productCode, storeIds, LocalDateTime.now());
+        }
+    }
+
+    private void save(PriceChangeOrder order, List<PosUpdateResult> failed, Function<Long, BigDecimal> prices) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> storeIds = failed.stream().map(PosUpdateResult::getStoreId).toList();
+
+        resyncRepository.resolvePending(order.getProductCode(), storeIds, now);
+        resyncRepository.saveAll(failed.stream()
+            .map(result -> StorePriceResync.builder()
+                .changeOrderNo(order.getOrderNo())
+                .storeId(result.getStoreId())
+                .productCode(order.getProductCode())
+                .price(prices.apply(result.getStoreId()))
+                .failureReason(result.getMessage())
+                .createdAt(now)
+                .build())
+            .toList());
+
+        log.warn("门店已隔离待重新同步 - 单号: {}, 门店数: {}, 门店: {}",
+            order.getOrderNo(), storeIds.size(), storeIds);
+    }
+
+    /**
+     * 重新同步隔离的门店
+     *
+     * 同一门店的多个产品合并为一次推送
+     */
+    @Scheduled(fixedDelayString = "${menu.pricing.resync.interval:PT5M}")
+    public void resyncQuarantinedStores() {
+        List<StorePriceResync> pending = resyncRepository
+            .findByResolvedAtIsNullOrderByAttemptsAscCreatedAtAsc(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<StorePriceResync>> byStore = new LinkedHashMap<>();
+        pending.forEach(entry ->
+            byStore.computeIfAbsent(entry.getStoreId(), id -> new ArrayList<>()).add(entry));
+
+        List<StorePriceUpdate> updates = new ArrayList<>(byStore.size());
+        byStore.forEach((storeId, entries) -> {
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            entries.forEach(entry -> prices.put(entry.getProductCode(), entry.getPrice()));
+            updates.add(StorePriceUpdate.builder().storeId(storeId).prices(prices).build());
+        });
+
+        List<PosUpdateResult> results = posSystemClient.updatePrices(updates);
+
+        List<Long> resolvedIds = new ArrayList<>();
+        Map<String, List<Long>> failedIds = new LinkedHashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            PosUpdateResult result = results.get(i);
+            for (StorePriceResync entry : byStore.get(updates.get(i).getStoreId())) {
+                if (result.isSuccess()) {
+                    resolvedIds.add(entry.getId());
+                } else {
+                    failedIds.computeIfAbsent(result.getMessage(), message -> new ArrayList<>()).add(entry.getId());
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Integer resolved = transactionTemplate.execute(status -> {
+            failedIds.forEach((message, ids) -> resyncRepository.recordFailedAttempt(ids, message));
+            return resolvedIds.isEmpty() ? 0 : resyncRepository.markResynced(resolvedIds, now);
+        });
+
+        log.info("隔离门店重新同步 - 记录数: {}, 成功: {}, 推送失败: {}",
+            pending.size(), resolved, pending.size() - resolvedIds.size());
+    }
+}
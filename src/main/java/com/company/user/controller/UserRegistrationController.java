@@ -1,19 +1,27 @@
 package com.company.user.controller;
 
 import com.company.user.domain.User;
+import com.company.user.service.UserBulkImportService;
+import com.company.user.service.UserBulkImportService.ImportFormat;
 import com.company.user.service.UserRegistrationService;
 import com.company.user.service.UserRegistrationService.RegistrationException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 
 /**
@@ -25,6 +33,8 @@ import java.time.LocalDateTime;
  * - POST /api/v1/users/register       用户注册
  * - GET  /api/v1/users/verify-email    邮箱验证
  * - GET  /api/v1/users/check-email     检查邮箱可用性
+ * - POST /api/v1/users/import          批量导入用户 (CSV / NDJSON)
+ * - POST /api/v1/users/email-dead-letters/{id}/replay  重新投递验证邮件死信
  *
  * @author AI-Generated via user-registration skill
  * @version 1.0.0
@@ -39,6 +49,7 @@ import java.time.LocalDateTime;
 public class UserRegistrationController {
 
     private final UserRegistrationService registrationService;
+    private final UserBulkImportService bulkImportService;
 
     /**
      * 用户注册
@@ -150,6 +161,63 @@ public class UserRegistrationController {
         return ResponseEntity.ok(new CheckEmailResponse(!exists));
     }
 
+    /**
+     * 批量导入用户
+     *
+     * 请求体为 CSV（表头 email,username,password）或 NDJSON，逐行解析；
+     * 响应为 NDJSON，每行对应一条导入结果，按块写出。
+     *
+     * @param request HTTP 请求（读取原始请求体）
+     * @param contentType 请求内容类型
+     * @return 逐行导入结果流
+     */
+    @PostMapping(value = "/import",
+        consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "批量导入用户", description = "流式导入加盟伙伴会员，返回逐行导入结果")
+    public ResponseEntity<StreamingResponseBody> importUsers(
+            HttpServletRequest request,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+
+        ImportFormat format = MediaType.parseMediaType(contentType)
+            .isCompatibleWith(MediaType.APPLICATION_NDJSON) ? ImportFormat.NDJSON : ImportFormat.CSV;
+
+        log.info("接收到批量导入请求 - 格式: {}", format);
+
+        InputStream input = request.getInputStream();
+        StreamingResponseBody body = output -> bulkImportService.importUsers(input, format, output);
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * 重新投递验证邮件死信
+     *
+     * 对应 BDD 场景: "成功注册新用户" - "系统应该发送验证邮件"
+     * - 多次发送失败的验证邮件由运维确认邮件服务恢复后重新投递，签发新的验证令牌
+     *
+     * @param id 死信记录ID
+     * @return 投递结果
+     */
+    @PostMapping("/email-dead-letters/{id}/replay")
+    @Operation(summary = "重新投递验证邮件", description = "为死信中的用户签发新令牌并重新发送验证邮件")
+    public ResponseEntity<?> replayDeadLetter(
+            @PathVariable @Parameter(description = "死信记录ID") Long id) {
+
+        log.info("接收到验证邮件重新投递请求 - 死信ID: {}", id);
+
+        try {
+            registrationService.resendVerificationEmail(id);
+            return ResponseEntity.accepted().build();
+        } catch (RegistrationException e) {
+            log.warn("验证邮件重新投递失败 - 原因: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("DEAD_LETTER_NOT_FOUND", e.getMessage()));
+        }
+    }
+
     // ==================== Request/Response DTOs ====================
 
     /**
@@ -0,0 +1,64 @@
+package com.company.user.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邮件死信记录
+ *
+ * 重试次数耗尽或发送队列已满的验证邮件落库保存，便于人工排查和重新投递。
+ * 不保存验证令牌明文，重新投递时按用户ID签发新令牌。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_dead_letters")
+public class EmailDeadLetter {
+
+    /**
+     * 记录ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 目标邮箱地址
+     */
+    private String email;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 已尝试发送次数
+     */
+    private int attempts;
+
+    /**
+     * 失败原因
+     */
+    private String failureReason;
+
+    /**
+     * 进入死信时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -1,9 +1,22 @@
 package com.company.user.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -13,6 +26,9 @@ import java.time.LocalDateTime;
  * 来源场景: behaviors/user/user_registration.feature
  * 场景: 用户注册
  *
+ * 用户ID由 SnowflakeIdGenerator 在应用内分配。实现 Persistable，
+ * 使新用户保存时直接 INSERT，而不是先按 ID 查询再合并。
+ *
  * @author AI-Generated
  * @version 1.0.0
  * @since 2026-02-05
@@ -21,16 +37,24 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+@Entity
+@Table(
+    name = "users",
+    // 防止重复注册: 并发注册同一邮箱时只有一个能写入
+    indexes = @Index(name = "uk_users_email", columnList = "email", unique = true)
+)
+public class User implements Persistable<Long> {
 
     /**
      * 用户ID
      */
+    @Id
     private Long id;
 
     /**
      * 邮箱
      */
+    @Column(nullable = false)
     private String email;
 
     /**
@@ -46,6 +70,8 @@ public class User {
     /**
      * 用户状态
      */
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private UserStatus status;
 
     /**
@@ -58,11 +84,6 @@ public class User {
      */
     private LocalDateTime emailVerifiedAt;
 
-    /**
-     * 验证令牌
-     */
-    private String verificationToken;
-
     /**
      * 注册IP地址
      *
@@ -72,6 +93,13 @@ public class User {
      */
     private String registrationIp;
 
+    /**
+     * 是否已持久化
+     */
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
     /**
      * 用户状态枚举
      */
@@ -102,6 +130,17 @@ public class User {
         }
     }
 
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+
     /**
      * 业务方法: 验证邮箱
      *
@@ -114,7 +153,6 @@ public class User {
 
         this.status = UserStatus.ACTIVATED;
         this.emailVerifiedAt = LocalDateTime.now();
-        this.verificationToken = null; // 清除验证令牌
     }
 
     /**
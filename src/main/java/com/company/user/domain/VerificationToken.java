@@ -0,0 +1,100 @@
+package com.company.user.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 邮箱验证令牌
+ *
+ * 来源场景: behaviors/user/user_registration.feature
+ * 场景: 邮箱验证流程
+ *
+ * 令牌为 128 位随机值，以 UUID 类型作为主键存储（数据库中为 16 字节二进制），
+ * 验证链接中使用 22 字符的 Base64URL 编码。按主键查找，用户表不再携带令牌列。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "verification_tokens",
+    indexes = @Index(name = "idx_verification_tokens_expires_at", columnList = "expiresAt")
+)
+public class VerificationToken {
+
+    /**
+     * 令牌（128位）
+     */
+    @Id
+    private UUID token;
+
+    /**
+     * 关联用户ID
+     */
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 过期时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * 业务方法: 检查令牌在指定时间是否已过期
+     */
+    public boolean isExpiredAt(LocalDateTime time) {
+        return !time.isBefore(expiresAt);
+    }
+
+    /**
+     * 将令牌编码为验证链接中使用的字符串（Base64URL，无填充）
+     */
+    public static String encode(UUID token) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(token.getMostSignificantBits());
+        buffer.putLong(token.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * 解析验证链接中的令牌字符串
+     *
+     * @param value 令牌字符串
+     * @return 令牌
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static UUID decode(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("令牌不能为空");
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(value);
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("令牌长度不正确");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,27 @@
+package com.company.user.integration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * 邮件服务异步接口装配
+ *
+ * 默认由同步实现适配而来，阻塞调用在 integrationExecutor 中执行；
+ * 接入原生异步邮件客户端时，以 @Primary 声明异步实现即可替换适配器。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Configuration
+public class AsyncEmailConfig {
+
+    @Bean
+    public AsyncEmailService asyncEmailService(
+            EmailService emailService,
+            @Qualifier("integrationExecutor") AsyncTaskExecutor integrationExecutor) {
+        return AsyncEmailService.fromBlocking(emailService, integrationExecutor);
+    }
+}
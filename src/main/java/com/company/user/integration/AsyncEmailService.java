@@ -0,0 +1,82 @@
+package com.company.user.integration;
+
+import com.company.common.Futures;
+import com.company.user.integration.dto.VerificationEmail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 邮件服务异步接口（外部依赖）
+ *
+ * 对应 BDD 场景: behaviors/user/user_registration.feature
+ * - 场景: 成功注册新用户 — "系统应该发送验证邮件到"
+ *
+ * 与 {@link EmailService} 一一对应，返回 CompletableFuture，批量通知时可同时发出多批邮件而不阻塞线程。
+ * - {@link #fromBlocking}: 将同步实现适配为异步接口，阻塞调用在指定线程池中执行
+ * - {@link #toBlocking}: 将异步实现适配为同步接口
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public interface AsyncEmailService {
+
+    /**
+     * 发送验证邮件
+     *
+     * @param email 目标邮箱地址
+     * @param verificationToken 验证令牌
+     */
+    CompletableFuture<Void> sendVerificationEmail(String email, String verificationToken);
+
+    /**
+     * 批量发送验证邮件
+     *
+     * @param emails 待发送邮件
+     * @return 发送失败的邮件
+     */
+    CompletableFuture<List<VerificationEmail>> sendVerificationEmails(List<VerificationEmail> emails);
+
+    /**
+     * 将同步实现适配为异步接口
+     *
+     * @param service 同步实现
+     * @param executor 执行阻塞调用的线程池
+     * @return 异步接口
+     */
+    static AsyncEmailService fromBlocking(EmailService service, Executor executor) {
+        return new AsyncEmailService() {
+            @Override
+            public CompletableFuture<Void> sendVerificationEmail(String email, String verificationToken) {
+                return CompletableFuture.runAsync(() -> service.sendVerificationEmail(email, verificationToken), executor);
+            }
+
+            @Override
+            public CompletableFuture<List<VerificationEmail>> sendVerificationEmails(List<VerificationEmail> emails) {
+                return CompletableFuture.supplyAsync(() -> service.sendVerificationEmails(emails), executor);
+            }
+        };
+    }
+
+    /**
+     * 适配为同步接口，调用线程等待结果
+     *
+     * @return 同步接口
+     */
+    default EmailService toBlocking() {
+        AsyncEmailService async = this;
+        return new EmailService() {
+            @Override
+            public void sendVerificationEmail(String email, String verificationToken) {
+                Futures.join(async.sendVerificationEmail(email, verificationToken));
+            }
+
+            @Override
+            public List<VerificationEmail> sendVerificationEmails(List<VerificationEmail> emails) {
+                return Futures.join(async.sendVerificationEmails(emails));
+            }
+        };
+    }
+}
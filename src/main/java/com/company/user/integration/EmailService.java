@@ -1,5 +1,9 @@
 package com.company.user.integration;
 
+import com.company.user.integration.dto.VerificationEmail;
+
+import java.util.List;
+
 /**
  * 邮件服务接口（外部依赖）
  *
@@ -25,4 +29,15 @@ public interface EmailService {
      * @param verificationToken 验证令牌
      */
     void sendVerificationEmail(String email, String verificationToken);
+
+    /**
+     * 批量发送验证邮件
+     *
+     * 供异步发送队列使用。实现应在同一个邮件服务连接上一次提交整批邮件
+     * （如 SMTP 连接复用、邮件网关的批量发送接口），而不是逐封建立请求。
+     *
+     * @param emails 待发送邮件
+     * @return 发送失败的邮件，整批失败时抛出异常
+     */
+    List<VerificationEmail> sendVerificationEmails(List<VerificationEmail> emails);
 }
@@ -0,0 +1,64 @@
+package com.company.user.integration;
+
+import com.company.user.integration.dto.VerificationEmail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 邮件与限流服务本地替身
+ *
+ * 未对接邮件网关、限流服务的环境使用：邮件只记录日志，限流始终放行。
+ * app.integration.local-stubs=true 时生效，与 LocalIntegrationInitializer 一样在每次启动时读取开关，
+ * 不受 AOT 构建期条件装配影响。登记于 META-INF/spring.factories。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class LocalEmailInitializer implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    private static final String LOCAL_STUBS_PROPERTY = "app.integration.local-stubs";
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        if (!context.getEnvironment().getProperty(LOCAL_STUBS_PROPERTY, Boolean.class, false)) {
+            return;
+        }
+        context.registerBean("emailService", EmailService.class, this::emailService);
+        context.registerBean("rateLimitService", RateLimitService.class, this::rateLimitService);
+        log.info("邮件与限流服务本地替身已启用");
+    }
+
+    private EmailService emailService() {
+        return new EmailService() {
+            @Override
+            public void sendVerificationEmail(String email, String verificationToken) {
+                log.debug("发送验证邮件 - 邮箱: {}", email);
+            }
+
+            @Override
+            public List<VerificationEmail> sendVerificationEmails(List<VerificationEmail> emails) {
+                log.debug("批量发送验证邮件 - 数量: {}", emails.size());
+                return List.of();
+            }
+        };
+    }
+
+    private RateLimitService rateLimitService() {
+        return new RateLimitService() {
+            @Override
+            public boolean isAllowed(String ipAddress, String action, int maxAttempts, Duration window) {
+                return true;
+            }
+
+            @Override
+            public void recordAttempt(String ipAddress, String action) {
+            }
+        };
+    }
+}
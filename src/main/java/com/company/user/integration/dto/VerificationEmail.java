@@ -0,0 +1,42 @@
+package com.company.user.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 验证邮件
+ *
+ * 对应 BDD 场景: "成功注册新用户" - "系统应该发送验证邮件"
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificationEmail {
+
+    /**
+     * 用户ID（进入死信后据此重新签发令牌）
+     */
+    private Long userId;
+
+    /**
+     * 目标邮箱地址
+     */
+    private String email;
+
+    /**
+     * 验证令牌
+     */
+    private String verificationToken;
+
+    /**
+     * 已尝试发送次数
+     */
+    private int attempts;
+}
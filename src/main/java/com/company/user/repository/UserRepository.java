@@ -2,8 +2,12 @@ package com.company.user.repository;
 
 import com.company.user.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,7 +15,7 @@ import java.util.Optional;
  *
  * 对应 BDD 场景: behaviors/user/user_registration.feature
  * - 场景: 防止重复注册（existsByEmail 查重）
- * - 场景: 邮箱验证流程（findByVerificationToken 查找待验证用户）
+ * - 场景: 邮箱验证流程（按令牌中的用户ID查找待验证用户，令牌见 VerificationTokenRepository）
  *
  * @author AI-Generated via user-registration skill
  * @version 1.0.0
@@ -43,14 +47,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     /**
-     * 根据验证令牌查询用户
+     * 查询给定邮箱中已注册的部分
      *
-     * 对应 BDD 场景: "邮箱验证流程"
-     * - When: 用户点击验证邮件中的链接
-     * - Then: 邮箱验证应该成功
+     * 用于批量导入时按块查重
      *
-     * @param token 验证令牌
-     * @return 用户（可选）
+     * @param emails 待查邮箱
+     * @return 已注册的邮箱
      */
-    Optional<User> findByVerificationToken(String token);
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,36 @@
+package com.company.user.repository;
+
+import com.company.user.domain.VerificationToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 邮箱验证令牌数据访问层
+ *
+ * 对应 BDD 场景: behaviors/user/user_registration.feature
+ * - 场景: 邮箱验证流程（按令牌主键查找待验证用户）
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Repository
+public interface VerificationTokenRepository extends JpaRepository<VerificationToken, UUID> {
+
+    /**
+     * 查询已过期的令牌（分批清理用，走 expiresAt 索引）
+     *
+     * @param now 当前时间
+     * @param pageable 批大小
+     * @return 过期令牌列表
+     */
+    @Query("SELECT t.token FROM VerificationToken t WHERE t.expiresAt <= :now")
+    List<UUID> findExpiredTokens(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,388 @@
+package com.company.user.service;
+
+import com.company.common.SnowflakeIdGenerator;
+import com.company.user.domain.User.UserStatus;
+import com.company.user.repository.UserRepository;
+import com.company.user.service.UserRegistrationService.RegistrationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户批量导入服务
+ *
+ * 用于从加盟伙伴批量迁移会员，复用注册场景的校验规则:
+ * - 邮箱格式验证
+ * - 密码强度验证
+ * - 防止重复注册
+ *
+ * 导入流程:
+ * - 逐条解析 CSV (RFC 4180，支持引号字段) / NDJSON，按块处理，内存占用与文件大小、已注册用户数无关
+ * - 块内并行校验、去重，再按块查询已注册邮箱
+ * - 通过 JDBC 批量写入，每块一个事务；并发注册触发 uk_users_email 冲突时重新查重后重试
+ * - 每块写入后输出逐行结果 (NDJSON)
+ *
+ * 迁移会员已在伙伴侧完成身份确认，导入后直接为"已激活"状态，不发送验证邮件。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class UserBulkImportService {
+
+    // 每条记录读为字符串数组，列数由 parseCsvRow 校验
+    private static final ObjectReader CSV_READER = new CsvMapper()
+        .readerFor(String[].class)
+        .withFeatures(CsvParser.Feature.WRAP_AS_ARRAY, CsvParser.Feature.SKIP_EMPTY_LINES);
+
+    // 并发注册导致唯一索引冲突时，单块最多写入次数
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (id, email, username, password, status, registered_at, email_verified_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final UserRegistrationService registrationService;
+    private final SnowflakeIdGenerator idGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 每块处理的行数
+    private final int chunkSize;
+
+    public UserBulkImportService(
+            UserRepository userRepository,
+            UserRegistrationService registrationService,
+            SnowflakeIdGenerator idGenerator,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${user.import.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.registrationService = registrationService;
+        this.idGenerator = idGenerator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 流式导入用户
+     *
+     * @param input 导入文件内容
+     * @param format 文件格式
+     * @param output 逐行结果输出 (NDJSON)
+     * @return 导入汇总
+     * @throws IOException 读写失败
+     */
+    public ImportSummary importUsers(InputStream input, ImportFormat format, OutputStream output)
+            throws IOException {
+
+        log.info("开始批量导入用户 - 格式: {}", format);
+
+        ImportSummary summary = new ImportSummary();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        RowHandler handler = row -> {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, summary, output);
+                chunk.clear();
+            }
+        };
+
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        if (format == ImportFormat.CSV) {
+            readCsv(reader, handler);
+        } else {
+            readNdjson(new BufferedReader(reader), handler);
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, summary, output);
+        }
+
+        log.info("批量导入用户完成 - 总数: {}, 成功: {}, 失败: {}",
+            summary.getTotal(), summary.getCreated(), summary.getTotal() - summary.getCreated());
+
+        return summary;
+    }
+
+    /**
+     * 逐条读取 CSV 记录，支持引号包裹的字段（字段内可含逗号、引号、换行）
+     */
+    private void readCsv(Reader reader, RowHandler handler) throws IOException {
+        MappingIterator<String[]> records = CSV_READER.readValues(reader);
+        int rowNumber = 0;
+        boolean header = true;
+
+        while (true) {
+            String[] columns;
+            try {
+                if (!records.hasNextValue()) {
+                    break;
+                }
+                columns = records.nextValue();
+            } catch (JsonProcessingException e) {
+                // 引号未闭合等格式错误之后无法可靠定位下一条记录，记录该行并停止读取
+                ImportRow row = new ImportRow();
+                row.setRowNumber(++rowNumber);
+                row.setError("CSV格式不正确");
+                handler.accept(row);
+                break;
+            }
+
+            if (header) {
+                header = false; // 表头: email,username,password
+                continue;
+            }
+            handler.accept(parseCsvRow(++rowNumber, columns));
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, RowHandler handler) throws IOException {
+        String line;
+        int rowNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            handler.accept(parseJsonRow(++rowNumber, line));
+        }
+    }
+
+    /**
+     * 处理一块数据: 并行校验 → 块内去重 → 按块查重并批量写入 → 输出结果
+     */
+    private void processChunk(
+            List<ImportRow> chunk,
+            ImportSummary summary,
+            OutputStream output) throws IOException {
+
+        List<ImportResult> results = chunk.parallelStream()
+            .map(this::validate)
+            .toList();
+
+        // 块内去重按行号顺序执行，保留第一次出现的行；跨块重复由下一块查库发现
+        Map<String, Integer> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportResult result = results.get(i);
+            if (result.getStatus() != ImportStatus.CREATED) {
+                continue;
+            }
+            if (accepted.putIfAbsent(chunk.get(i).getEmail(), i) != null) {
+                markDuplicate(result);
+            }
+        }
+
+        insertAccepted(chunk, results, accepted);
+
+        for (ImportResult result : results) {
+            summary.record(result);
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    /**
+     * 查询本块中已注册的邮箱并写入其余行
+     *
+     * 查重与写入之间可能有并发注册，写入触发 uk_users_email 冲突时整块回滚，重新查重后重试。
+     *
+     * @param accepted 邮箱 → 块内下标
+     */
+    private void insertAccepted(List<ImportRow> chunk, List<ImportResult> results, Map<String, Integer> accepted) {
+        for (int attempt = 1; !accepted.isEmpty(); attempt++) {
+            for (String email : userRepository.findExistingEmails(accepted.keySet())) {
+                Integer index = accepted.remove(email);
+                if (index != null) {
+                    markDuplicate(results.get(index));
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            List<ImportRow> rows = accepted.values().stream().map(chunk::get).toList();
+            try {
+                insertUsers(rows);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt < MAX_INSERT_ATTEMPTS) {
+                    log.warn("批量写入用户时邮箱已被并发注册，重新查重 - 起始行: {}", rows.get(0).getRowNumber());
+                    continue;
+                }
+                log.error("批量写入用户失败 - 起始行: {}", rows.get(0).getRowNumber(), e);
+            } catch (RuntimeException e) {
+                log.error("批量写入用户失败 - 起始行: {}", rows.get(0).getRowNumber(), e);
+            }
+
+            accepted.values().forEach(i -> {
+                results.get(i).setStatus(ImportStatus.FAILED);
+                results.get(i).setMessage("写入失败");
+            });
+            return;
+        }
+    }
+
+    private static void markDuplicate(ImportResult result) {
+        result.setStatus(ImportStatus.DUPLICATE);
+        result.setMessage("该邮箱已被注册");
+    }
+
+    private ImportResult validate(ImportRow row) {
+        if (row.getError() != null) {
+            return new ImportResult(row.getRowNumber(), row.getEmail(), ImportStatus.INVALID, row.getError());
+        }
+        try {
+            registrationService.validateEmailFormat(row.getEmail());
+            registrationService.validatePasswordStrength(row.getPassword());
+            return new ImportResult(row.getRowNumber(), row.getEmail(), ImportStatus.CREATED, null);
+        } catch (RegistrationException e) {
+            return new ImportResult(row.getRowNumber(), row.getEmail(), ImportStatus.INVALID, e.getMessage());
+        }
+    }
+
+    private void insertUsers(List<ImportRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, idGenerator.nextId());
+                ps.setString(2, row.getEmail());
+                ps.setString(3, row.getUsername());
+                ps.setString(4, registrationService.encryptPassword(row.getPassword()));
+                ps.setString(5, UserStatus.ACTIVATED.name());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            }));
+    }
+
+    private ImportRow parseCsvRow(int rowNumber, String[] columns) {
+        ImportRow row = new ImportRow();
+        row.setRowNumber(rowNumber);
+
+        if (columns.length != 3) {
+            row.setError("列数不正确");
+            return row;
+        }
+        row.setEmail(columns[0].trim());
+        row.setUsername(columns[1].trim());
+        row.setPassword(columns[2].trim());
+        return row;
+    }
+
+    private ImportRow parseJsonRow(int rowNumber, String line) {
+        try {
+            ImportRow parsed = objectMapper.readValue(line, ImportRow.class);
+            parsed.setRowNumber(rowNumber);
+            return parsed;
+        } catch (IOException e) {
+            ImportRow row = new ImportRow();
+            row.setRowNumber(rowNumber);
+            row.setError("JSON格式不正确");
+            return row;
+        }
+    }
+
+    /**
+     * 逐行处理回调
+     */
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(ImportRow row) throws IOException;
+    }
+
+    /**
+     * 导入文件格式
+     */
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * 单行导入状态
+     */
+    public enum ImportStatus {
+        CREATED,
+        INVALID,
+        DUPLICATE,
+        FAILED
+    }
+
+    /**
+     * 导入行
+     */
+    @lombok.Data
+    public static class ImportRow {
+        private int rowNumber;
+        private String email;
+        private String username;
+        private String password;
+        private String error;
+    }
+
+    /**
+     * 单行导入结果
+     */
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class ImportResult {
+        private int row;
+        private String email;
+        private ImportStatus status;
+        private String message;
+    }
+
+    /**
+     * 导入汇总
+     */
+    @lombok.Data
+    public static class ImportSummary {
+        private int total;
+        private int created;
+        private int invalid;
+        private int duplicate;
+        private int failed;
+
+        void record(ImportResult result) {
+            total++;
+            switch (result.getStatus()) {
+                case CREATED -> created++;
+                case INVALID -> invalid++;
+                case DUPLICATE -> duplicate++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+}
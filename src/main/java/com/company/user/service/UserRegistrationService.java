@@ -1,18 +1,21 @@
 package com.company.user.service;
 
+import com.company.common.SnowflakeIdGenerator;
+import com.company.user.domain.EmailDeadLetter;
 import com.company.user.domain.User;
 import com.company.user.domain.User.UserStatus;
-import com.company.user.integration.EmailService;
+import com.company.user.domain.VerificationToken;
 import com.company.user.integration.RateLimitService;
+import com.company.user.repository.EmailDeadLetterRepository;
 import com.company.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.UUID;
 import java.util.regex.Pattern;
 
 /**
@@ -38,8 +41,11 @@ import java.util.regex.Pattern;
 public class UserRegistrationService {
 
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final VerificationEmailDispatcher emailDispatcher;
+    private final EmailDeadLetterRepository deadLetterRepository;
     private final RateLimitService rateLimitService;
+    private final VerificationTokenService tokenService;
+    private final SnowflakeIdGenerator idGenerator;
 
     // 邮箱格式正则表达式
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
@@ -81,22 +87,26 @@ public class UserRegistrationService {
 
         // 4. 创建用户
         User user = User.builder()
+            .id(idGenerator.nextId())
             .email(email)
             .username(username)
             .password(encryptPassword(password))
             .status(UserStatus.PENDING_VERIFICATION)
             .registeredAt(LocalDateTime.now())
-            .verificationToken(generateVerificationToken())
             .build();
 
-        // 5. 保存用户
-        // 真实调用: userRepository.save(user);
-        // Demo 模式: 模拟保存并设置 ID
-        user.setId(System.currentTimeMillis());
+        // 5. 保存用户（邮箱唯一索引兜底: 并发注册同一邮箱时后写入的失败）
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("注册失败: 邮箱已被并发注册 - {}", email);
+            throw new RegistrationException("该邮箱已被注册");
+        }
         log.info("用户注册成功: {}", email);
 
-        // 6. 发送验证邮件
-        sendVerificationEmail(user);
+        // 6. 签发验证令牌并发送验证邮件
+        String verificationToken = tokenService.issueToken(user.getId());
+        sendVerificationEmail(user, verificationToken);
 
         return user;
     }
@@ -160,28 +170,45 @@ public class UserRegistrationService {
     /**
      * 加密密码
      */
-    private String encryptPassword(String password) {
+    String encryptPassword(String password) {
         // 实际应该使用 BCrypt 或其他加密算法
         // return passwordEncoder.encode(password);
         return "encrypted_" + password;
     }
 
     /**
-     * 生成验证令牌
+     * 发送验证邮件
+     *
+     * 来源场景: "成功注册新用户" - "系统应该发送验证邮件"
+     *
+     * 事务提交后异步发送，邮件服务延迟不影响注册耗时
      */
-    private String generateVerificationToken() {
-        return UUID.randomUUID().toString();
+    private void sendVerificationEmail(User user, String verificationToken) {
+        log.info("发送验证邮件到: {}", user.getEmail());
+        emailDispatcher.enqueueAfterCommit(user.getId(), user.getEmail(), verificationToken);
     }
 
     /**
-     * 发送验证邮件
+     * 重新投递死信中的验证邮件
      *
      * 来源场景: "成功注册新用户" - "系统应该发送验证邮件"
+     *
+     * 死信不保存令牌，按用户ID签发新令牌后重新入队；用户已完成验证时只删除死信。
+     *
+     * @param deadLetterId 死信记录ID
+     * @throws RegistrationException 死信记录不存在
      */
-    private void sendVerificationEmail(User user) {
-        log.info("发送验证邮件到: {}", user.getEmail());
-        // 真实调用: 通过 EmailService 发送验证邮件
-        emailService.sendVerificationEmail(user.getEmail(), user.getVerificationToken());
+    @Transactional
+    public void resendVerificationEmail(Long deadLetterId) {
+        EmailDeadLetter deadLetter = deadLetterRepository.findById(deadLetterId)
+            .orElseThrow(() -> new RegistrationException("死信记录不存在"));
+
+        userRepository.findById(deadLetter.getUserId())
+            .filter(User::needsVerification)
+            .ifPresent(user -> sendVerificationEmail(user, tokenService.issueToken(user.getId())));
+
+        deadLetterRepository.delete(deadLetter);
+        log.info("验证邮件死信已重新投递 - 死信ID: {}, 邮箱: {}", deadLetterId, deadLetter.getEmail());
     }
 
     /**
@@ -193,21 +220,23 @@ public class UserRegistrationService {
      *
      * @param token 验证令牌
      * @return 验证后的用户
+     * @throws RegistrationException 令牌无效或已过期
      */
     @Transactional
     public User verifyEmail(String token) {
         log.info("验证邮箱 - 令牌: {}", token);
 
         // 1. 根据令牌查找用户
-        User user = userRepository.findByVerificationToken(token)
+        VerificationToken verificationToken = tokenService.resolveToken(token);
+        User user = userRepository.findById(verificationToken.getUserId())
             .orElseThrow(() -> new RegistrationException("无效的验证链接"));
 
         // 2. 验证邮箱（Domain 层业务方法）
         user.verifyEmail();
 
-        // 3. 保存更新
-        // 真实调用: userRepository.save(user);
-        // Demo 模式: 状态已在内存中更新
+        // 3. 保存更新并作废令牌
+        userRepository.save(user);
+        tokenService.revokeToken(verificationToken);
 
         log.info("邮箱验证成功: {}", user.getEmail());
 
@@ -0,0 +1,274 @@
+package com.company.user.service;
+
+import com.company.user.domain.EmailDeadLetter;
+import com.company.user.integration.EmailService;
+import com.company.user.integration.dto.VerificationEmail;
+import com.company.user.repository.EmailDeadLetterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证邮件异步发送器
+ *
+ * 来源场景: "成功注册新用户" - "系统应该发送验证邮件"
+ *
+ * 发送流程:
+ * - 注册事务提交后入队，邮件服务的延迟不再计入注册耗时
+ * - 每个发送线程对应一个邮件服务连接，按批取出邮件批量发送
+ * - 发送失败按指数退避重试，重试耗尽后写入死信表（只记录用户ID，重新投递时签发新令牌）
+ * - 死信在独立事务中写入: 队列已满发生在注册事务提交之后，不能加入已提交的事务
+ * - 停止时队列中和等待重试的邮件写入死信，不随进程退出丢失
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class VerificationEmailDispatcher {
+
+    private static final String STOPPED_REASON = "服务停止时未发送";
+
+    // 停止时等待发送线程和重试线程结束的时间
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+    private final EmailService emailService;
+    private final EmailDeadLetterRepository deadLetterRepository;
+
+    // 死信写入使用独立事务
+    private final TransactionTemplate deadLetterTransaction;
+
+    private final BlockingQueue<VerificationEmail> queue;
+    private final ScheduledExecutorService retryScheduler;
+    private final List<Thread> senders = new ArrayList<>();
+
+    // 等待重试的邮件，停止时写入死信（shutdownNow 返回的是包装后的任务，取不到邮件本身）
+    private final Set<VerificationEmail> retrying = ConcurrentHashMap.newKeySet();
+
+    // 发送线程数（即邮件服务连接数）
+    private final int senderConnections;
+
+    // 每批最多发送的邮件数
+    private final int batchSize;
+
+    // 最大尝试次数
+    private final int maxAttempts;
+
+    // 首次重试的退避时间
+    private final Duration retryBackoff;
+
+    private volatile boolean running = true;
+
+    public VerificationEmailDispatcher(
+            EmailService emailService,
+            EmailDeadLetterRepository deadLetterRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${user.email.queue-capacity:10000}") int queueCapacity,
+            @Value("${user.email.sender-connections:2}") int senderConnections,
+            @Value("${user.email.batch-size:50}") int batchSize,
+            @Value("${user.email.max-attempts:5}") int maxAttempts,
+            @Value("${user.email.retry-backoff:PT1S}") Duration retryBackoff) {
+        this.emailService = emailService;
+        this.deadLetterRepository = deadLetterRepository;
+        this.deadLetterTransaction = new TransactionTemplate(transactionManager);
+        this.deadLetterTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senderConnections = senderConnections;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * 启动发送线程
+     */
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < senderConnections; i++) {
+            Thread sender = new Thread(this::sendLoop, "email-sender-" + i);
+            sender.setDaemon(true);
+            sender.start();
+            senders.add(sender);
+        }
+    }
+
+    /**
+     * 停止发送线程，未发送的邮件写入死信
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        senders.forEach(Thread::interrupt);
+        retryScheduler.shutdownNow();
+        try {
+            retryScheduler.awaitTermination(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            for (Thread sender : senders) {
+                sender.join(STOP_TIMEOUT.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<VerificationEmail> unsent = new ArrayList<>();
+        for (VerificationEmail message : retrying) {
+            if (retrying.remove(message)) {
+                unsent.add(message);
+            }
+        }
+        queue.drainTo(unsent);
+        if (!unsent.isEmpty()) {
+            log.warn("停止时仍有验证邮件未发送，写入死信 - 数量: {}", unsent.size());
+            deadLetter(unsent, STOPPED_REASON);
+        }
+    }
+
+    /**
+     * 在当前事务提交后将验证邮件入队
+     *
+     * 没有活动事务时立即入队；事务回滚时不会发送。
+     *
+     * @param userId 用户ID
+     * @param email 目标邮箱地址
+     * @param verificationToken 验证令牌
+     */
+    public void enqueueAfterCommit(Long userId, String email, String verificationToken) {
+        VerificationEmail message = VerificationEmail.builder()
+            .userId(userId)
+            .email(email)
+            .verificationToken(verificationToken)
+            .build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(message);
+                }
+            });
+        } else {
+            enqueue(message);
+        }
+    }
+
+    /**
+     * 当前待发送的邮件数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void enqueue(VerificationEmail message) {
+        if (!queue.offer(message)) {
+            log.warn("验证邮件发送队列已满 - 邮箱: {}", message.getEmail());
+            deadLetter(List.of(message), "发送队列已满");
+        }
+    }
+
+    private void sendLoop() {
+        List<VerificationEmail> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                VerificationEmail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<VerificationEmail> batch) {
+        List<VerificationEmail> failed;
+        try {
+            failed = emailService.sendVerificationEmails(batch);
+        } catch (RuntimeException e) {
+            log.warn("验证邮件批量发送失败 - 数量: {}, 错误: {}", batch.size(), e.getMessage());
+            failed = new ArrayList<>(batch);
+        }
+
+        log.debug("验证邮件批量发送完成 - 数量: {}, 失败: {}", batch.size(), failed.size());
+        failed.forEach(this::scheduleRetry);
+    }
+
+    private void scheduleRetry(VerificationEmail message) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+
+        if (attempts >= maxAttempts) {
+            deadLetter(List.of(message), "重试次数耗尽");
+            return;
+        }
+
+        long delayMillis = retryBackoff.toMillis() << Math.min(attempts - 1, 10);
+        retrying.add(message);
+        try {
+            retryScheduler.schedule(() -> {
+                if (retrying.remove(message)) {
+                    enqueue(message);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 已停止，停止流程可能已取走等待重试的邮件
+            if (retrying.remove(message)) {
+                deadLetter(List.of(message), STOPPED_REASON);
+            }
+        }
+    }
+
+    /**
+     * 在独立事务中写入死信
+     */
+    private void deadLetter(List<VerificationEmail> messages, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailDeadLetter> deadLetters = messages.stream()
+            .map(message -> EmailDeadLetter.builder()
+                .userId(message.getUserId())
+                .email(message.getEmail())
+                .attempts(message.getAttempts())
+                .failureReason(reason)
+                .createdAt(now)
+                .build())
+            .toList();
+        try {
+            deadLetterTransaction.executeWithoutResult(status -> deadLetterRepository.saveAll(deadLetters));
+            messages.forEach(message ->
+                log.error("验证邮件进入死信 - 邮箱: {}, 原因: {}", message.getEmail(), reason));
+        } catch (RuntimeException e) {
+            log.error("验证邮件死信保存失败 - 数量: {}, 原因: {}", messages.size(), reason, e);
+        }
+    }
+}
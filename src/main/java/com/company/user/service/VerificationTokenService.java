@@ -0,0 +1,149 @@
+package com.company.user.service;
+
+import com.company.user.domain.VerificationToken;
+import com.company.user.repository.VerificationTokenRepository;
+import com.company.user.service.UserRegistrationService.RegistrationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 邮箱验证令牌服务
+ *
+ * 来源场景: behaviors/user/user_registration.feature
+ * 场景: 邮箱验证流程
+ *
+ * 核心职责:
+ * - 签发带有效期的验证令牌
+ * - 解析令牌并校验是否过期（只读）
+ * - 后台分批清理过期令牌
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class VerificationTokenService {
+
+    private final VerificationTokenRepository tokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // 令牌有效期
+    private final Duration tokenTtl;
+
+    // 每批清理的令牌数量
+    private final int sweepBatchSize;
+
+    public VerificationTokenService(
+            VerificationTokenRepository tokenRepository,
+            @Value("${user.verification.token-ttl:PT24H}") Duration tokenTtl,
+            @Value("${user.verification.sweep-batch-size:500}") int sweepBatchSize) {
+        this.tokenRepository = tokenRepository;
+        this.tokenTtl = tokenTtl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * 签发验证令牌
+     *
+     * 来源场景: "成功注册新用户" - "系统应该发送验证邮件"
+     *
+     * @param userId 用户ID
+     * @return 验证链接中使用的令牌字符串
+     */
+    public String issueToken(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        VerificationToken token = VerificationToken.builder()
+            .token(generateToken())
+            .userId(userId)
+            .createdAt(now)
+            .expiresAt(now.plus(tokenTtl))
+            .build();
+
+        tokenRepository.save(token);
+        return VerificationToken.encode(token.getToken());
+    }
+
+    /**
+     * 解析验证令牌
+     *
+     * 来源场景: "邮箱验证流程"
+     * - When: 用户点击验证邮件中的链接
+     *
+     * @param value 令牌字符串
+     * @return 令牌记录
+     * @throws RegistrationException 令牌无效或已过期
+     */
+    public VerificationToken resolveToken(String value) {
+        UUID id;
+        try {
+            id = VerificationToken.decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new RegistrationException("无效的验证链接");
+        }
+
+        VerificationToken token = tokenRepository.findById(id)
+            .orElseThrow(() -> new RegistrationException("无效的验证链接"));
+
+        // 过期令牌不在此删除: 调用方事务因抛出异常而回滚，删除不会生效，由 purgeExpiredTokens 统一清理
+        if (token.isExpiredAt(LocalDateTime.now())) {
+            throw new RegistrationException("验证链接已过期");
+        }
+
+        return token;
+    }
+
+    /**
+     * 作废令牌（验证成功后调用）
+     *
+     * @param token 令牌记录
+     */
+    public void revokeToken(VerificationToken token) {
+        tokenRepository.delete(token);
+    }
+
+    /**
+     * 分批清理过期令牌
+     *
+     * 每批单独提交，避免长事务和大范围锁
+     */
+    @Scheduled(fixedDelayString = "${user.verification.sweep-interval:PT5M}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        List<UUID> batch;
+
+        do {
+            batch = tokenRepository.findExpiredTokens(now, PageRequest.of(0, sweepBatchSize));
+            if (!batch.isEmpty()) {
+                tokenRepository.deleteAllByIdInBatch(batch);
+                purged += batch.size();
+            }
+        } while (batch.size() == sweepBatchSize);
+
+        if (purged > 0) {
+            log.info("清理过期验证令牌 - 数量: {}", purged);
+        }
+    }
+
+    /**
+     * 生成 128 位随机令牌
+     */
+    private UUID generateToken() {
+        byte[] bytes = new byte[16];
+        secureRandom.nextBytes(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
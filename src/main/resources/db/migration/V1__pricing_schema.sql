@@ -0,0 +1,136 @@
+-- 菜单定价表结构
+--
+-- 对应 BDD 场景: behaviors/menu/price_update.feature, behaviors/menu/price_state_flow.feature
+--
+-- 列类型与 JPA 映射一致: 金额 numeric(38,2)，时间 timestamp(6)，枚举按名称存储
+-- 在 PostgreSQL 上 idx_price_history_active 可改为部分索引 (WHERE is_active)，
+-- 只索引生效中的记录；H2 不支持部分索引，这里保留含 is_active 的复合索引
+
+-- 价格变更单
+create table price_change_orders (
+    id                      bigint generated by default as identity primary key,
+    order_no                varchar(16)   not null,
+    product_code            varchar(255),
+    product_name            varchar(255),
+    specification           varchar(255),
+    target_region           varchar(255),
+    original_price          numeric(38,2),
+    new_price               numeric(38,2),
+    adjustment_type         varchar(32),
+    adjustment_amount       numeric(38,2),
+    adjustment_percentage   numeric(38,2),
+    change_reason           varchar(255),
+    effective_date          timestamp(6),
+    affected_store_count    integer,
+    status                  varchar(32),
+    created_by              varchar(255),
+    created_at              timestamp(6),
+    approved_by             varchar(255),
+    approved_at             timestamp(6),
+    execution_started_at    timestamp(6),
+    execution_completed_at  timestamp(6),
+    failure_reason          varchar(255),
+    version                 bigint
+);
+
+-- 按单号查询、生成单号时查重
+create unique index uk_price_change_orders_order_no on price_change_orders (order_no);
+-- 调度扫描到期的已审批变更单
+create index idx_price_change_orders_status_effective on price_change_orders (status, effective_date);
+
+-- 变更单影响的门店，每行一个门店ID
+create table price_change_order_stores (
+    order_id  bigint not null references price_change_orders (id),
+    store_id  bigint
+);
+
+create index idx_price_change_order_stores_order on price_change_order_stores (order_id);
+
+-- 价格历史
+create table price_history (
+    id                      bigint generated by default as identity primary key,
+    change_order_no         varchar(255),
+    product_code            varchar(255),
+    product_name            varchar(255),
+    region_code             varchar(255),
+    region_name             varchar(255),
+    store_id                bigint,
+    store_name              varchar(255),
+    original_price          numeric(38,2),
+    new_price               numeric(38,2),
+    price_difference        numeric(38,2),
+    adjustment_percentage   numeric(38,2),
+    effective_time          timestamp(6),
+    expiry_time             timestamp(6),
+    change_reason           varchar(255),
+    change_type             varchar(32),
+    created_by              varchar(255),
+    approved_by             varchar(255),
+    approved_at             timestamp(6),
+    created_at              timestamp(6),
+    is_active               boolean,
+    remark                  varchar(255)
+);
+
+-- 价格历史查询: 产品在区域的全部记录按生效时间倒序
+create index idx_price_history_product_region_time on price_history (product_code, region_code, effective_time);
+-- 当前价格查询: 生效中的记录按生效时间倒序取第一条
+create index idx_price_history_active on price_history (product_code, region_code, is_active, effective_time);
+-- 执行完成时按门店关闭旧记录
+create index idx_price_history_store_active on price_history (product_code, region_code, store_id, is_active);
+create index idx_price_history_change_order on price_history (change_order_no);
+-- 冷数据归档
+create index idx_price_history_expiry on price_history (is_active, expiry_time);
+
+-- 推送失败待同步的门店价格
+create table store_price_resyncs (
+    id               bigint generated by default as identity primary key,
+    change_order_no  varchar(255),
+    store_id         bigint,
+    product_code     varchar(255),
+    price            numeric(38,2),
+    failure_reason   varchar(255),
+    attempts         integer not null,
+    created_at       timestamp(6),
+    resolved_at      timestamp(6)
+);
+
+create index idx_store_price_resyncs_pending on store_price_resyncs (resolved_at, created_at);
+create index idx_store_price_resyncs_product_store on store_price_resyncs (product_code, store_id);
+
+-- 订单取消补偿任务
+create table compensation_tasks (
+    id               bigint generated by default as identity primary key,
+    saga_id          varchar(255) not null,
+    task_type        varchar(32),
+    target_ref       varchar(255),
+    user_id          varchar(255),
+    points           integer,
+    status           varchar(32),
+    retry_count      integer not null,
+    next_attempt_at  timestamp(6),
+    claimed_at       timestamp(6),
+    last_error       varchar(255),
+    created_at       timestamp(6),
+    completed_at     timestamp(6)
+);
+
+create index idx_compensation_tasks_due on compensation_tasks (status, next_attempt_at);
+create index idx_compensation_tasks_saga on compensation_tasks (saga_id);
+
+-- 会员积分调整日志
+create table member_points_journal (
+    id               bigint generated by default as identity primary key,
+    idempotency_key  varchar(255) not null,
+    user_id          varchar(255) not null,
+    points           integer not null,
+    status           varchar(32),
+    attempts         integer not null,
+    failure_reason   varchar(255),
+    created_at       timestamp(6),
+    applied_at       timestamp(6),
+    constraint uk_member_points_journal_idempotency_key unique (idempotency_key)
+);
+
+create index idx_member_points_journal_pending on member_points_journal (status, id);
+create index idx_member_points_journal_user on member_points_journal (user_id, status);
@@ -0,0 +1,38 @@
+-- 用户注册表结构
+--
+-- 来源场景: behaviors/user/user_registration.feature
+
+-- 用户，ID 由 SnowflakeIdGenerator 在应用内分配
+create table users (
+    id                 bigint primary key,
+    email              varchar(255) not null,
+    username           varchar(255),
+    password           varchar(255),
+    status             varchar(32),
+    registered_at      timestamp(6),
+    email_verified_at  timestamp(6),
+    registration_ip    varchar(255)
+);
+
+-- 防止重复注册: 并发注册同一邮箱时只有一个能写入
+create unique index uk_users_email on users (email);
+
+-- 邮箱验证令牌
+create table verification_tokens (
+    token       uuid primary key,
+    user_id     bigint not null,
+    created_at  timestamp(6),
+    expires_at  timestamp(6) not null
+);
+
+create index idx_verification_tokens_expires_at on verification_tokens (expires_at);
+
+-- 多次发送失败的验证邮件
+create table email_dead_letters (
+    id                  bigint generated by default as identity primary key,
+    email               varchar(255),
+    verification_token  varchar(255),
+    attempts            integer not null,
+    failure_reason      varchar(255),
+    created_at          timestamp(6)
+);
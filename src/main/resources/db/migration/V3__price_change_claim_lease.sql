@@ -0,0 +1,6 @@
+-- 价格变更单执行租约
+--
+-- 对应 BDD 场景: "价格变更审批通过后自动生效"
+-- 开始执行时写入认领时间，节点在执行途中退出时，租约到期后变更单退回已审批并重新执行
+
+alter table price_change_orders add column claimed_at timestamp(6);
@@ -0,0 +1,13 @@
+-- 价格历史归档段登记
+--
+-- 对应 BDD 场景: "价格变更历史查询"
+-- 归档段文件落盘后，登记与删除热表记录在同一事务中提交；
+-- 启动时只加载已登记的段，未登记的文件是中断遗留，其记录仍在热表中
+
+create table price_history_archive_segments (
+    file_name       varchar(255) primary key,
+    row_count       integer not null,
+    min_history_id  bigint not null,
+    max_history_id  bigint not null,
+    created_at      timestamp(6) not null
+);
@@ -0,0 +1,8 @@
+-- 验证邮件死信不再保存令牌明文
+--
+-- 来源场景: "成功注册新用户" - "系统应该发送验证邮件"
+-- 重新投递时按用户ID签发新令牌
+
+alter table email_dead_letters add column user_id bigint;
+
+alter table email_dead_letters drop column verification_token;
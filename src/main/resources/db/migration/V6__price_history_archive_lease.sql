@@ -0,0 +1,13 @@
+-- 价格历史归档租约
+--
+-- 对应 BDD 场景: "价格变更历史查询"
+-- 归档段写入共享目录，同一时间只有持有租约的节点压缩冷数据；
+-- 租约在每批归档的事务中续期，节点在归档途中退出时，租约到期后由其他节点接手
+
+create table price_history_archive_lease (
+    name        varchar(64) primary key,
+    owner       varchar(255),
+    expires_at  timestamp(6)
+);
+
+insert into price_history_archive_lease (name) values ('compaction');
@@ -166,3 +166,24 @@ Feature: 用户注册 API 测试
     Then status 400
     And match response.error == 'INVALID_TOKEN'
     And match response.message == '无效的验证链接'
+
+  @registration @bulk-import
+  Scenario: 批量导入用户 API 测试
+    # 对应辅助接口: 加盟伙伴会员批量迁移（CSV 流式导入，逐行返回结果）
+
+    * def csv =
+      """
+      email,username,password
+      import1@example.com,导入用户1,SecurePass123!
+      invalid-email,导入用户2,SecurePass123!
+      import1@example.com,导入用户3,SecurePass123!
+      """
+
+    Given path 'import'
+    And header Content-Type = 'text/csv'
+    And request csv
+    When method post
+    Then status 200
+    * def results = karate.map(response.trim().split('\n'), function(line){ return JSON.parse(line) })
+    And match results[*].status == ['CREATED', 'INVALID', 'DUPLICATE']
+    And match results[1].message == '邮箱格式不正确'
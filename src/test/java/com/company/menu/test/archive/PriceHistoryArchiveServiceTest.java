@@ -0,0 +1,154 @@
+package com.company.menu.test.archive;
+
+import com.company.menu.archive.PriceHistoryArchiveService;
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.repository.PriceHistoryRepository;
+import com.company.menu.test.config.MenuModuleTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 价格历史归档服务多节点测试
+ *
+ * 对应 BDD 场景: "价格变更历史查询" - 已失效的冷数据从热表迁出后仍可查询
+ * - 持有归档租约的节点压缩冷数据，其他节点从共享目录加载新登记的段
+ * - 租约由其他节点持有时跳过本轮，记录留在热表中
+ * - 未登记的段文件由持有租约的节点搁置
+ *
+ * 两个服务实例共享同一个数据库和归档目录，模拟两个节点。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@MenuModuleTest
+class PriceHistoryArchiveServiceTest {
+
+    private static final String PRODUCT_CODE = "ARCHIVE-TEST-GRANDE";
+    private static final String REGION_CODE = "华东区";
+
+    @Autowired
+    private PriceHistoryRepository historyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM price_history WHERE product_code = ?", PRODUCT_CODE);
+        jdbcTemplate.update("DELETE FROM price_history_archive_segments");
+        jdbcTemplate.update("UPDATE price_history_archive_lease SET owner = NULL, expires_at = NULL");
+    }
+
+    @Test
+    void otherNodeLoadsSegmentWrittenToSharedDirectory() {
+        List<PriceHistory> rows = saveExpiredRows(3);
+        PriceHistoryArchiveService archiving = newNode();
+        PriceHistoryArchiveService reading = newNode();
+
+        archiving.compact();
+
+        assertThat(historyRepository.findAllById(rows.stream().map(PriceHistory::getId).toList())).isEmpty();
+        assertThat(archiving.query(PRODUCT_CODE, REGION_CODE)).hasSize(3);
+        assertThat(reading.query(PRODUCT_CODE, REGION_CODE)).isEmpty();
+
+        reading.refreshSegments();
+
+        assertThat(reading.query(PRODUCT_CODE, REGION_CODE))
+            .extracting(PriceHistory::getId)
+            .containsExactlyInAnyOrderElementsOf(rows.stream().map(PriceHistory::getId).toList());
+        // 本节点写入的段不重复加载
+        archiving.refreshSegments();
+        assertThat(archiving.getSegmentCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT owner FROM price_history_archive_lease", String.class)).isNull();
+    }
+
+    @Test
+    void skipsCompactionWhileAnotherNodeHoldsLease() {
+        List<PriceHistory> rows = saveExpiredRows(2);
+        jdbcTemplate.update("UPDATE price_history_archive_lease SET owner = ?, expires_at = ?",
+            "other-node", Timestamp.valueOf(LocalDateTime.now().plusMinutes(10)));
+        PriceHistoryArchiveService node = newNode();
+
+        node.compact();
+
+        assertThat(historyRepository.findAllById(rows.stream().map(PriceHistory::getId).toList())).hasSize(2);
+        assertThat(node.getSegmentCount()).isZero();
+        assertThat(segmentFiles()).isEmpty();
+    }
+
+    @Test
+    void takesOverExpiredLeaseAndSetsAsideUnregisteredSegment() throws Exception {
+        saveExpiredRows(1);
+        jdbcTemplate.update("UPDATE price_history_archive_lease SET owner = ?, expires_at = ?",
+            "stalled-node", Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        // 此前持有者落盘后未提交的段
+        Files.write(directory.resolve("price-history-stalled.seg"), new byte[] {1, 2, 3});
+        PriceHistoryArchiveService node = newNode();
+
+        node.compact();
+
+        assertThat(node.getSegmentCount()).isEqualTo(1);
+        assertThat(directory.resolve("price-history-stalled.seg.orphan")).exists();
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    private PriceHistoryArchiveService newNode() {
+        PriceHistoryArchiveService node = new PriceHistoryArchiveService(
+            historyRepository, jdbcTemplate, transactionTemplate,
+            true, directory.toString(), Duration.ofDays(365), 50000, Duration.ofMinutes(30));
+        node.openSegments();
+        return node;
+    }
+
+    private List<PriceHistory> saveExpiredRows(int count) {
+        LocalDateTime effectiveTime = LocalDateTime.now().minusYears(2);
+        List<PriceHistory> rows = Stream.iterate(1, i -> i + 1).limit(count)
+            .map(i -> PriceHistory.builder()
+                .changeOrderNo("PCO-ARCHIVE-" + i)
+                .productCode(PRODUCT_CODE)
+                .productName("归档测试（大杯）")
+                .regionCode(REGION_CODE)
+                .regionName(REGION_CODE)
+                .storeId(9000L + i)
+                .newPrice(new BigDecimal("36.00"))
+                .effectiveTime(effectiveTime)
+                .expiryTime(effectiveTime.plusDays(30))
+                .createdAt(effectiveTime.minusDays(1))
+                .isActive(false)
+                .build())
+            .toList();
+        return historyRepository.saveAll(rows);
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.company.menu.test.archive;
+
+import com.company.menu.archive.PriceHistorySegment;
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.domain.PriceHistory.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 价格历史归档段测试
+ *
+ * 对应 BDD 场景: "价格变更历史查询" - 已失效的冷数据从热表迁出后仍可查询
+ * - 写入后重新打开，按 (产品, 区域) 读回的记录与写入一致
+ * - 空值、负差值、不同小数位的价格、微秒精度时间
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+class PriceHistorySegmentTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 8, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsRowsGroupedByProductAndRegion() throws IOException {
+        PriceHistory first = row(105L, "LATTE-GRANDE", "华东区", 1001L, "36.00", "38.50", BASE);
+        PriceHistory second = row(101L, "LATTE-GRANDE", "华东区", 1002L, "38.50", "35.5", BASE.plusDays(30));
+        PriceHistory national = row(103L, "LATTE-GRANDE", PriceHistory.NATIONAL_REGION, null, null, "34.00", BASE.minusDays(1));
+        PriceHistory mocha = row(102L, "MOCHA-GRANDE", "华东区", 1001L, "40.00", "42.00", BASE.plusHours(1));
+        national.setStoreName(null);
+        national.setChangeType(null);
+        national.setApprovedAt(null);
+        national.setRemark(null);
+
+        Path file = directory.resolve("segment.seg");
+        PriceHistorySegment.write(file, List.of(second, mocha, national, first));
+        PriceHistorySegment segment = PriceHistorySegment.open(file);
+
+        assertThat(segment.getRowCount()).isEqualTo(4);
+        assertThat(segment.getPath()).isEqualTo(file);
+
+        List<PriceHistory> east = segment.find("LATTE-GRANDE", "华东区");
+        assertThat(east).hasSize(2);
+        assertRoundTrip(east.get(0), first);
+        assertRoundTrip(east.get(1), second);
+
+        assertThat(segment.find("LATTE-GRANDE", PriceHistory.NATIONAL_REGION))
+            .singleElement()
+            .satisfies(decoded -> assertRoundTrip(decoded, national));
+        assertThat(segment.find("MOCHA-GRANDE", "华东区"))
+            .singleElement()
+            .satisfies(decoded -> assertRoundTrip(decoded, mocha));
+    }
+
+    @Test
+    void returnsEmptyForUnknownProductOrRegion() throws IOException {
+        Path file = directory.resolve("segment.seg");
+        PriceHistorySegment.write(file,
+            List.of(row(1L, "LATTE-GRANDE", "华东区", 1001L, "36.00", "38.00", BASE)));
+        PriceHistorySegment segment = PriceHistorySegment.open(file);
+
+        assertThat(segment.find("AMERICANO-GRANDE", "华东区")).isEmpty();
+        assertThat(segment.find("LATTE-GRANDE", "华北区")).isEmpty();
+        // 两个编码都在字典中，但没有对应的块
+        assertThat(segment.find("华东区", "LATTE-GRANDE")).isEmpty();
+    }
+
+    @Test
+    void rejectsFileThatIsNotASegment() throws IOException {
+        Path file = Files.write(directory.resolve("broken.seg"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> PriceHistorySegment.open(file))
+            .isInstanceOf(IOException.class);
+    }
+
+    private static void assertRoundTrip(PriceHistory decoded, PriceHistory expected) {
+        assertThat(decoded)
+            .usingRecursiveComparison()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .isEqualTo(expected);
+    }
+
+    private static PriceHistory row(
+            Long id,
+            String productCode,
+            String regionCode,
+            Long storeId,
+            String originalPrice,
+            String newPrice,
+            LocalDateTime effectiveTime) {
+        PriceHistory row = PriceHistory.builder()
+            .id(id)
+            .changeOrderNo("PCO-" + id)
+            .productCode(productCode)
+            .productName("拿铁（大杯）")
+            .regionCode(regionCode)
+            .regionName(regionCode)
+            .storeId(storeId)
+            .storeName(storeId == null ? null : "门店-" + storeId)
+            .originalPrice(originalPrice == null ? null : new BigDecimal(originalPrice))
+            .newPrice(new BigDecimal(newPrice))
+            .effectiveTime(effectiveTime)
+            .expiryTime(effectiveTime.plusDays(10))
+            .changeReason("原材料成本上涨")
+            .changeType(ChangeType.COST_CHANGE)
+            .createdBy("pricing-manager")
+            .approvedBy("regional-director")
+            .approvedAt(effectiveTime.minusHours(2))
+            .createdAt(effectiveTime.minusDays(1))
+            .isActive(false)
+            .remark("季度调价")
+            .build();
+        row.calculatePriceDifference();
+        return row;
+    }
+}
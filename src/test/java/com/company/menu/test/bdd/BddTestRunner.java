@@ -1,33 +1,42 @@
 package com.company.menu.test.bdd;
 
-import io.cucumber.junit.Cucumber;
-import io.cucumber.junit.CucumberOptions;
-import org.junit.runner.RunWith;
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.ANSI_COLORS_DISABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
 
 /**
  * Cucumber BDD 测试运行器
  *
+ * 基于 JUnit Platform 的 Cucumber 引擎，场景按 CPU 核数并行执行
+ * （配置见 src/test/resources/junit-platform.properties），
+ * 每个工作线程使用独立的 Spring 上下文和 H2 数据库，见 config.CucumberSpringConfiguration。
+ *
  * 执行方式:
  * 1. Maven: mvn test -Dtest=BddTestRunner
- * 2. IDE: 直接运行这个类
- * 3. CI/CD: 集成到构建流程
+ * 2. 串行执行（排查问题时）: mvn test -Dtest=BddTestRunner -Dcucumber.execution.parallel.enabled=false
+ * 3. IDE: 直接运行这个类
+ * 4. CI/CD: 集成到构建流程
  *
  * @author AI-Generated via menu-pricing skill
  * @version 1.0.0
  */
-@RunWith(Cucumber.class)
-@CucumberOptions(
-    features = "classpath:behaviors/menu/price_update.feature",  // BDD 场景文件位置
-    glue = "com.company.menu.test.bdd",                        // Step Definitions 包路径
-    plugin = {
-        "pretty",                                                 // 控制台输出
-        "html:target/cucumber-reports/cucumber.html",            // HTML 报告
-        "json:target/cucumber-reports/cucumber.json",            // JSON 报告
-        "junit:target/cucumber-reports/cucumber.xml"             // JUnit XML 报告
-    },
-    monochrome = true,                                           // 控制台输出格式化
-    tags = "not @skip"                                           // 排除标记为 @skip 的场景
-)
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("behaviors/menu/price_update.feature")                 // BDD 场景文件位置
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.company.menu.test.bdd")  // Step Definitions 包路径
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value =
+    "pretty,"                                                                     // 控制台输出
+    + "html:target/cucumber-reports/cucumber.html,"                               // HTML 报告
+    + "json:target/cucumber-reports/cucumber.json,"                               // JSON 报告
+    + "junit:target/cucumber-reports/cucumber.xml")                               // JUnit XML 报告
+@ConfigurationParameter(key = ANSI_COLORS_DISABLED_PROPERTY_NAME, value = "true") // 控制台输出格式化
+@ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "not @skip")   // 排除标记为 @skip 的场景
 public class BddTestRunner {
     // Cucumber 会自动发现并执行测试
 }
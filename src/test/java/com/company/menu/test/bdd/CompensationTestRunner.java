@@ -0,0 +1,35 @@
+package com.company.menu.test.bdd;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.ANSI_COLORS_DISABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+/**
+ * 订单取消补偿场景运行器
+ *
+ * 对应 BDD 场景: behaviors/order/order_with_external_deps.feature "支付成功但库存释放失败的补偿"
+ * - 库存释放失败时创建补偿任务，库存系统恢复后由后台重试完成
+ *
+ * 执行方式: mvn test -Dtest=CompensationTestRunner
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("behaviors/order/order_with_external_deps.feature")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.company.menu.test.bdd")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value =
+    "pretty,"
+    + "junit:target/cucumber-reports/compensation.xml")
+@ConfigurationParameter(key = ANSI_COLORS_DISABLED_PROPERTY_NAME, value = "true")
+@ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@compensation and not @skip")
+public class CompensationTestRunner {
+}
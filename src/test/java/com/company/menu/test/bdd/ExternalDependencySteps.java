@@ -1,12 +1,16 @@
 package com.company.menu.test.bdd;
 
+import com.company.menu.domain.CompensationTask;
 import com.company.menu.domain.Order;
+import com.company.menu.service.CompensationService;
+import com.company.menu.service.MemberPointsService;
 import com.company.menu.service.OrderService;
 import com.company.menu.integration.InventoryService;
 import com.company.menu.integration.PaymentGateway;
 import com.company.menu.integration.SmsService;
 import com.company.menu.integration.MemberService;
 import com.company.menu.integration.dto.*;
+import com.company.menu.repository.CompensationTaskRepository;
 import com.company.menu.test.bdd.context.ScenarioContext;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.zh_cn.假如;
@@ -16,8 +20,6 @@ import io.cucumber.java.zh_cn.并且;
 import io.cucumber.java.zh_cn.但是;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -40,27 +42,35 @@ import static org.mockito.Mockito.*;
  * @since 2026-02-04
  */
 @Slf4j
-@SpringBootTest
 public class ExternalDependencySteps {
 
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private MemberPointsService memberPointsService;
+
+    @Autowired
+    private CompensationService compensationService;
+
+    @Autowired
+    private CompensationTaskRepository compensationTaskRepository;
+
     @Autowired
     private ScenarioContext scenarioContext;
 
-    // ==================== Mock 外部服务 ====================
+    // ==================== Mock 外部服务 (MenuModuleTest 中声明) ====================
 
-    @MockBean
+    @Autowired
     private InventoryService inventoryService;
 
-    @MockBean
+    @Autowired
     private PaymentGateway paymentGateway;
 
-    @MockBean
+    @Autowired
     private SmsService smsService;
 
-    @MockBean
+    @Autowired
     private MemberService memberService;
 
     // ==================== 库存服务 Mock ====================
@@ -102,6 +112,13 @@ public class ExternalDependencySteps {
         log.info("✓ Mock 配置: 库存释放接口异常");
     }
 
+    @当("库存系统恢复正常")
+    public void 库存系统恢复正常() {
+        doNothing().when(inventoryService).releaseInventory(anyString());
+
+        log.info("✓ Mock 配置: 库存释放接口恢复");
+    }
+
     // ==================== 支付网关 Mock ====================
 
     @假如("支付网关工作正常")
@@ -120,6 +137,9 @@ public class ExternalDependencySteps {
         when(paymentGateway.queryPaymentStatus(anyString()))
             .thenReturn(PaymentStatus.SUCCESS);
 
+        when(paymentGateway.refund(anyString()))
+            .thenReturn(true);
+
         log.info("✓ Mock 配置: 支付网关正常");
     }
 
@@ -197,6 +217,10 @@ public class ExternalDependencySteps {
         when(memberService.deductPoints(eq(userId), anyInt()))
             .thenReturn(true);
 
+        // 批量回写走默认实现，逐条调用 deductPoints
+        when(memberService.applyPointsAdjustments(anyList()))
+            .thenCallRealMethod();
+
         log.info("✓ Mock 配置: 用户 {} 有 {} 积分", userId, points);
     }
 
@@ -430,6 +454,9 @@ public class ExternalDependencySteps {
     @那么("应该调用会员系统扣减积分")
     @并且("应该调用会员系统扣减积分")
     public void 应该调用会员系统扣减积分() {
+        // 积分扣减异步回写，验证前先回写积分日志
+        memberPointsService.flushJournal();
+
         verify(memberService, times(1))
             .deductPoints(anyString(), anyInt());
 
@@ -541,7 +568,14 @@ public class ExternalDependencySteps {
     @那么("系统应创建补偿任务")
     @并且("系统应创建补偿任务")
     public void 系统应创建补偿任务() {
+        Order order = scenarioContext.getCurrentOrder();
+        List<CompensationTask> pending = compensationService.findTasks(order.getOrderNo()).stream()
+            .filter(task -> task.getStatus() == CompensationTask.TaskStatus.PENDING)
+            .toList();
+
+        assertThat(pending).isNotEmpty();
         scenarioContext.addState("compensation_task_created", true);
+        scenarioContext.addState("compensation_tasks", pending);
         log.info("✓ 验证通过: 补偿任务已创建");
     }
 
@@ -553,9 +587,51 @@ public class ExternalDependencySteps {
         assertThat(scenarioContext.getState("compensation_task_created", Boolean.class))
             .isTrue();
 
+        @SuppressWarnings("unchecked")
+        List<CompensationTask> tasks = scenarioContext.getState("compensation_tasks", List.class);
+        assertThat(tasks).anySatisfy(task -> {
+            assertThat(task.getTaskType().getDescription()).isEqualTo(expectedTask.get("任务类型"));
+            assertThat(task.getTaskType().getTargetService()).isEqualTo(expectedTask.get("目标服务"));
+            assertThat(task.getRetryCount()).isEqualTo(Integer.parseInt(expectedTask.get("重试次数")));
+            assertThat(task.getStatus().getDescription()).isEqualTo(expectedTask.get("状态"));
+        });
+
         log.info("✓ 验证通过: 补偿任务包含 {}", expectedTask);
     }
 
+    @并且("补偿任务到达重试时间")
+    public void 补偿任务到达重试时间() {
+        Order order = scenarioContext.getCurrentOrder();
+        List<CompensationTask> pending = compensationService.findTasks(order.getOrderNo()).stream()
+            .filter(task -> task.getStatus() == CompensationTask.TaskStatus.PENDING)
+            .toList();
+
+        // 跳过退避等待，下次执行时间提前到当前
+        pending.forEach(task -> task.setNextAttemptAt(LocalDateTime.now()));
+        compensationTaskRepository.saveAll(pending);
+
+        // 测试环境不启用调度，直接触发后台重试
+        compensationService.drainPending();
+    }
+
+    @那么("后台应完成补偿任务 {string}")
+    public void 后台应完成补偿任务(String taskType) {
+        Order order = scenarioContext.getCurrentOrder();
+        List<CompensationTask> tasks = compensationService.findTasks(order.getOrderNo());
+
+        assertThat(tasks)
+            .filteredOn(task -> task.getTaskType().getDescription().equals(taskType))
+            .singleElement()
+            .satisfies(task -> {
+                assertThat(task.getStatus()).isEqualTo(CompensationTask.TaskStatus.SUCCEEDED);
+                assertThat(task.getCompletedAt()).isNotNull();
+                assertThat(task.getLastError()).isNull();
+            });
+        verify(inventoryService, times(2)).releaseInventory(order.getOrderNo());
+
+        log.info("✓ 验证通过: 补偿任务 {} 已由后台完成", taskType);
+    }
+
     // ==================== 熔断器验证 ====================
 
     @那么("应该触发熔断")
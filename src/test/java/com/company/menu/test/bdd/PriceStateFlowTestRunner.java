@@ -0,0 +1,35 @@
+package com.company.menu.test.bdd;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.ANSI_COLORS_DISABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+/**
+ * 变更单状态流转并发场景运行器
+ *
+ * 对应 BDD 场景: behaviors/menu/price_state_flow.feature "并发状态检查"
+ * - 多个审批人在不同线程同时经 PricingService 审批，验证 CAS 流转只有一个成功
+ *
+ * 执行方式: mvn test -Dtest=PriceStateFlowTestRunner
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("behaviors/menu/price_state_flow.feature")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.company.menu.test.bdd")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value =
+    "pretty,"
+    + "junit:target/cucumber-reports/price-state-flow.xml")
+@ConfigurationParameter(key = ANSI_COLORS_DISABLED_PROPERTY_NAME, value = "true")
+@ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@concurrent and not @skip")
+public class PriceStateFlowTestRunner {
+}
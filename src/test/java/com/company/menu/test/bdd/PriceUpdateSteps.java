@@ -3,7 +3,13 @@ package com.company.menu.test.bdd;
 import com.company.menu.controller.MenuPricingController;
 import com.company.menu.domain.PriceChangeOrder;
 import com.company.menu.domain.PriceHistory;
+import com.company.menu.domain.StorePriceResync;
+import com.company.menu.integration.dto.StorePriceUpdate;
+import com.company.menu.repository.PriceChangeOrderRepository;
+import com.company.menu.repository.PriceHistoryRepository;
+import com.company.menu.repository.StorePriceResyncRepository;
 import com.company.menu.service.PricingService;
+import com.company.menu.test.pos.FailingPosSystemClient;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.zh_cn.假如;
 import io.cucumber.java.zh_cn.当;
@@ -11,13 +17,14 @@ import io.cucumber.java.zh_cn.那么;
 import io.cucumber.java.zh_cn.并且;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -37,19 +44,38 @@ import static org.assertj.core.api.Assertions.assertThat;
  * @since 2026-02-04
  */
 @Slf4j
-@SpringBootTest
 public class PriceUpdateSteps {
 
+    private static final Map<String, String> PRODUCT_CODES = Map.of(
+        "大杯拿铁", "LATTE-GRANDE",
+        "大杯美式", "AMERICANO-GRANDE",
+        "大杯摩卡", "MOCHA-GRANDE");
+
     @Autowired
     private PricingService pricingService;
 
     @Autowired
     private MenuPricingController pricingController;
 
+    @Autowired
+    private PriceChangeOrderRepository orderRepository;
+
+    @Autowired
+    private PriceHistoryRepository historyRepository;
+
+    @Autowired
+    private StorePriceResyncRepository resyncRepository;
+
+    @Autowired
+    private FailingPosSystemClient posSystemClient;
+
     // 测试上下文 (在步骤之间共享数据)
     private PriceChangeOrder createdOrder;
+    private PriceChangeOrder futureOrder;
     private List<PriceChangeOrder> createdOrders;
     private List<PriceHistory> priceHistories;
+    private List<Long> affectedStoreIds;
+    private List<Long> failedStoreIds = List.of();
     private boolean executionSuccess;
     private String validationMessage;
 
@@ -104,18 +130,61 @@ public class PriceUpdateSteps {
             .isEqualTo(PriceChangeOrder.OrderStatus.PENDING_APPROVAL);
     }
 
-    @假如("价格变更单 {string} 已审批通过")
-    public void 价格变更单已审批通过(String orderNo) {
-        log.info("审批价格变更单: {}", orderNo);
-        createdOrder = pricingService.approvePriceChangeOrder(orderNo, "李四");
+    @假如("{string}在{string}上调{int}元、影响 {int} 个门店的价格变更单已审批通过")
+    public void 价格变更单已审批通过(String productName, String region, int amount, int storeCount) {
+        log.info("创建并审批价格变更单 - 产品: {}, 区域: {}, 门店数: {}", productName, region, storeCount);
+        affectedStoreIds = LongStream.rangeClosed(1, storeCount).boxed().toList();
+
+        createdOrder = pricingService.createPriceChangeOrder(
+            productCode(productName),
+            productName,
+            "大杯",
+            region,
+            PriceChangeOrder.AdjustmentType.INCREASE,
+            new BigDecimal(amount),
+            LocalDateTime.now(),
+            "市场调整",
+            "张三",
+            affectedStoreIds
+        );
+        createdOrder = pricingService.approvePriceChangeOrder(createdOrder.getOrderNo(), "李四");
         assertThat(createdOrder.getStatus())
             .isEqualTo(PriceChangeOrder.OrderStatus.APPROVED);
     }
 
-    @假如("变更已开始执行")
-    public void 变更已开始执行() {
-        log.info("开始执行价格变更");
-        createdOrder.startExecution();
+    @假如("华东区{string}存在已执行、生效时间为 {string} 的上调{int}元变更单")
+    public void 存在已执行未生效的变更单(String productName, String effectiveDate, int amount) {
+        log.info("提前执行未到生效时间的变更单 - 产品: {}, 生效时间: {}", productName, effectiveDate);
+
+        futureOrder = pricingService.createPriceChangeOrder(
+            "LATTE-GRANDE",
+            productName,
+            "大杯",
+            "华东区",
+            PriceChangeOrder.AdjustmentType.INCREASE,
+            new BigDecimal(amount),
+            LocalDateTime.parse(effectiveDate, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+            "市场调整",
+            "张三",
+            List.of(1L, 2L, 3L)
+        );
+        pricingService.approvePriceChangeOrder(futureOrder.getOrderNo(), "李四");
+
+        assertThat(pricingService.executePriceChange(futureOrder.getOrderNo())).isTrue();
+    }
+
+    @假如("{string}的全国价格为{int}元")
+    public void 产品的全国价格为元(String productName, int price) {
+        log.info("设置全国价 - 产品: {}, 价格: {}元", productName, price);
+        pricingService.setBasePrice(productCode(productName), productName, PriceHistory.NATIONAL_REGION,
+            new BigDecimal(price), "市场调整", "张三");
+    }
+
+    @假如("门店 {long} 在{string}的{string}单独定价为{int}元")
+    public void 门店单独定价为元(long storeId, String region, String productName, int price) {
+        log.info("设置门店价 - 门店: {}, 区域: {}, 产品: {}, 价格: {}元", storeId, region, productName, price);
+        pricingService.setStorePriceOverride(storeId, region, productCode(productName), productName,
+            new BigDecimal(price), "门店促销", "张三");
     }
 
     @假如("运营人员需要针对不同区域设置差异化价格")
@@ -211,15 +280,67 @@ public class PriceUpdateSteps {
     @当("系统时间到达 {string}")
     public void 系统时间到达(String datetime) {
         log.info("系统时间到达: {}", datetime);
-        // 在实际实现中，这里会使用定时任务触发执行
+        // 运行时由 PriceChangeScheduler 到点触发；测试环境关闭调度，直接执行
         executionSuccess = pricingService.executePriceChange(createdOrder.getOrderNo());
     }
 
+    @当("再次提交{string}在华东区的价格调整请求")
+    public void 再次提交价格调整请求(String productName) {
+        log.info("再次提交价格调整请求 - 产品: {}", productName);
+
+        createdOrder = pricingService.createPriceChangeOrder(
+            "LATTE-GRANDE",
+            productName,
+            "大杯",
+            "华东区",
+            PriceChangeOrder.AdjustmentType.INCREASE,
+            new BigDecimal("1.00"),
+            LocalDateTime.now().plusDays(7),
+            "市场调整",
+            "张三",
+            List.of(1L, 2L, 3L)
+        );
+    }
+
+    @当("提交{string}在{string}上调{int}元的价格变更单")
+    public void 提交产品在区域上调的价格变更单(String productName, String region, int amount) {
+        log.info("提交价格变更单 - 产品: {}, 区域: {}, 上调: {}元", productName, region, amount);
+
+        // 不含单独定价的门店 501
+        createdOrder = pricingService.createPriceChangeOrder(
+            productCode(productName),
+            productName,
+            "大杯",
+            region,
+            PriceChangeOrder.AdjustmentType.INCREASE,
+            new BigDecimal(amount),
+            LocalDateTime.now(),
+            "市场调整",
+            "张三",
+            List.of(502L, 503L)
+        );
+    }
+
+    @当("该变更单审批通过并执行完成")
+    public void 该变更单审批通过并执行完成() {
+        log.info("审批并执行变更单: {}", createdOrder.getOrderNo());
+        pricingService.approvePriceChangeOrder(createdOrder.getOrderNo(), "李四");
+        assertThat(pricingService.executePriceChange(createdOrder.getOrderNo())).isTrue();
+    }
+
     @当("执行过程中第{int}个门店更新失败")
     public void 执行过程中第个门店更新失败(int failureIndex) {
-        log.info("模拟第{}个门店更新失败", failureIndex);
-        // 在实际实现中，这里会模拟失败场景
-        executionSuccess = false;
+        执行过程中第至第个门店更新失败(failureIndex, failureIndex);
+    }
+
+    @当("执行过程中第{int}至第{int}个门店更新失败")
+    public void 执行过程中第至第个门店更新失败(int from, int to) {
+        log.info("模拟第{}至第{}个门店更新失败", from, to);
+        failedStoreIds = affectedStoreIds.subList(from - 1, to);
+        posSystemClient.failStores(failedStoreIds);
+
+        executionSuccess = pricingService.executePriceChange(createdOrder.getOrderNo());
+        createdOrder = orderRepository.findByOrderNo(createdOrder.getOrderNo()).orElseThrow();
     }
 
     @当("查询{string}在{string}的价格历史")
@@ -282,6 +403,19 @@ public class PriceUpdateSteps {
         log.debug("期望的历史记录: {}", expected);
     }
 
+    @那么("新变更单的原价格应与未生效变更单的原价格相同")
+    public void 新变更单的原价格应与未生效变更单的原价格相同() {
+        log.info("验证当前价格未变 - 原价格: {}", futureOrder.getOriginalPrice());
+        assertThat(createdOrder.getOriginalPrice()).isEqualByComparingTo(futureOrder.getOriginalPrice());
+        assertThat(createdOrder.getOriginalPrice()).isNotEqualByComparingTo(futureOrder.getNewPrice());
+    }
+
+    @那么("新变更单的原价格应为 {int}元")
+    public void 新变更单的原价格应为元(int expectedPrice) {
+        log.info("验证原价格 - 期望: {}元, 实际: {}", expectedPrice, createdOrder.getOriginalPrice());
+        assertThat(createdOrder.getOriginalPrice()).isEqualByComparingTo(new BigDecimal(expectedPrice));
+    }
+
     @那么("系统应生成 {int} 个独立的价格变更单")
     public void 系统应生成个独立的价格变更单(int expectedCount) {
         log.info("验证变更单数量: {}", expectedCount);
@@ -291,8 +425,20 @@ public class PriceUpdateSteps {
     @那么("系统应自动回滚所有已更新的门店价格")
     public void 系统应自动回滚所有已更新的门店价格() {
         log.info("验证价格回滚");
-        // 在实际实现中，这里会验证回滚操作
         assertThat(executionSuccess).isFalse();
+
+        // 回滚推送覆盖所有已更新的门店，各门店恢复为按层级解析的价格
+        List<Long> updatedStoreIds = affectedStoreIds.stream()
+            .filter(storeId -> !failedStoreIds.contains(storeId))
+            .toList();
+        List<StorePriceUpdate> rollback = posSystemClient.lastBatch();
+        assertThat(rollback).extracting(StorePriceUpdate::getStoreId)
+            .containsExactlyElementsOf(updatedStoreIds);
+        rollback.forEach(update -> {
+            BigDecimal expected = pricingService.resolveStorePrice(update.getStoreId(), createdOrder.getProductCode())
+                .orElse(createdOrder.getOriginalPrice());
+            assertThat(update.getPrices().get(createdOrder.getProductCode())).isEqualByComparingTo(expected);
+        });
     }
 
     @那么("应返回 {int} 条历史记录")
@@ -312,11 +458,7 @@ public class PriceUpdateSteps {
     @并且("变更单状态为 {string}")
     public void 变更单状态为(String expectedStatus) {
         log.info("验证变更单状态: {}", expectedStatus);
-        PriceChangeOrder.OrderStatus status =
-            PriceChangeOrder.OrderStatus.valueOf(
-                expectedStatus.equals("待审批") ? "PENDING_APPROVAL" : expectedStatus
-            );
-        assertThat(createdOrder.getStatus()).isEqualTo(status);
+        assertThat(createdOrder.getStatus().getDescription()).isEqualTo(expectedStatus);
     }
 
     @并且("变更单应包含 {int} 个门店")
@@ -361,6 +503,44 @@ public class PriceUpdateSteps {
         assertThat(createdOrder.getFailureReason()).contains(expectedReason);
     }
 
+    @并且("本单写入的价格历史应已作废")
+    public void 本单写入的价格历史应已作废() {
+        log.info("验证价格历史作废 - 单号: {}", createdOrder.getOrderNo());
+        assertThat(orderHistories()).isNotEmpty()
+            .allSatisfy(history -> assertThat(history.getIsActive()).isFalse());
+    }
+
+    @并且("第{int}个门店应隔离待重新同步")
+    public void 门店应隔离待重新同步(int storeIndex) {
+        Long storeId = affectedStoreIds.get(storeIndex - 1);
+        log.info("验证门店隔离 - 门店ID: {}", storeId);
+
+        List<StorePriceResync> pending = resyncRepository
+            .findByResolvedAtIsNullOrderByAttemptsAscCreatedAtAsc(PageRequest.of(0, 1000)).stream()
+            .filter(resync -> createdOrder.getOrderNo().equals(resync.getChangeOrderNo()))
+            .toList();
+        assertThat(pending).singleElement().satisfies(resync -> {
+            assertThat(resync.getStoreId()).isEqualTo(storeId);
+            assertThat(resync.getPrice()).isEqualByComparingTo(createdOrder.getNewPrice());
+            assertThat(resync.getFailureReason()).isEqualTo(FailingPosSystemClient.FAILURE_MESSAGE);
+        });
+    }
+
+    @并且("其余 {int} 个门店应保存新价格的价格历史")
+    public void 其余门店应保存新价格的价格历史(int expectedCount) {
+        log.info("验证价格历史 - 期望门店数: {}", expectedCount);
+        assertThat(executionSuccess).isTrue();
+
+        List<PriceHistory> histories = orderHistories();
+        assertThat(histories).hasSize(expectedCount)
+            .allSatisfy(history -> {
+                assertThat(history.getNewPrice()).isEqualByComparingTo(createdOrder.getNewPrice());
+                assertThat(history.getIsActive()).isTrue();
+            });
+        assertThat(histories).extracting(PriceHistory::getStoreId)
+            .doesNotContainAnyElementsOf(failedStoreIds);
+    }
+
     @并且("应通知运营人员和技术支持团队")
     public void 应通知运营人员和技术支持团队() {
         log.info("验证失败通知");
@@ -387,6 +567,19 @@ public class PriceUpdateSteps {
 
     // ==================== 辅助方法 ====================
 
+    private List<PriceHistory> orderHistories() {
+        return historyRepository.findByProductCodeAndRegionCodeOrderByEffectiveTimeDesc(
+                createdOrder.getProductCode(), createdOrder.getTargetRegion()).stream()
+            .filter(history -> createdOrder.getOrderNo().equals(history.getChangeOrderNo()))
+            .toList();
+    }
+
+    private static String productCode(String productName) {
+        String productCode = PRODUCT_CODES.get(productName);
+        assertThat(productCode).as("未知产品: %s", productName).isNotNull();
+        return productCode;
+    }
+
     private PriceChangeOrder createMockOrder(
             String productCode,
             String region,
@@ -10,12 +10,18 @@ import io.cucumber.java.zh_cn.那么;
 import io.cucumber.java.zh_cn.并且;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,7 +35,6 @@ import static org.assertj.core.api.Assertions.assertThat;
  * @since 2026-02-04
  */
 @Slf4j
-@SpringBootTest
 public class StateFlowSteps {
 
     @Autowired
@@ -388,39 +393,71 @@ public class StateFlowSteps {
     // ==================== 并发场景支持 ====================
 
     @当("多个审批人同时尝试审批")
-    public void 多个审批人同时尝试审批(DataTable dataTable) {
+    public void 多个审批人同时尝试审批(DataTable dataTable) throws Exception {
         List<Map<String, String>> approvers = dataTable.asMaps();
-        PriceChangeOrder order = scenarioContext.getCurrentOrder();
+        String orderNo = scenarioContext.getCurrentOrder().getOrderNo();
 
-        List<String> successfulApprovers = new ArrayList<>();
-        List<String> failedApprovers = new ArrayList<>();
+        List<String> successfulApprovers = Collections.synchronizedList(new ArrayList<>());
+        List<String> failedApprovers = Collections.synchronizedList(new ArrayList<>());
+        List<PriceChangeOrder> approvedOrders = Collections.synchronizedList(new ArrayList<>());
 
-        for (Map<String, String> row : approvers) {
-            String approver = row.get("审批人");
-            try {
-                order.approve(approver);
-                successfulApprovers.add(approver);
-                log.info("审批人 {} 审批成功", approver);
-            } catch (IllegalStateException e) {
-                failedApprovers.add(approver);
-                log.info("审批人 {} 审批失败: {}", approver, e.getMessage());
+        // 每个审批人一个线程，同时放行后各自经服务层提交，状态流转以 CAS 方式竞争
+        ExecutorService executor = Executors.newFixedThreadPool(approvers.size());
+        CountDownLatch ready = new CountDownLatch(approvers.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Map<String, String> row : approvers) {
+                String approver = row.get("审批人");
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    try {
+                        approvedOrders.add(pricingService.approvePriceChangeOrder(orderNo, approver));
+                        successfulApprovers.add(approver);
+                        log.info("审批人 {} 审批成功", approver);
+                    } catch (IllegalStateException e) {
+                        failedApprovers.add(approver);
+                        log.info("审批人 {} 审批失败: {}", approver, e.getMessage());
+                    }
+                    return null;
+                }));
             }
+
+            assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
         }
 
-        scenarioContext.setCurrentOrder(order);
-        scenarioContext.addState("successful_approvers", successfulApprovers);
-        scenarioContext.addState("failed_approvers", failedApprovers);
+        if (!approvedOrders.isEmpty()) {
+            scenarioContext.setCurrentOrder(approvedOrders.get(0));
+        }
+        scenarioContext.addState("successful_approvers", List.copyOf(successfulApprovers));
+        scenarioContext.addState("failed_approvers", List.copyOf(failedApprovers));
     }
 
-    @那么("只有第一个审批应该成功")
-    public void 只有第一个审批应该成功() {
+    @那么("只有一个审批应该成功")
+    public void 只有一个审批应该成功() {
         @SuppressWarnings("unchecked")
         List<String> successfulApprovers =
             (List<String>) scenarioContext.getState("successful_approvers");
 
         assertThat(successfulApprovers).hasSize(1);
 
-        log.info("✓ 验证通过：只有第一个审批成功");
+        log.info("✓ 验证通过：只有 {} 审批成功", successfulApprovers.get(0));
+    }
+
+    @并且("审批人应为唯一审批成功的人")
+    public void 审批人应为唯一审批成功的人() {
+        @SuppressWarnings("unchecked")
+        List<String> successfulApprovers =
+            (List<String>) scenarioContext.getState("successful_approvers");
+
+        审批人应为(successfulApprovers.get(0));
     }
 
     @并且("审批人应为 {string}")
@@ -0,0 +1,23 @@
+package com.company.menu.test.bdd.config;
+
+import com.company.menu.test.config.MenuModuleTest;
+import io.cucumber.spring.CucumberContextConfiguration;
+import org.springframework.test.context.ContextCustomizerFactories;
+
+/**
+ * Cucumber Spring 上下文配置
+ *
+ * 所有步骤定义共享这一份配置，步骤类本身不再标注 @SpringBootTest。
+ * 只加载菜单模块切片 ({@link MenuModuleTest})，外部系统 Mock 由切片声明，步骤定义按场景配置行为。
+ * 场景并行执行时，每个工作线程通过 {@link WorkerDatabaseCustomizerFactory} 得到独立的 Spring 上下文
+ * 和 H2 数据库，外部系统 Mock、缓存等单例也随上下文隔离，不同线程上的场景互不影响。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@CucumberContextConfiguration
+@MenuModuleTest
+@ContextCustomizerFactories(WorkerDatabaseCustomizerFactory.class)
+public class CucumberSpringConfiguration {
+}
@@ -0,0 +1,61 @@
+package com.company.menu.test.bdd.config;
+
+import io.cucumber.spring.CucumberContextConfiguration;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按工作线程隔离 BDD 测试的 Spring 上下文和 H2 数据库
+ *
+ * Cucumber 并行执行时同一场景的所有步骤在同一个工作线程上运行。
+ * 每个工作线程分配一个编号，编号参与上下文缓存键，Spring 为每个工作线程缓存一份上下文，
+ * 并连接该线程专属的内存数据库 bdd-worker-N；同一线程上的后续场景复用已启动的上下文。
+ * 用户模块等其他 Cucumber 配置使用带配置类名前缀的数据库，不与菜单模块共用同一个库。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class WorkerDatabaseCustomizerFactory implements ContextCustomizerFactory {
+
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+
+    private static final ThreadLocal<Integer> WORKER = ThreadLocal.withInitial(WORKERS::incrementAndGet);
+
+    @Override
+    public ContextCustomizer createContextCustomizer(
+            Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
+        if (!testClass.isAnnotationPresent(CucumberContextConfiguration.class)) {
+            return null;
+        }
+        return new WorkerDatabase(testClass.getName(), WORKER.get());
+    }
+
+    /**
+     * 工作线程专属数据库
+     *
+     * record 的 equals/hashCode 包含配置类和工作线程编号，不同线程的上下文不会命中同一个缓存
+     */
+    private record WorkerDatabase(String configuration, int worker) implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            TestPropertyValues.of("spring.datasource.url=jdbc:h2:mem:" + databaseName())
+                .applyTo(context);
+        }
+
+        private String databaseName() {
+            if (configuration.equals(CucumberSpringConfiguration.class.getName())) {
+                return "bdd-worker-" + worker;
+            }
+            return "bdd-" + configuration.substring(configuration.lastIndexOf('.') + 1) + "-worker-" + worker;
+        }
+    }
+}
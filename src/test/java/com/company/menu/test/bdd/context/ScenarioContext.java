@@ -1,8 +1,8 @@
 package com.company.menu.test.bdd.context;
 
 import com.company.menu.domain.PriceChangeOrder;
+import io.cucumber.spring.ScenarioScope;
 import org.springframework.stereotype.Component;
-import org.springframework.context.annotation.Scope;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -15,12 +15,15 @@ import java.util.Map;
  * 用于在测试步骤之间共享数据和状态
  * 解决中间状态数据传递问题
  *
+ * 场景作用域: 每个场景创建一个新实例，场景结束后销毁，
+ * 并行执行的场景各自持有独立的上下文，无需在场景之间清理
+ *
  * @author AI-Generated
  * @version 1.0.0
  * @since 2026-02-04
  */
 @Component
-@Scope("cucumber-glue") // Cucumber 专用作用域，每个场景一个实例
+@ScenarioScope
 public class ScenarioContext {
 
     // 当前场景的价格变更单
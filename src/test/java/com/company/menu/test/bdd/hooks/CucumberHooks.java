@@ -1,6 +1,7 @@
 package com.company.menu.test.bdd.hooks;
 
 import com.company.menu.test.bdd.context.ScenarioContext;
+import com.company.menu.test.pos.FailingPosSystemClient;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
@@ -10,8 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 /**
  * Cucumber 钩子
  *
- * 在场景执行前后执行清理和初始化操作
- * 确保每个场景独立运行，状态不互相影响
+ * 在场景执行前后记录场景信息和执行结果
+ * ScenarioContext 为场景作用域，每个场景自动获得新实例，无需在钩子中清理
  *
  * @author AI-Generated
  * @version 1.0.0
@@ -22,27 +23,24 @@ public class CucumberHooks {
     @Autowired
     private ScenarioContext scenarioContext;
 
+    @Autowired
+    private FailingPosSystemClient posSystemClient;
+
     /**
      * 场景执行前的钩子
-     * 清理上一个场景的数据，确保场景独立性
+     * POS 客户端为单例，恢复为所有门店推送成功
      */
     @Before
     public void beforeScenario(Scenario scenario) {
+        posSystemClient.reset();
         log.info("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         log.info("🎬 开始执行场景: {}", scenario.getName());
         log.info("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-
-        // 清理场景上下文
-        if (scenarioContext != null) {
-            scenarioContext.clear();
-        }
-
-        log.debug("✓ 场景上下文已清理");
     }
 
     /**
      * 场景执行后的钩子
-     * 记录场景执行结果，清理资源
+     * 记录场景执行结果
      */
     @After
     public void afterScenario(Scenario scenario) {
@@ -69,11 +67,6 @@ public class CucumberHooks {
             }
         }
 
-        // 清理场景上下文
-        if (scenarioContext != null) {
-            scenarioContext.clear();
-        }
-
         log.info("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         log.info("🏁 场景执行完成");
         log.info("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
@@ -0,0 +1,46 @@
+package com.company.menu.test.config;
+
+import com.company.menu.test.pos.FailingPosSystemClient;
+import com.company.test.EagerStartupBeans;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 菜单模块测试切片
+ *
+ * 只加载菜单定价模块（com.company.menu）和公共组件（com.company.common），
+ * 不创建用户模块的 Controller、Service、实体和 Repository，启动比完整应用更快。
+ * POS 客户端替换为可按需失败的 {@link FailingPosSystemClient}，用于门店更新失败的场景。
+ * 测试环境懒加载，定时任务和启动钩子仍在启动时创建（见 {@link EagerStartupBeans}）。
+ *
+ * 有意不标注 @Configuration: 完整应用的组件扫描覆盖测试类路径，
+ * 只有通过 @SpringBootTest(classes = ...) 显式指定时才会生效。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@EnableAutoConfiguration
+@EnableScheduling
+@ComponentScan(
+    basePackages = {"com.company.menu", "com.company.common"},
+    excludeFilters = @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class))
+@EntityScan("com.company.menu.domain")
+@EnableJpaRepositories("com.company.menu.repository")
+@Import(EagerStartupBeans.class)
+public class MenuModule {
+
+    @Bean
+    @Primary
+    FailingPosSystemClient failingPosSystemClient() {
+        return new FailingPosSystemClient();
+    }
+}
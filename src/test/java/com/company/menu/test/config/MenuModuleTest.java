@@ -0,0 +1,38 @@
+package com.company.menu.test.config;
+
+import com.company.menu.integration.InventoryService;
+import com.company.menu.integration.MemberService;
+import com.company.menu.integration.PaymentGateway;
+import com.company.menu.integration.SmsService;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 菜单模块测试
+ *
+ * 加载 {@link MenuModule} 切片，外部系统（库存、支付、短信、会员）以 Mock 代替，
+ * 测试中通过 @Autowired 取得 Mock 配置行为。
+ *
+ * 使用同一注解的测试配置完全相同，共享 Spring 测试上下文缓存中的同一个上下文。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest(classes = MenuModule.class)
+@ActiveProfiles("test")
+@MockBean({InventoryService.class, PaymentGateway.class, SmsService.class, MemberService.class})
+public @interface MenuModuleTest {
+}
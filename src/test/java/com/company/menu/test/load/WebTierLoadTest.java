@@ -0,0 +1,103 @@
+package com.company.menu.test.load;
+
+import com.company.test.ApplicationTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Web 层并发压测: 平台线程 vs 虚拟线程
+ *
+ * 以 5000 个并发连接同时请求价格历史查询和邮箱可用性检查，两者都在请求线程上阻塞于 JPA 查询。
+ * 分别在两种模式下执行，对比吞吐和 P99 延迟:
+ *
+ * - 平台线程: mvn test -Dtest=WebTierLoadTest -Dweb.load-test=true
+ * - 虚拟线程: mvn -Pjava21 test -Dtest=WebTierLoadTest -Dweb.load-test=true
+ *
+ * 虚拟线程模式下同时输出 jdk.tracePinnedThreads 的固定调用栈。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@ApplicationTest
+@EnabledIfSystemProperty(named = "web.load-test", matches = "true")
+public class WebTierLoadTest {
+
+    private static final int CONCURRENT_CONNECTIONS = 5_000;
+    private static final int ROUNDS = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Test
+    void servesFiveThousandConcurrentConnections() {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        // 预热
+        runRound(client, 200);
+
+        List<Long> latencies = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            latencies.addAll(runRound(client, CONCURRENT_CONNECTIONS));
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        latencies.sort(null);
+        long p50 = latencies.get(latencies.size() / 2);
+        long p99 = latencies.get((int) (latencies.size() * 0.99));
+
+        log.info("Web 层压测 - 模式: {}, 请求: {}, 耗时: {}s, 吞吐: {}/s, P50: {}ms, P99: {}ms",
+            virtualThreads ? "虚拟线程" : "平台线程", latencies.size(), String.format("%.2f", seconds),
+            String.format("%.0f", latencies.size() / seconds), p50, p99);
+
+        assertThat(latencies).hasSize(CONCURRENT_CONNECTIONS * ROUNDS);
+    }
+
+    /**
+     * 同时发出一轮请求，返回各请求延迟（毫秒）
+     */
+    private List<Long> runRound(HttpClient client, int connections) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(request(i), HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    assertThat(response.statusCode()).isEqualTo(200);
+                    return (System.nanoTime() - sent) / 1_000_000;
+                }));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private HttpRequest request(int index) {
+        String path = index % 2 == 0
+            ? "/api/v1/pricing/history?productCode=LATTE-GRANDE&regionCode=EAST"
+            : "/api/v1/users/check-email?email=load" + index + "@example.com";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(60))
+            .GET()
+            .build();
+    }
+}
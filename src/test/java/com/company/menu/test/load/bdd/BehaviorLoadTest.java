@@ -0,0 +1,488 @@
+package com.company.menu.test.load.bdd;
+
+import com.company.menu.domain.Order;
+import com.company.menu.integration.InventoryService;
+import com.company.menu.integration.MemberService;
+import com.company.menu.integration.PaymentGateway;
+import com.company.menu.integration.SmsService;
+import com.company.menu.integration.dto.InventoryCheckResult;
+import com.company.menu.integration.dto.PaymentOrder;
+import com.company.menu.integration.dto.PaymentStatus;
+import com.company.menu.integration.dto.PointsAdjustment;
+import com.company.menu.integration.dto.PointsAdjustmentResult;
+import com.company.menu.integration.dto.SmsResponse;
+import com.company.menu.service.OrderService;
+import com.company.menu.test.load.bdd.StepBindings.ScenarioState;
+import com.company.menu.test.load.bdd.StepLatencyRecorder.Summary;
+import com.company.test.ApplicationTest;
+import com.company.user.integration.EmailService;
+import com.company.user.integration.RateLimitService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * 基于 BDD 场景的压测
+ *
+ * 以 behaviors 下的 feature 文件为负载定义，按开放模型以目标到达率执行场景，
+ * 输出每个步骤的 P50/P95/P99，并与 loadtest/step-budgets.properties 中的 P99 预算比较，
+ * 超出预算或步骤失败时测试失败，性能回归与功能行为对应到同一组场景。
+ *
+ * 执行方式:
+ * - mvn -Pload-test test
+ * - mvn -Pload-test test -Dload-test.rps=200 -Dload-test.duration=PT2M
+ *
+ * 负载说明:
+ * - 价格、注册相关步骤通过 REST 接口发起；订单没有对外接口，订单步骤直接调用 OrderService 的异步方法
+ * - 外部系统统一以固定延迟的 Mock 代替（load-test.stub-latency），场景中配置外部系统故障的前置步骤
+ *   会影响所有并发场景，压测中不执行；只执行为本场景准备数据的前置步骤（待审批变更单、已注册用户）
+ * - 步骤只发起请求、不断言业务结果，HTTP 5xx 或调用异常计为失败，业务上的拒绝（4xx）是场景预期的行为
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@ApplicationTest
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+public class BehaviorLoadTest {
+
+    private static final List<String> FEATURES = List.of(
+        "behaviors/menu/price_update.feature",
+        "behaviors/order/order_with_external_deps.feature",
+        "behaviors/user/user_registration.feature");
+
+    private static final String BUDGETS = "loadtest/step-budgets.properties";
+
+    private static final Map<String, String> PRODUCT_CODES = Map.of(
+        "大杯拿铁", "LATTE-GRANDE",
+        "大杯美式", "AMERICANO-GRANDE",
+        "大杯摩卡", "MOCHA-GRANDE",
+        "超大摩卡", "MOCHA-VENTI");
+
+    private static final String[] REGIONS = {"华东区", "华北区", "华南区"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private SmsService smsService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    private final double arrivalsPerSecond = Double.parseDouble(System.getProperty("load-test.rps", "50"));
+    private final Duration duration = Duration.parse(System.getProperty("load-test.duration", "PT60S"));
+    private final Duration warmup = Duration.parse(System.getProperty("load-test.warmup", "PT10S"));
+    private final Duration stubLatency = Duration.parse(System.getProperty("load-test.stub-latency", "PT0.005S"));
+    private final int maxInFlight = Integer.getInteger("load-test.max-in-flight", 2_000);
+
+    private HttpClient client;
+
+    // 执行 OrderService 同步方法的线程
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() {
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(64, runnable -> {
+            Thread thread = new Thread(runnable, "load-test-worker-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        stubExternalSystems();
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void featureScenariosStayWithinLatencyBudgets() {
+        OpenModelLoadGenerator generator =
+            new OpenModelLoadGenerator(FeatureWorkload.load(FEATURES), bindings(), maxInFlight);
+        log.info("BDD 场景压测 - 场景: {}, 到达率: {}/s, 持续: {}s",
+            generator.getScenarios().size(), arrivalsPerSecond, duration.toSeconds());
+
+        // 预热，结果不计入统计
+        generator.run(arrivalsPerSecond, warmup, new StepLatencyRecorder());
+
+        StepLatencyRecorder recorder = new StepLatencyRecorder();
+        long started = System.nanoTime();
+        long arrivals = generator.run(arrivalsPerSecond, duration, recorder);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        log.info("BDD 场景压测结果 - 场景实例: {}, 耗时: {}s{}",
+            arrivals, String.format("%.2f", seconds), recorder.report());
+
+        Properties budgets = loadBudgets();
+        List<Summary> summaries = recorder.summarize();
+
+        assertThat(summaries)
+            .as("没有场景实例因在途过多被丢弃")
+            .noneMatch(summary -> summary.label().equals(OpenModelLoadGenerator.DROPPED));
+        assertThat(summaries)
+            .as("步骤执行没有失败")
+            .allMatch(summary -> summary.errors() == 0);
+        for (Summary summary : summaries) {
+            String budget = budgets.getProperty(summary.label());
+            if (budget != null) {
+                assertThat(summary.p99())
+                    .as("步骤 P99 不超过预算: %s", summary.label())
+                    .isLessThanOrEqualTo(Double.parseDouble(budget));
+            }
+        }
+    }
+
+    /**
+     * feature 步骤到负载动作的绑定
+     */
+    private StepBindings bindings() {
+        return new StepBindings()
+            // ==================== 价格管理 ====================
+            .bind("区域配置", "^系统中存在以下区域配置:?$", (state, args, table) -> {
+                Map<String, Integer> storeCounts = new HashMap<>();
+                rows(table).forEach(row -> storeCounts.put(row.get("区域"), Integer.parseInt(row.get("门店数量"))));
+                state.put("storeCounts", storeCounts);
+                return null;
+            })
+            .bind("提交价格调整请求", "^提交以下价格调整请求:?$", (state, args, table) -> {
+                Map<String, String> row = rows(table).get(0);
+                return submitChangeOrder(state, row.get("产品名称"), row.get("目标区域"),
+                    "上调".equals(row.get("调整类型")) ? "INCREASE" : "DECREASE", yuan(row.get("调整金额")));
+            })
+            .bind("创建待审批变更单", "^存在待审批的价格变更单 \"(.+)\"$", (state, args, table) ->
+                submitChangeOrder(state, "大杯拿铁", "华东区", "INCREASE", new BigDecimal("2")))
+            .bind("审批变更单", "^审批人通过该变更单$", (state, args, table) ->
+                post("/api/v1/pricing/change-orders/" + state.get("changeOrderNo") + "/approve?approver=load-test",
+                    null))
+            .bind("提交批量价格调整", "^提交以下批量价格调整:?$", (state, args, table) -> {
+                List<Map<String, Object>> products = new ArrayList<>();
+                List<Map<String, Object>> regionalPrices = new ArrayList<>();
+                for (Map<String, String> row : rows(table)) {
+                    products.add(Map.of(
+                        "productCode", PRODUCT_CODES.get(row.get("产品名称")),
+                        "productName", row.get("产品名称"),
+                        "specification", "大杯"));
+                    for (String region : REGIONS) {
+                        regionalPrices.add(Map.of(
+                            "region", region,
+                            "price", yuan(row.get(region + "价格")),
+                            "storeIds", storeIds(state, region)));
+                    }
+                }
+                return post("/api/v1/pricing/change-orders/batch", Map.of(
+                    "products", products,
+                    "regionalPrices", regionalPrices,
+                    "effectiveDate", LocalDate.now().plusDays(1).atStartOfDay().toString(),
+                    "changeReason", "市场调整",
+                    "createdBy", "load-test"));
+            })
+            .bind("查询价格历史", "^查询\"(.+)\"在\"(.+)\"的价格历史$", (state, args, table) ->
+                get("/api/v1/pricing/history?productCode=" + PRODUCT_CODES.get(args.get(0))
+                    + "&regionCode=" + encode(args.get(1))))
+            .bind("提交调整金额", "^提交的调整金额为 (-?[\\d.]+)元$", (state, args, table) -> {
+                BigDecimal amount = new BigDecimal(args.get(0));
+                return submitChangeOrder(state, "大杯拿铁", "华东区",
+                    amount.signum() < 0 ? "DECREASE" : "INCREASE", amount.abs());
+            })
+
+            // ==================== 订单 ====================
+            .bind("下单", "^用户 \"(.+)\" 下单购买 (\\d+) 杯 \"(.+)\"$", (state, args, table) ->
+                orderService.createOrderAsync(userName(state, args.get(0)), args.get(2), Integer.parseInt(args.get(1)))
+                    .thenAccept(order -> state.put("order", order)))
+            .bind("多产品下单", "^用户 \"(.+)\" 下单购买:?$", (state, args, table) ->
+                CompletableFuture.runAsync(() -> state.put("order",
+                    orderService.createOrderWithMultipleItems(userName(state, args.get(0)), rows(table))), workers))
+            .bind("积分抵扣", "^使用积分 (\\d+) 分抵扣$", (state, args, table) ->
+                CompletableFuture.runAsync(() ->
+                    orderService.applyPointsDeduction(state.get("order"), Integer.parseInt(args.get(0))), workers))
+            .bind("完成支付", "^用户完成支付$", (state, args, table) ->
+                orderService.completePaymentAsync(state.<Order>get("order")))
+            .bind("取消订单", "^用户取消订单$", (state, args, table) ->
+                CompletableFuture.runAsync(() -> orderService.cancelOrder(state.get("order")), workers))
+
+            // ==================== 用户注册 ====================
+            .bind("填写注册信息", "^用户填写注册信息:?$", (state, args, table) -> {
+                for (Map<String, String> row : rows(table)) {
+                    switch (row.get("字段")) {
+                        case "邮箱" -> state.put("email", uniqueEmail(state, row.get("值")));
+                        case "用户名" -> state.put("username", row.get("值") + state.getIteration());
+                        case "密码" -> state.put("password", row.get("值"));
+                        default -> { }
+                    }
+                }
+                return null;
+            })
+            .bind("填写无效邮箱", "^用户填写无效邮箱 \"(.+)\"$", (state, args, table) -> {
+                state.put("email", args.get(0));
+                return null;
+            })
+            .bind("填写密码", "^用户填写密码 \"(.+)\"$", (state, args, table) -> {
+                state.put("password", args.get(0));
+                return null;
+            })
+            .bind("提交注册", "^用户点击\"注册\"按钮$", (state, args, table) -> register(state,
+                state.get("email") != null ? state.get("email") : uniqueEmail(state, "load@example.com")))
+            .bind("预置已注册用户", "^系统中已存在用户 \"(.+)\"$", (state, args, table) -> {
+                String email = uniqueEmail(state, args.get(0));
+                state.put("email", email);
+                return register(state, email);
+            })
+            .bind("重复邮箱注册", "^用户尝试用邮箱 \"(.+)\" 注册$", (state, args, table) ->
+                register(state, state.get("email") != null ? state.get("email") : args.get(0)))
+            .bind("验证邮箱", "^用户点击验证邮件中的链接$", (state, args, table) ->
+                get("/api/v1/users/verify-email?token=load-" + state.getIteration()))
+            .bind("频繁注册", "^该IP再次尝试注册$", (state, args, table) ->
+                register(state, uniqueEmail(state, "ratelimit@example.com")));
+    }
+
+    // ==================== 外部系统 Mock ====================
+
+    private void stubExternalSystems() {
+        when(inventoryService.checkInventory(anyString(), anyInt())).thenAnswer(delayed(invocation ->
+            InventoryCheckResult.builder()
+                .productCode(invocation.getArgument(0))
+                .sufficient(true)
+                .available(1_000_000)
+                .build()));
+        when(inventoryService.lockInventory(anyString(), anyInt(), anyString())).thenAnswer(delayed(invocation -> true));
+        doAnswer(delayed(invocation -> null)).when(inventoryService).releaseInventory(anyString());
+        doAnswer(delayed(invocation -> null)).when(inventoryService).deductInventory(anyString());
+
+        when(paymentGateway.createPayment(any(BigDecimal.class), anyString())).thenAnswer(delayed(invocation ->
+            PaymentOrder.builder()
+                .paymentId("PAY-" + invocation.getArgument(1))
+                .orderNo(invocation.getArgument(1))
+                .status(PaymentStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build()));
+        when(paymentGateway.queryPaymentStatus(anyString())).thenAnswer(delayed(invocation -> PaymentStatus.SUCCESS));
+        when(paymentGateway.refund(anyString())).thenAnswer(delayed(invocation -> true));
+
+        when(smsService.sendSms(anyString(), anyString())).thenAnswer(delayed(invocation ->
+            SmsResponse.builder().code(0).message("success").messageId("SMS-LOAD").build()));
+
+        when(memberService.getPoints(anyString())).thenAnswer(delayed(invocation -> 1_000_000));
+        when(memberService.applyPointsAdjustments(anyList())).thenAnswer(delayed(invocation ->
+            invocation.<List<PointsAdjustment>>getArgument(0).stream()
+                .map(adjustment -> PointsAdjustmentResult.succeeded(adjustment.getIdempotencyKey()))
+                .toList()));
+
+        when(emailService.sendVerificationEmails(anyList())).thenAnswer(delayed(invocation -> List.of()));
+        when(rateLimitService.isAllowed(anyString(), anyString(), anyInt(), any())).thenReturn(true);
+    }
+
+    /**
+     * 固定延迟后返回，模拟外部系统的网络往返
+     */
+    private <T> Answer<T> delayed(Answer<T> answer) {
+        return invocation -> {
+            Thread.sleep(stubLatency.toMillis());
+            return answer.answer(invocation);
+        };
+    }
+
+    // ==================== 请求 ====================
+
+    private CompletableFuture<HttpResponse<String>> submitChangeOrder(
+            ScenarioState state, String productName, String region, String adjustmentType, BigDecimal amount) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("productCode", PRODUCT_CODES.get(productName));
+        body.put("productName", productName);
+        body.put("specification", "大杯");
+        body.put("targetRegion", region);
+        body.put("adjustmentType", adjustmentType);
+        body.put("adjustmentAmount", amount);
+        body.put("effectiveDate", LocalDate.now().plusDays(1).atStartOfDay().toString());
+        body.put("changeReason", "市场调整");
+        body.put("createdBy", "load-test");
+        body.put("affectedStoreIds", storeIds(state, region));
+
+        return post("/api/v1/pricing/change-orders", body).thenApply(response -> {
+            if (response.statusCode() == 200) {
+                state.put("changeOrderNo", readField(response.body(), "orderNo"));
+            }
+            return response;
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> register(ScenarioState state, String email) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("email", email);
+        body.put("username", state.get("username") != null ? state.get("username") : "load" + state.getIteration());
+        body.put("password", state.get("password") != null ? state.get("password") : "LoadPass123!");
+        return post("/api/v1/users/register", body);
+    }
+
+    private CompletableFuture<HttpResponse<String>> get(String path) {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private CompletableFuture<HttpResponse<String>> post(String path, Object body) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(publisher));
+    }
+
+    /**
+     * 5xx 计为失败，4xx 是场景中预期的业务拒绝
+     */
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest.Builder request) {
+        return client.sendAsync(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+            .thenApply(response -> {
+                if (response.statusCode() >= 500) {
+                    throw new IllegalStateException("HTTP " + response.statusCode() + " " + response.uri().getPath());
+                }
+                return response;
+            });
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // ==================== 工具方法 ====================
+
+    /**
+     * 数据表转为按表头取值的行
+     */
+    private static List<Map<String, String>> rows(List<List<String>> table) {
+        if (table.isEmpty()) {
+            return List.of();
+        }
+        List<String> header = table.get(0);
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (List<String> cells : table.subList(1, table.size())) {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), cells.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Long> storeIds(ScenarioState state, String region) {
+        Map<String, Integer> storeCounts = state.get("storeCounts");
+        int count = storeCounts != null ? storeCounts.getOrDefault(region, 100) : 100;
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    private static BigDecimal yuan(String amount) {
+        return new BigDecimal(amount.replace("元", "").trim());
+    }
+
+    /**
+     * 每个场景实例使用不同的邮箱，避免成功注册的场景变成重复注册
+     */
+    private static String uniqueEmail(ScenarioState state, String email) {
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at) + "+" + state.getIteration() + email.substring(at);
+    }
+
+    private static String userName(ScenarioState state, String userName) {
+        return userName + "-" + state.getIteration();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private String readField(String json, String field) {
+        try {
+            JsonNode node = objectMapper.readTree(json).get(field);
+            return node == null ? null : node.asText();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("响应解析失败: " + json, e);
+        }
+    }
+
+    private static Properties loadBudgets() {
+        Properties budgets = new Properties();
+        try (InputStream source = BehaviorLoadTest.class.getClassLoader().getResourceAsStream(BUDGETS)) {
+            if (source != null) {
+                budgets.load(new InputStreamReader(source, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return budgets;
+    }
+}
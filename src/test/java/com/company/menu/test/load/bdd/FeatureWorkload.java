@@ -0,0 +1,103 @@
+package com.company.menu.test.load.bdd;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleStepArgument;
+import io.cucumber.messages.types.PickleTable;
+import io.cucumber.messages.types.PickleTableCell;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BDD 场景负载定义
+ *
+ * 将 behaviors 下的 .feature 文件解析为场景（含背景步骤，场景大纲按例子展开），
+ * 压测直接复用与功能测试相同的业务行为描述。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public final class FeatureWorkload {
+
+    private FeatureWorkload() {
+    }
+
+    /**
+     * 场景
+     *
+     * @param feature feature 文件路径
+     * @param name 场景名称
+     * @param steps 步骤（按执行顺序）
+     */
+    public record Scenario(String feature, String name, List<Step> steps) {
+    }
+
+    /**
+     * 步骤
+     *
+     * @param text 步骤文本（不含关键字，场景大纲已代入例子）
+     * @param table 数据表，没有时为空列表
+     */
+    public record Step(String text, List<List<String>> table) {
+    }
+
+    /**
+     * 从 classpath 加载 feature 文件
+     *
+     * @param resources classpath 路径，如 behaviors/menu/price_update.feature
+     * @return 所有场景
+     */
+    public static List<Scenario> load(List<String> resources) {
+        GherkinParser parser = GherkinParser.builder()
+            .includeSource(false)
+            .includeGherkinDocument(false)
+            .includePickles(true)
+            .build();
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String resource : resources) {
+            try (InputStream source = FeatureWorkload.class.getClassLoader().getResourceAsStream(resource)) {
+                if (source == null) {
+                    throw new IllegalArgumentException("找不到 feature 文件: " + resource);
+                }
+                parser.parse(resource, source).forEach(envelope -> {
+                    envelope.getParseError().ifPresent(error -> {
+                        throw new IllegalStateException("feature 文件解析失败: " + resource + " - " + error.getMessage());
+                    });
+                    envelope.getPickle().map(pickle -> toScenario(resource, pickle)).ifPresent(scenarios::add);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取 feature 文件失败: " + resource, e);
+            }
+        }
+        return scenarios;
+    }
+
+    private static Scenario toScenario(String feature, Pickle pickle) {
+        List<Step> steps = pickle.getSteps().stream()
+            .map(FeatureWorkload::toStep)
+            .toList();
+        return new Scenario(feature, pickle.getName(), steps);
+    }
+
+    private static Step toStep(PickleStep step) {
+        List<List<String>> table = step.getArgument()
+            .flatMap(PickleStepArgument::getDataTable)
+            .map(FeatureWorkload::toRows)
+            .orElse(List.of());
+        return new Step(step.getText(), table);
+    }
+
+    private static List<List<String>> toRows(PickleTable table) {
+        return table.getRows().stream()
+            .map(row -> row.getCells().stream().map(PickleTableCell::getValue).toList())
+            .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.company.menu.test.load.bdd;
+
+import com.company.menu.test.load.bdd.StepBindings.BoundStep;
+import com.company.menu.test.load.bdd.StepBindings.ScenarioState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型负载生成
+ *
+ * 按目标到达率（每秒场景数）启动场景实例，与已启动的场景是否完成无关，
+ * 被测系统变慢时请求继续按计划到达，排队时间计入延迟，不会因压测端等待而掩盖（coordinated omission）。
+ *
+ * - 场景按 feature 中的顺序轮流启动，同一场景实例内步骤按顺序执行，某一步失败后该实例结束
+ * - 每个实例第一步的耗时从计划到达时刻开始计算
+ * - 在途实例超过上限时新到达的实例直接记为丢弃，说明系统已无法承受目标到达率
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class OpenModelLoadGenerator {
+
+    static final String SCENARIO_PREFIX = "场景: ";
+    static final String DROPPED = "丢弃的场景";
+
+    private final List<BoundScenario> scenarios;
+    private final int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong iterations = new AtomicLong();
+
+    /**
+     * 绑定后的场景
+     *
+     * @param name 场景名称
+     * @param steps 已绑定的步骤，未绑定的步骤已跳过
+     */
+    public record BoundScenario(String name, List<BoundStep> steps) {
+    }
+
+    /**
+     * @param workload 场景
+     * @param bindings 步骤绑定
+     * @param maxInFlight 在途场景实例上限
+     */
+    public OpenModelLoadGenerator(List<FeatureWorkload.Scenario> workload, StepBindings bindings, int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.scenarios = new ArrayList<>();
+
+        for (FeatureWorkload.Scenario scenario : workload) {
+            List<BoundStep> steps = new ArrayList<>();
+            for (FeatureWorkload.Step step : scenario.steps()) {
+                Optional<BoundStep> bound = bindings.resolve(step);
+                if (bound.isPresent()) {
+                    steps.add(bound.get());
+                } else {
+                    log.debug("压测跳过未绑定的步骤 - 场景: {}, 步骤: {}", scenario.name(), step.text());
+                }
+            }
+            if (steps.isEmpty()) {
+                log.info("场景没有可执行的步骤，不参与压测 - {}: {}", scenario.feature(), scenario.name());
+            } else {
+                scenarios.add(new BoundScenario(scenario.name(), List.copyOf(steps)));
+            }
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("没有可执行的场景");
+        }
+    }
+
+    public List<BoundScenario> getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * 按目标到达率运行，等待所有已启动的场景实例结束
+     *
+     * @param arrivalsPerSecond 每秒启动的场景实例数
+     * @param duration 持续时间
+     * @param recorder 延迟统计
+     * @return 启动的场景实例数（含丢弃）
+     */
+    public long run(double arrivalsPerSecond, Duration duration, StepLatencyRecorder recorder) {
+        long interval = (long) (1_000_000_000L / arrivalsPerSecond);
+        long arrivals = (long) (duration.toNanos() / (double) interval);
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (long arrival = 0; arrival < arrivals; arrival++) {
+            long intended = start + arrival * interval;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            BoundScenario scenario = scenarios.get((int) (arrival % scenarios.size()));
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                recorder.record(DROPPED, 0, true);
+                continue;
+            }
+
+            ScenarioState state = new ScenarioState(iterations.incrementAndGet());
+            CompletableFuture<Void> instance = runSteps(scenario, 0, state, intended, recorder)
+                .handle((result, error) -> {
+                    recorder.record(SCENARIO_PREFIX + scenario.name(), System.nanoTime() - intended, error != null);
+                    inFlight.decrementAndGet();
+                    return null;
+                });
+            running.add(instance);
+        }
+
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        return arrivals;
+    }
+
+    private CompletableFuture<Void> runSteps(
+            BoundScenario scenario, int index, ScenarioState state, long startNanos, StepLatencyRecorder recorder) {
+        if (index == scenario.steps().size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        BoundStep step = scenario.steps().get(index);
+        CompletableFuture<?> result;
+        try {
+            result = step.run(state);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        if (result == null) {
+            // 仅修改场景状态的步骤，等待时间计入下一个请求
+            return runSteps(scenario, index + 1, state, startNanos, recorder);
+        }
+
+        return result
+            .handle((value, error) -> {
+                recorder.record(step.label(), System.nanoTime() - startNanos, error != null);
+                if (error != null) {
+                    log.debug("压测步骤失败 - 场景: {}, 步骤: {}", scenario.name(), step.label(), error);
+                }
+                return error;
+            })
+            .thenCompose(error -> error == null
+                ? runSteps(scenario, index + 1, state, System.nanoTime(), recorder)
+                : CompletableFuture.failedFuture(error));
+    }
+}
@@ -0,0 +1,126 @@
+package com.company.menu.test.load.bdd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 压测步骤绑定
+ *
+ * 步骤文本到负载动作的映射，作用同 Cucumber 的 Step Definitions，
+ * 但动作只发起请求、不做断言（结果校验由功能测试负责），并返回异步结果以便计时。
+ * 同一绑定的所有步骤（如场景大纲的各个例子）汇总为一个统计项。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class StepBindings {
+
+    private final List<Binding> bindings = new ArrayList<>();
+
+    /**
+     * 负载动作
+     */
+    @FunctionalInterface
+    public interface StepAction {
+
+        /**
+         * 执行步骤
+         *
+         * @param state 当前场景实例的状态
+         * @param args 步骤文本中捕获的参数
+         * @param table 数据表
+         * @return 请求结果；仅修改场景状态、不发起请求的步骤返回 null，不计入统计
+         */
+        CompletableFuture<?> run(ScenarioState state, List<String> args, List<List<String>> table);
+    }
+
+    /**
+     * 已绑定的步骤
+     *
+     * @param label 统计项名称
+     * @param args 捕获的参数
+     * @param table 数据表
+     * @param action 负载动作
+     */
+    public record BoundStep(String label, List<String> args, List<List<String>> table, StepAction action) {
+
+        public CompletableFuture<?> run(ScenarioState state) {
+            return action.run(state, args, table);
+        }
+    }
+
+    private record Binding(String label, Pattern pattern, StepAction action) {
+    }
+
+    /**
+     * 注册绑定
+     *
+     * @param label 统计项名称
+     * @param regex 匹配完整步骤文本的正则
+     * @param action 负载动作
+     * @return this
+     */
+    public StepBindings bind(String label, String regex, StepAction action) {
+        bindings.add(new Binding(label, Pattern.compile(regex), action));
+        return this;
+    }
+
+    /**
+     * 查找步骤的绑定
+     *
+     * @param step 场景步骤
+     * @return 第一个匹配的绑定；没有时为空（步骤在压测中跳过）
+     */
+    public Optional<BoundStep> resolve(FeatureWorkload.Step step) {
+        for (Binding binding : bindings) {
+            Matcher matcher = binding.pattern().matcher(step.text());
+            if (matcher.matches()) {
+                List<String> args = new ArrayList<>(matcher.groupCount());
+                for (int i = 1; i <= matcher.groupCount(); i++) {
+                    args.add(matcher.group(i));
+                }
+                return Optional.of(new BoundStep(binding.label(), List.copyOf(args), step.table(), binding.action()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 场景实例状态，在同一场景的步骤之间传递（如变更单号、订单）
+     *
+     * 同一场景实例的步骤按顺序执行，不会并发访问
+     */
+    public static class ScenarioState {
+
+        private final long iteration;
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        public ScenarioState(long iteration) {
+            this.iteration = iteration;
+        }
+
+        /**
+         * 场景实例序号，用于生成不冲突的邮箱、用户名等
+         */
+        public long getIteration() {
+            return iteration;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String key) {
+            return (T) values.get(key);
+        }
+
+        public void put(String key, Object value) {
+            values.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.company.menu.test.load.bdd;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按步骤统计延迟
+ *
+ * 记录每次执行的耗时（微秒）和失败次数，结束后计算分位数
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class StepLatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    /**
+     * 步骤统计结果
+     *
+     * @param label 统计项
+     * @param count 执行次数
+     * @param errors 失败次数
+     * @param p50 P50（毫秒）
+     * @param p95 P95（毫秒）
+     * @param p99 P99（毫秒）
+     * @param max 最大值（毫秒）
+     */
+    public record Summary(String label, int count, int errors, double p50, double p95, double p99, double max) {
+    }
+
+    /**
+     * 记录一次执行
+     *
+     * @param label 统计项
+     * @param elapsedNanos 耗时
+     * @param failed 是否失败
+     */
+    public void record(String label, long elapsedNanos, boolean failed) {
+        samples.computeIfAbsent(label, key -> new Samples())
+            .add(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), failed);
+    }
+
+    /**
+     * 各统计项结果，按名称排序
+     */
+    public List<Summary> summarize() {
+        return samples.entrySet().stream()
+            .map(entry -> entry.getValue().summarize(entry.getKey()))
+            .sorted(Comparator.comparing(Summary::label))
+            .toList();
+    }
+
+    /**
+     * 格式化为报告表格
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%n%-24s %8s %6s %10s %10s %10s %10s%n",
+            "步骤", "次数", "失败", "P50(ms)", "P95(ms)", "P99(ms)", "最大(ms)"));
+        for (Summary summary : summarize()) {
+            report.append(String.format("%-24s %8d %6d %10.1f %10.1f %10.1f %10.1f%n",
+                summary.label(), summary.count(), summary.errors(),
+                summary.p50(), summary.p95(), summary.p99(), summary.max()));
+        }
+        return report.toString();
+    }
+
+    private static final class Samples {
+
+        private long[] micros = new long[1024];
+        private int count;
+        private int errors;
+
+        private synchronized void add(long elapsedMicros, boolean failed) {
+            if (count == micros.length) {
+                micros = Arrays.copyOf(micros, count * 2);
+            }
+            micros[count++] = elapsedMicros;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        private synchronized Summary summarize(String label) {
+            long[] sorted = Arrays.copyOf(micros, count);
+            Arrays.sort(sorted);
+            return new Summary(label, count, errors,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1000.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+    }
+}
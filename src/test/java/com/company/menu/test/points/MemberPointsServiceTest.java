@@ -0,0 +1,319 @@
+package com.company.menu.test.points;
+
+import com.company.menu.domain.MemberPointsJournal;
+import com.company.menu.domain.MemberPointsJournal.JournalStatus;
+import com.company.menu.integration.MemberService;
+import com.company.menu.integration.dto.PointsAdjustment;
+import com.company.menu.integration.dto.PointsAdjustmentResult;
+import com.company.menu.repository.MemberPointsJournalRepository;
+import com.company.menu.service.MemberPointsService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 会员积分服务测试
+ *
+ * 对应 BDD 场景: "多个外部服务协同工作" - 结账时使用积分抵扣，积分扣减异步回写会员系统
+ * - 调用方事务回滚时撤销本地余额的调整，同一幂等键可重新扣减
+ * - 同一幂等键重复调用只调整一次
+ * - 会员系统去重时按原幂等键重试；不去重时每条调整只发送一次，失败或结果未知时标记失败
+ * - 调整标记失败后，本地余额在调整全部结清后从会员系统重新加载
+ *
+ * 积分日志仓库以内存实现代替，写入随事务回滚撤销；事务管理器只维护事务同步，不连接数据库。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+class MemberPointsServiceTest {
+
+    private static final String USER = "13800138000";
+
+    private final MemberService memberService = mock(MemberService.class);
+    private final InMemoryJournal journal = new InMemoryJournal();
+    private final PlatformTransactionManager transactionManager = new SynchronizingTransactionManager();
+
+    private final MemberPointsService service = newService(Duration.ofMinutes(5));
+
+    @Test
+    void revertsLocalBalanceWhenCallerTransactionRollsBack() {
+        when(memberService.getPoints(USER)).thenReturn(100);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(service.deductPoints(USER, 30, "order-1")).isTrue();
+            assertThat(service.getPoints(USER)).isEqualTo(70);
+            // 下单事务失败
+            status.setRollbackOnly();
+        });
+
+        assertThat(service.getPoints(USER)).isEqualTo(100);
+        assertThat(journal.entries()).isEmpty();
+
+        // 重新下单时同一幂等键再次扣减
+        assertThat(service.deductPoints(USER, 30, "order-1")).isTrue();
+        assertThat(service.getPoints(USER)).isEqualTo(70);
+        assertThat(journal.entries()).singleElement()
+            .satisfies(entry -> assertThat(entry.getStatus()).isEqualTo(JournalStatus.PENDING));
+    }
+
+    @Test
+    void adjustsOnceForRepeatedIdempotencyKey() {
+        when(memberService.getPoints(USER)).thenReturn(100);
+        when(memberService.isIdempotent()).thenReturn(true);
+        when(memberService.applyPointsAdjustments(anyList())).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+
+        assertThat(service.deductPoints(USER, 30, "order-1")).isTrue();
+        assertThat(service.deductPoints(USER, 30, "order-1")).isTrue();
+        service.addPoints(USER, 10, "refund-1");
+        service.addPoints(USER, 10, "refund-1");
+
+        assertThat(service.getPoints(USER)).isEqualTo(80);
+        assertThat(journal.entries()).hasSize(2);
+
+        service.flushJournal();
+
+        assertThat(sentKeys()).containsExactly(List.of("order-1", "refund-1"));
+        assertThat(journal.entries()).allSatisfy(entry -> assertThat(entry.getStatus()).isEqualTo(JournalStatus.APPLIED));
+        assertThat(service.getPoints(USER)).isEqualTo(80);
+        verify(memberService, times(1)).getPoints(USER);
+    }
+
+    @Test
+    void retriesWithSameKeyWhenMemberSystemIsIdempotent() {
+        when(memberService.getPoints(USER)).thenReturn(100);
+        when(memberService.isIdempotent()).thenReturn(true);
+        when(memberService.applyPointsAdjustments(anyList()))
+            .thenThrow(new IllegalStateException("会员系统超时"))
+            .thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        service.deductPoints(USER, 30, "order-1");
+
+        service.flushJournal();
+
+        assertThat(journal.entries()).singleElement().satisfies(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(JournalStatus.PENDING);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+            assertThat(entry.getFailureReason()).isEqualTo("会员系统超时");
+        });
+
+        service.flushJournal();
+
+        assertThat(journal.entries()).singleElement().satisfies(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(JournalStatus.APPLIED);
+            assertThat(entry.getAttempts()).isEqualTo(2);
+        });
+        assertThat(sentKeys()).containsExactly(List.of("order-1"), List.of("order-1"));
+        // 结清的调整已计入本地余额，不重新加载
+        assertThat(service.getPoints(USER)).isEqualTo(70);
+        verify(memberService, times(1)).getPoints(USER);
+    }
+
+    @Test
+    void sendsOnlyOnceWhenMemberSystemIsNotIdempotent() {
+        when(memberService.getPoints(USER)).thenReturn(100);
+        when(memberService.applyPointsAdjustments(anyList())).thenThrow(new IllegalStateException("会员系统超时"));
+        service.deductPoints(USER, 30, "order-1");
+
+        service.flushJournal();
+        service.flushJournal();
+
+        assertThat(journal.entries()).singleElement().satisfies(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(JournalStatus.FAILED);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+        });
+        verify(memberService, times(1)).applyPointsAdjustments(anyList());
+    }
+
+    @Test
+    void marksEntryWithUnknownResultFailedWithoutResending() {
+        // 上次回写已提交尝试次数，发送途中节点退出
+        journal.insert(MemberPointsJournal.builder()
+            .idempotencyKey("order-1")
+            .userId(USER)
+            .points(-30)
+            .status(JournalStatus.PENDING)
+            .attempts(1)
+            .createdAt(LocalDateTime.now())
+            .build());
+
+        service.flushJournal();
+
+        assertThat(journal.entries()).singleElement().satisfies(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(JournalStatus.FAILED);
+            assertThat(entry.getFailureReason()).isEqualTo("回写结果未知，需与会员系统对账");
+        });
+        verify(memberService, never()).applyPointsAdjustments(anyList());
+    }
+
+    @Test
+    void reloadsBalanceAfterFailedAdjustmentIsSettled() {
+        when(memberService.getPoints(USER)).thenReturn(100);
+        when(memberService.applyPointsAdjustments(anyList())).thenAnswer(invocation -> {
+            List<PointsAdjustment> adjustments = invocation.getArgument(0);
+            return adjustments.stream()
+                .map(adjustment -> PointsAdjustmentResult.failed(adjustment.getIdempotencyKey(), "会员系统拒绝"))
+                .toList();
+        });
+        service.deductPoints(USER, 30, "order-1");
+        assertThat(service.getPoints(USER)).isEqualTo(70);
+
+        service.flushJournal();
+
+        // 扣减未生效，重新加载为会员系统的余额
+        assertThat(service.getPoints(USER)).isEqualTo(100);
+        verify(memberService, times(2)).getPoints(USER);
+    }
+
+    @Test
+    void keepsLocalBalanceWhileAdjustmentsArePending() {
+        MemberPointsService expiring = newService(Duration.ZERO);
+        when(memberService.getPoints(USER)).thenReturn(100);
+        expiring.deductPoints(USER, 30, "order-1");
+
+        // 本地余额已过期，但有未回写的调整时不重新加载
+        assertThat(expiring.getPoints(USER)).isEqualTo(70);
+        verify(memberService, times(1)).getPoints(USER);
+    }
+
+    private MemberPointsService newService(Duration ttl) {
+        return new MemberPointsService(memberService, journal.repository, transactionManager, ttl, 200, 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> sentKeys() {
+        ArgumentCaptor<List<PointsAdjustment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(memberService, atLeastOnce()).applyPointsAdjustments(captor.capture());
+        return captor.getAllValues().stream()
+            .map(batch -> batch.stream().map(PointsAdjustment::getIdempotencyKey).toList())
+            .toList();
+    }
+
+    private static List<PointsAdjustmentResult> succeeded(List<PointsAdjustment> adjustments) {
+        return adjustments.stream()
+            .map(adjustment -> PointsAdjustmentResult.succeeded(adjustment.getIdempotencyKey()))
+            .toList();
+    }
+
+    /**
+     * 内存中的积分日志，事务回滚时撤销本事务写入的记录
+     */
+    private static final class InMemoryJournal {
+
+        private final Map<String, MemberPointsJournal> rows = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+        private final MemberPointsJournalRepository repository = mock(MemberPointsJournalRepository.class);
+
+        private InMemoryJournal() {
+            when(repository.existsByIdempotencyKey(anyString()))
+                .thenAnswer(invocation -> rows.containsKey(invocation.<String>getArgument(0)));
+            when(repository.save(any(MemberPointsJournal.class)))
+                .thenAnswer(invocation -> save(invocation.getArgument(0)));
+            when(repository.saveAll(any())).thenAnswer(invocation -> {
+                List<MemberPointsJournal> saved = new ArrayList<>();
+                invocation.<Iterable<MemberPointsJournal>>getArgument(0).forEach(entry -> saved.add(save(entry)));
+                return saved;
+            });
+            when(repository.findByStatusOrderByIdAsc(any(JournalStatus.class), any(Pageable.class)))
+                .thenAnswer(invocation -> entries().stream()
+                    .filter(entry -> entry.getStatus() == invocation.getArgument(0))
+                    .limit(invocation.<Pageable>getArgument(1).getPageSize())
+                    .toList());
+            when(repository.countByUserIdAndStatus(anyString(), any(JournalStatus.class)))
+                .thenAnswer(invocation -> entries().stream()
+                    .filter(entry -> entry.getUserId().equals(invocation.getArgument(0)))
+                    .filter(entry -> entry.getStatus() == invocation.getArgument(1))
+                    .count());
+            when(repository.sumPendingPoints(anyString()))
+                .thenAnswer(invocation -> entries().stream()
+                    .filter(entry -> entry.getUserId().equals(invocation.getArgument(0)))
+                    .filter(entry -> entry.getStatus() == JournalStatus.PENDING)
+                    .mapToLong(MemberPointsJournal::getPoints)
+                    .sum());
+        }
+
+        private void insert(MemberPointsJournal entry) {
+            save(entry);
+        }
+
+        private List<MemberPointsJournal> entries() {
+            return rows.values().stream()
+                .sorted(Comparator.comparing(MemberPointsJournal::getId))
+                .toList();
+        }
+
+        private MemberPointsJournal save(MemberPointsJournal entry) {
+            boolean inserted = entry.getId() == null;
+            if (inserted) {
+                entry.setId(ids.incrementAndGet());
+            }
+            rows.put(entry.getIdempotencyKey(), entry);
+
+            if (inserted && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_ROLLED_BACK) {
+                            rows.remove(entry.getIdempotencyKey());
+                        }
+                    }
+                });
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * 只维护事务同步的事务管理器，已有事务时加入
+     */
+    private static final class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
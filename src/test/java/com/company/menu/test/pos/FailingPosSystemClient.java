@@ -0,0 +1,63 @@
+package com.company.menu.test.pos;
+
+import com.company.menu.integration.PosSystemClient;
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 可按需失败的 POS 客户端
+ *
+ * 对应 BDD 场景: "价格调整异常回滚" - 执行过程中门店更新失败
+ * - 指定的门店推送失败，其他门店推送成功
+ * - 记录最近一次批量推送，验证回滚推送的门店和价格
+ *
+ * 由测试切片 MenuModule 注册为主 POS 客户端，每个场景开始前重置。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class FailingPosSystemClient implements PosSystemClient {
+
+    public static final String FAILURE_MESSAGE = "POS 连接超时";
+
+    private final Set<Long> failingStores = ConcurrentHashMap.newKeySet();
+    private volatile List<StorePriceUpdate> lastBatch = List.of();
+
+    @Override
+    public List<PosUpdateResult> updatePrices(List<StorePriceUpdate> updates) {
+        lastBatch = List.copyOf(updates);
+        return updates.stream()
+            .map(update -> failingStores.contains(update.getStoreId())
+                ? PosUpdateResult.failed(update.getStoreId(), FAILURE_MESSAGE)
+                : PosUpdateResult.succeeded(update.getStoreId()))
+            .toList();
+    }
+
+    /**
+     * 指定推送失败的门店
+     */
+    public void failStores(Collection<Long> storeIds) {
+        failingStores.addAll(storeIds);
+    }
+
+    /**
+     * 所有门店恢复推送成功，清空推送记录
+     */
+    public void reset() {
+        failingStores.clear();
+        lastBatch = List.of();
+    }
+
+    /**
+     * 最近一次批量推送
+     */
+    public List<StorePriceUpdate> lastBatch() {
+        return lastBatch;
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.menu.test.pos;
+
+import com.company.menu.integration.HttpPosSystemClient.BatchRequest;
+import com.company.menu.integration.HttpPosSystemClient.BatchResponse;
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地 POS 桩服务
+ *
+ * 实现 HttpPosSystemClient 使用的批量价格接口，用于测试和压测:
+ * - 可配置每个请求的处理延迟，模拟 POS 响应时间
+ * - 可指定失败的门店，模拟"门店价格同步失败"
+ * - 统计收到的请求数和门店数
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class PosStubServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    private final Set<Long> failingStores = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong storeCount = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+
+    /**
+     * @param workerThreads 处理请求的线程数
+     */
+    public PosStubServer(int workerThreads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.workers = Executors.newFixedThreadPool(workerThreads);
+        this.server.setExecutor(workers);
+        this.server.createContext("/stores/prices/batch", this::handleBatch);
+    }
+
+    public PosStubServer start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void failStore(Long storeId) {
+        failingStores.add(storeId);
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getStoreCount() {
+        return storeCount.get();
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            BatchRequest request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = objectMapper.readValue(body, BatchRequest.class);
+            }
+
+            requestCount.incrementAndGet();
+            storeCount.addAndGet(request.getStores().size());
+            sleep(latency);
+
+            List<PosUpdateResult> results = request.getStores().stream()
+                .map(update -> failingStores.contains(update.getStoreId())
+                    ? PosUpdateResult.failed(update.getStoreId(), "门店 POS 离线")
+                    : PosUpdateResult.succeeded(update.getStoreId()))
+                .toList();
+
+            byte[] response = objectMapper.writeValueAsBytes(new BatchResponse(results));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
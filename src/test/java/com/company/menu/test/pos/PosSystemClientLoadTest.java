@@ -0,0 +1,84 @@
+package com.company.menu.test.pos;
+
+import com.company.menu.integration.HttpPosSystemClient;
+import com.company.menu.integration.dto.PosUpdateResult;
+import com.company.menu.integration.dto.StorePriceUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * POS 客户端压测
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效" - 所有门店价格应更新
+ *
+ * 桩服务每个请求固定延迟 20ms，模拟菜单刷新时向全部门店推送多产品价格，
+ * 验证批量 + 多请求在途的推送方式能持续达到每秒数千门店。
+ *
+ * 执行方式: mvn test -Dtest=PosSystemClientLoadTest -Dpos.load-test=true
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "pos.load-test", matches = "true")
+public class PosSystemClientLoadTest {
+
+    private static final int STORES = 2_000;
+    private static final int ROUNDS = 10;
+    private static final Map<String, BigDecimal> MENU = Map.of(
+        "LATTE-GRANDE", new BigDecimal("38.00"),
+        "AMERICANO-GRANDE", new BigDecimal("32.00"),
+        "MOCHA-GRANDE", new BigDecimal("42.00"));
+
+    @Test
+    void sustainsThousandsOfStoreUpdatesPerSecond() throws Exception {
+        try (PosStubServer stub = new PosStubServer(64).start()) {
+            stub.setLatency(Duration.ofMillis(20));
+            stub.failStore(7L);
+
+            HttpPosSystemClient client = new HttpPosSystemClient(
+                new ObjectMapper(),
+                stub.getBaseUrl(),
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(5),
+                50,
+                64);
+
+            List<StorePriceUpdate> updates = LongStream.rangeClosed(1, STORES)
+                .mapToObj(storeId -> StorePriceUpdate.builder().storeId(storeId).prices(MENU).build())
+                .toList();
+
+            // 预热连接
+            client.updatePrices(updates);
+
+            long started = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                List<PosUpdateResult> results = client.updatePrices(updates);
+
+                assertThat(results).hasSize(STORES);
+                assertThat(results).filteredOn(result -> !result.isSuccess())
+                    .extracting(PosUpdateResult::getStoreId)
+                    .containsExactly(7L);
+            }
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            double storesPerSecond = STORES * ROUNDS / seconds;
+
+            log.info("POS 推送压测 - 门店更新: {}, 耗时: {}s, 吞吐: {}/s, 请求数: {}",
+                STORES * ROUNDS, String.format("%.2f", seconds),
+                String.format("%.0f", storesPerSecond), stub.getRequestCount());
+
+            assertThat(storesPerSecond).isGreaterThan(2_000);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.company.menu.test.pricing;
+
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.repository.PriceHistoryRepository;
+import com.company.menu.service.PriceResolutionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 门店价格解析缓存测试
+ *
+ * 对应 BDD 场景: "门店单独定价不作为区域当前价格"、"价格变更审批通过后自动生效"
+ * - 门店价 → 所属区域价 → 全国价，取最具体的一级
+ * - 门店调整区域后按新区域解析
+ * - 未到生效时间的记录不应用，到点后由同步任务应用，重复读取不改变缓存
+ * - 按版本返回门店、区域的增量价格
+ * - 查价命中、未命中计入指标
+ *
+ * 价格历史仓库以 Mock 代替，不在事务中应用记录，写入立即生效。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+class PriceResolutionCacheTest {
+
+    private static final String LATTE = "LATTE-GRANDE";
+    private static final String MOCHA = "MOCHA-GRANDE";
+    private static final String EAST = "华东区";
+    private static final String NORTH = "华北区";
+
+    private final PriceHistoryRepository historyRepository = mock(PriceHistoryRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PriceResolutionCache cache =
+        new PriceResolutionCache(historyRepository, meterRegistry, Duration.ofMinutes(1));
+
+    @Test
+    void resolvesStoreThenRegionThenNationalPrice() {
+        cache.apply(national(1, LATTE, "30.00"));
+        cache.apply(region(2, EAST, LATTE, "32.00"));
+        cache.apply(store(3, EAST, 1001L, MOCHA, "40.00"));
+        cache.apply(store(4, EAST, 1002L, LATTE, "35.00"));
+        cache.apply(store(5, NORTH, 2001L, MOCHA, "41.00"));
+
+        assertPrice(cache.resolve(1002L, LATTE), "35.00");
+        assertPrice(cache.resolve(1001L, LATTE), "32.00");
+        assertPrice(cache.resolve(2001L, LATTE), "30.00");
+        // 未登记的门店只能解析到全国价
+        assertPrice(cache.resolve(9999L, LATTE), "30.00");
+        assertThat(cache.resolve(9999L, "AMERICANO-GRANDE")).isEmpty();
+
+        assertThat(gets("hit")).isEqualTo(3);
+        assertThat(gets("miss")).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.size").tag("cache", "price-resolution").gauge().value())
+            .isEqualTo(cache.size());
+    }
+
+    @Test
+    void storeOverrideIsNotRegionPrice() {
+        cache.apply(national(1, MOCHA, "40.00"));
+        cache.apply(store(2, EAST, 1001L, MOCHA, "45.00"));
+
+        assertPrice(cache.resolve(1001L, MOCHA), "45.00");
+        assertPrice(cache.resolveRegion(EAST, MOCHA), "40.00");
+
+        // 变更单送达门店的记录推导出区域的已执行价格
+        cache.apply(executed(3, EAST, 1002L, MOCHA, "42.00"));
+        assertPrice(cache.resolveRegion(EAST, MOCHA), "42.00");
+
+        // 更新的区域价取代较早的已执行价格
+        cache.apply(region(4, EAST, MOCHA, "43.00"));
+        assertPrice(cache.resolveRegion(EAST, MOCHA), "43.00");
+    }
+
+    @Test
+    void storeMovingRegionsResolvesPricesOfNewRegion() {
+        cache.apply(region(1, EAST, LATTE, "32.00"));
+        cache.apply(region(2, NORTH, LATTE, "31.00"));
+        cache.apply(store(3, EAST, 1001L, MOCHA, "40.00"));
+        assertPrice(cache.resolve(1001L, LATTE), "32.00");
+
+        cache.apply(store(4, NORTH, 1001L, MOCHA, "41.00"));
+
+        assertPrice(cache.resolve(1001L, LATTE), "31.00");
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(4);
+
+        // 原区域的价格变更不再影响该门店
+        cache.apply(region(5, EAST, LATTE, "33.00"));
+        assertPrice(cache.resolve(1001L, LATTE), "31.00");
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(4);
+
+        cache.apply(region(6, NORTH, LATTE, "30.00"));
+        assertPrice(cache.resolve(1001L, LATTE), "30.00");
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(6);
+    }
+
+    @Test
+    void appliesFutureDatedRecordOnSync() {
+        cache.apply(region(1, EAST, LATTE, "32.00"));
+        cache.apply(store(2, EAST, 1001L, MOCHA, "40.00"));
+
+        PriceHistory future = region(3, EAST, LATTE, "34.00");
+        future.setEffectiveTime(LocalDateTime.now().plusHours(1));
+        cache.apply(future);
+
+        assertPrice(cache.resolve(1001L, LATTE), "32.00");
+        assertThat(cache.getVersion()).isEqualTo(2);
+
+        // 到达生效时间后，同步任务从价格历史读到该记录
+        future.setEffectiveTime(LocalDateTime.now().minusSeconds(1));
+        when(historyRepository.findActivatedSince(any(), any())).thenReturn(List.of(future));
+        cache.sync();
+
+        assertPrice(cache.resolve(1001L, LATTE), "34.00");
+        assertThat(cache.getVersion()).isEqualTo(3);
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(3);
+
+        // 回看窗口内重复读到同一记录
+        cache.sync();
+        assertThat(cache.getVersion()).isEqualTo(3);
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(3);
+    }
+
+    @Test
+    void rebuildsFromActivePriceHistory() {
+        when(historyRepository.findActiveAt(any())).thenReturn(List.of(
+            store(3, EAST, 1001L, MOCHA, "45.00"),
+            national(1, LATTE, "30.00"),
+            region(2, EAST, LATTE, "32.00")));
+
+        cache.rebuild();
+
+        assertPrice(cache.resolve(1001L, LATTE), "32.00");
+        assertPrice(cache.resolve(1001L, MOCHA), "45.00");
+        assertThat(cache.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void returnsStorePricesChangedSinceVersion() {
+        cache.apply(national(1, LATTE, "30.00"));
+        cache.apply(national(2, MOCHA, "40.00"));
+        cache.apply(region(3, EAST, LATTE, "32.00"));
+        cache.apply(store(4, EAST, 1001L, MOCHA, "42.00"));
+
+        assertPrices(cache.getStorePricesSince(1001L, -1), Map.of(LATTE, "32.00", MOCHA, "42.00"));
+        long version = cache.getStoreVersion(1001L);
+        assertThat(version).isEqualTo(4);
+
+        // 门店单独定价优先，区域价变更不改变门店价格
+        cache.apply(region(5, EAST, MOCHA, "45.00"));
+        assertThat(cache.getStorePricesSince(1001L, version)).isEmpty();
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(version);
+
+        cache.apply(region(6, EAST, LATTE, "33.00"));
+        assertPrices(cache.getStorePricesSince(1001L, version), Map.of(LATTE, "33.00"));
+        assertThat(cache.getStoreVersion(1001L)).isEqualTo(6);
+    }
+
+    @Test
+    void returnsRegionPricesChangedSinceVersion() {
+        cache.apply(national(1, LATTE, "30.00"));
+        cache.apply(national(2, MOCHA, "40.00"));
+        cache.apply(region(3, EAST, LATTE, "32.00"));
+
+        assertPrices(cache.getRegionPricesSince(EAST, -1), Map.of(LATTE, "32.00", MOCHA, "40.00"));
+        long version = cache.getRegionVersion(EAST);
+        assertThat(version).isEqualTo(3);
+
+        // 门店单独定价不改变区域价格
+        cache.apply(store(4, EAST, 1001L, MOCHA, "45.00"));
+        assertThat(cache.getRegionPricesSince(EAST, version)).isEmpty();
+
+        cache.apply(executed(5, EAST, 1002L, MOCHA, "42.00"));
+        assertPrices(cache.getRegionPricesSince(EAST, version), Map.of(MOCHA, "42.00"));
+        assertThat(cache.getRegionVersion(EAST)).isEqualTo(5);
+
+        // 全国价变更计入所有区域的版本
+        cache.apply(national(6, LATTE, "29.00"));
+        assertThat(cache.getRegionVersion(NORTH)).isEqualTo(6);
+        assertPrices(cache.getRegionPricesSince(NORTH, 5), Map.of(LATTE, "29.00"));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+            .tag("cache", "price-resolution")
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+
+    private static void assertPrice(Optional<BigDecimal> actual, String expected) {
+        assertThat(actual).hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo(expected));
+    }
+
+    private static void assertPrices(Map<String, BigDecimal> actual, Map<String, String> expected) {
+        assertThat(actual).containsOnlyKeys(expected.keySet());
+        expected.forEach((productCode, price) -> assertThat(actual.get(productCode)).isEqualByComparingTo(price));
+    }
+
+    static PriceHistory national(long id, String productCode, String price) {
+        return row(id, PriceHistory.NATIONAL_REGION, null, productCode, price, null);
+    }
+
+    static PriceHistory region(long id, String regionCode, String productCode, String price) {
+        return row(id, regionCode, null, productCode, price, null);
+    }
+
+    /**
+     * 门店单独定价
+     */
+    static PriceHistory store(long id, String regionCode, Long storeId, String productCode, String price) {
+        return row(id, regionCode, storeId, productCode, price, null);
+    }
+
+    /**
+     * 变更单送达门店写入的记录
+     */
+    static PriceHistory executed(long id, String regionCode, Long storeId, String productCode, String price) {
+        return row(id, regionCode, storeId, productCode, price, "PCO-" + id);
+    }
+
+    private static PriceHistory row(
+            long id, String regionCode, Long storeId, String productCode, String price, String changeOrderNo) {
+        LocalDateTime effectiveTime = LocalDateTime.now().minusMinutes(1);
+        return PriceHistory.builder()
+            .id(id)
+            .changeOrderNo(changeOrderNo)
+            .productCode(productCode)
+            .regionCode(regionCode)
+            .regionName(regionCode)
+            .storeId(storeId)
+            .newPrice(new BigDecimal(price))
+            .effectiveTime(effectiveTime)
+            .createdAt(effectiveTime)
+            .isActive(true)
+            .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.company.menu.test.pricing;
+
+import com.company.menu.controller.MenuPricingController;
+import com.company.menu.repository.PriceHistoryRepository;
+import com.company.menu.service.PriceChangeStreamService;
+import com.company.menu.service.PriceResolutionCache;
+import com.company.menu.service.PriceSnapshotService;
+import com.company.menu.service.PriceSnapshotService.PriceSnapshot;
+import com.company.menu.service.PricingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static com.company.menu.test.pricing.PriceResolutionCacheTest.executed;
+import static com.company.menu.test.pricing.PriceResolutionCacheTest.national;
+import static com.company.menu.test.pricing.PriceResolutionCacheTest.region;
+import static com.company.menu.test.pricing.PriceResolutionCacheTest.store;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 价格快照服务测试
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效" - POS 终端和边缘缓存拉取价格快照
+ * - 不带版本时返回全量快照
+ * - 带版本时只返回该版本之后变化过的价格；版本无效或大于当前版本时退回全量
+ * - 区域快照不包含门店单独定价
+ * - 携带 If-None-Match 且版本未变化时返回 304
+ *
+ * 快照取自真实的价格解析缓存，价格历史仓库以 Mock 代替。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+class PriceSnapshotServiceTest {
+
+    private static final String LATTE = "LATTE-GRANDE";
+    private static final String MOCHA = "MOCHA-GRANDE";
+    private static final String EAST = "华东区";
+
+    private final PriceResolutionCache cache = new PriceResolutionCache(
+        mock(PriceHistoryRepository.class), new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    private final PriceSnapshotService snapshotService = new PriceSnapshotService(cache);
+    private final MenuPricingController controller = new MenuPricingController(
+        mock(PricingService.class), snapshotService, mock(PriceChangeStreamService.class));
+
+    @BeforeEach
+    void setUp() {
+        cache.apply(national(1, LATTE, "30.00"));
+        cache.apply(national(2, MOCHA, "40.00"));
+        cache.apply(region(3, EAST, LATTE, "32.00"));
+        cache.apply(store(4, EAST, 1001L, MOCHA, "45.00"));
+    }
+
+    @Test
+    void returnsFullStoreSnapshotWithoutVersion() {
+        PriceSnapshot snapshot = snapshotService.getStoreSnapshot(1001L, null);
+
+        assertThat(snapshot.scope()).isEqualTo("store:1001");
+        assertThat(snapshot.version()).isEqualTo("4");
+        assertThat(snapshot.full()).isTrue();
+        assertThat(snapshot.baseVersion()).isNull();
+        assertThat(snapshot.prices()).containsOnlyKeys(LATTE, MOCHA);
+        assertThat(snapshot.prices().get(LATTE)).isEqualByComparingTo("32.00");
+        assertThat(snapshot.prices().get(MOCHA)).isEqualByComparingTo("45.00");
+    }
+
+    @Test
+    void returnsOnlyPricesChangedSinceVersion() {
+        cache.apply(region(5, EAST, LATTE, "33.00"));
+
+        PriceSnapshot snapshot = snapshotService.getStoreSnapshot(1001L, "4");
+
+        assertThat(snapshot.version()).isEqualTo("5");
+        assertThat(snapshot.full()).isFalse();
+        assertThat(snapshot.baseVersion()).isEqualTo("4");
+        assertThat(snapshot.prices()).containsOnlyKeys(LATTE);
+        assertThat(snapshot.prices().get(LATTE)).isEqualByComparingTo("33.00");
+
+        assertThat(snapshotService.getStoreSnapshot(1001L, "5").prices()).isEmpty();
+    }
+
+    @Test
+    void fallsBackToFullSnapshotForUnknownVersion() {
+        // 大于当前版本说明数据库已重置，客户端持有的价格不可信
+        assertThat(snapshotService.getStoreSnapshot(1001L, "99").full()).isTrue();
+        assertThat(snapshotService.getStoreSnapshot(1001L, "not-a-version").full()).isTrue();
+        assertThat(snapshotService.getStoreSnapshot(1001L, "-3").prices()).containsOnlyKeys(LATTE, MOCHA);
+    }
+
+    @Test
+    void regionSnapshotExcludesStoreOverrides() {
+        PriceSnapshot snapshot = snapshotService.getRegionSnapshot(EAST, null);
+
+        assertThat(snapshot.scope()).isEqualTo("region:" + EAST);
+        assertThat(snapshot.version()).isEqualTo("3");
+        assertThat(snapshot.prices().get(LATTE)).isEqualByComparingTo("32.00");
+        assertThat(snapshot.prices().get(MOCHA)).isEqualByComparingTo("40.00");
+
+        cache.apply(executed(5, EAST, 1002L, MOCHA, "42.00"));
+
+        PriceSnapshot delta = snapshotService.getRegionSnapshot(EAST, "3");
+        assertThat(delta.version()).isEqualTo("5");
+        assertThat(delta.prices()).containsOnlyKeys(MOCHA);
+        assertThat(delta.prices().get(MOCHA)).isEqualByComparingTo("42.00");
+    }
+
+    @Test
+    void returnsNotModifiedWhenVersionMatchesIfNoneMatch() {
+        ResponseEntity<PriceSnapshot> first = controller.getStoreSnapshot(1001L, null, null);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isEqualTo("\"4\"");
+
+        ResponseEntity<PriceSnapshot> unchanged = controller.getStoreSnapshot(1001L, null, etag);
+        assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(unchanged.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(unchanged.getBody()).isNull();
+
+        // 其他门店的价格变更不改变该门店的版本
+        cache.apply(store(5, EAST, 1002L, LATTE, "35.00"));
+        assertThat(controller.getStoreSnapshot(1001L, null, etag).getStatusCode())
+            .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        cache.apply(region(6, EAST, LATTE, "33.00"));
+        ResponseEntity<PriceSnapshot> changed = controller.getStoreSnapshot(1001L, "4", etag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isEqualTo("\"6\"");
+        assertThat(changed.getBody().prices()).containsOnlyKeys(LATTE);
+    }
+
+    @Test
+    void regionSnapshotHonoursIfNoneMatch() {
+        String etag = controller.getRegionSnapshot(EAST, null, null).getHeaders().getETag();
+
+        // 门店单独定价不改变区域版本
+        cache.apply(store(5, EAST, 1002L, LATTE, "35.00"));
+        assertThat(controller.getRegionSnapshot(EAST, null, etag).getStatusCode())
+            .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        cache.apply(national(6, MOCHA, "41.00"));
+        assertThat(controller.getRegionSnapshot(EAST, null, etag).getStatusCode())
+            .isEqualTo(HttpStatus.OK);
+    }
+}
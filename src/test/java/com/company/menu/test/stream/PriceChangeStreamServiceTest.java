@@ -0,0 +1,254 @@
+package com.company.menu.test.stream;
+
+import com.company.menu.domain.PriceHistory;
+import com.company.menu.event.PriceChangedEvent;
+import com.company.menu.service.PriceChangeStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 价格变更推送服务测试
+ *
+ * 对应 BDD 场景: "价格变更审批通过后自动生效" - POS、App、电子菜单板订阅价格变更
+ * - 按区域、产品过滤，全国价推送给所有区域
+ * - 缓冲区满时丢弃积压并要求重新同步
+ * - 订阅者上限
+ * - 写出卡住的订阅者被断开，定时线程不等待卡住的写出
+ *
+ * SSE 连接替换为记录写出帧的连接，不启动 Servlet 容器。
+ * 与 ResponseBodyEmitter 一致，写出和关闭连接持有同一把锁。
+ *
+ * @author AI-Generated via menu-pricing skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+class PriceChangeStreamServiceTest {
+
+    private final List<RecordingEmitter> emitters = Collections.synchronizedList(new ArrayList<>());
+
+    private PriceChangeStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::release);
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void deliversOnlyMatchingRegionAndProductAndNationalPricesToAllRegions() {
+        service = newService(16, 10, Duration.ofSeconds(10));
+        RecordingEmitter eastLatte = subscribe("华东区", "LATTE-GRANDE");
+        RecordingEmitter all = subscribe(null, null);
+        RecordingEmitter north = subscribe("华北区", null);
+
+        service.onPriceChanged(event("LATTE-GRANDE", "华东区"));
+        service.onPriceChanged(event("MOCHA-GRANDE", "华东区"));
+        service.onPriceChanged(event("LATTE-GRANDE", PriceHistory.NATIONAL_REGION));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> all.frames().size() == 3);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> eastLatte.frames().size() == 2);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> north.frames().size() == 1);
+
+        assertThat(eastLatte.frames()).allMatch(frame -> frame.contains("LATTE-GRANDE"));
+        assertThat(eastLatte.frames()).noneMatch(frame -> frame.contains("MOCHA-GRANDE"));
+        assertThat(north.frames()).singleElement()
+            .satisfies(frame -> assertThat(frame).contains(PriceHistory.NATIONAL_REGION));
+    }
+
+    @Test
+    void replacesBacklogWithResyncWhenBufferOverflows() {
+        service = newService(2, 10, Duration.ofSeconds(10));
+        RecordingEmitter slow = subscribe(null, null);
+        slow.block();
+
+        // 第一条变更被分发线程取出后卡在写出
+        service.onPriceChanged(event("LATTE-GRANDE", "华东区"));
+        await().atMost(5, TimeUnit.SECONDS).until(slow::isSending);
+
+        // 缓冲区容量 2，第三条溢出
+        service.onPriceChanged(event("AMERICANO-GRANDE", "华东区"));
+        service.onPriceChanged(event("MOCHA-GRANDE", "华东区"));
+        service.onPriceChanged(event("LATTE-GRANDE", "华北区"));
+        slow.release();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> slow.frames().size() == 2);
+        assertThat(slow.frames().get(0)).contains("price-change").contains("LATTE-GRANDE");
+        assertThat(slow.frames().get(1)).contains("resync");
+    }
+
+    @Test
+    void rejectsSubscribersAboveLimit() {
+        service = newService(16, 2, Duration.ofSeconds(10));
+        subscribe(null, null);
+        subscribe("华东区", null);
+
+        assertThat(service.subscribe("华北区", null)).isEmpty();
+        assertThat(service.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsSubscriberStuckInWriteWithoutBlockingScheduler() {
+        service = newService(16, 10, Duration.ofMillis(100));
+        RecordingEmitter stuck = subscribe(null, null);
+        stuck.block();
+
+        service.onPriceChanged(event("LATTE-GRANDE", "华东区"));
+        await().atMost(5, TimeUnit.SECONDS).until(stuck::isSending);
+
+        // 定时检查不能等待写出持有的锁
+        await().atMost(5, TimeUnit.SECONDS).pollInterval(Duration.ofMillis(50)).until(() -> {
+            assertTimeoutPreemptively(Duration.ofSeconds(1), service::evictStalledSubscribers);
+            return service.getSubscriberCount() == 0;
+        });
+        assertThat(stuck.failure).isNull();
+
+        // 已断开的订阅者不再接收变更
+        service.onPriceChanged(event("MOCHA-GRANDE", "华东区"));
+
+        // 容器写超时结束阻塞的写出后，由分发线程关闭连接
+        stuck.failWrite();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> stuck.failure != null);
+        assertThat(stuck.failure).isInstanceOf(TimeoutException.class);
+        assertThat(stuck.completedBy).startsWith("price-stream-dispatcher-");
+        assertThat(stuck.frames()).isEmpty();
+    }
+
+    private PriceChangeStreamService newService(int bufferSize, int maxSubscribers, Duration writeTimeout) {
+        return new PriceChangeStreamService(
+                new ObjectMapper().findAndRegisterModules(),
+                bufferSize,
+                maxSubscribers,
+                Duration.ofMinutes(30),
+                1,
+                writeTimeout) {
+
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(String regionCode, String productCode) {
+        assertThat(service.subscribe(regionCode, productCode)).isPresent();
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private static PriceChangedEvent event(String productCode, String regionCode) {
+        return new PriceChangedEvent(null, productCode, regionCode, List.of(),
+            new BigDecimal("36.00"), new BigDecimal("38.00"), LocalDateTime.now());
+    }
+
+    /**
+     * 记录写出帧的 SSE 连接，block 后写出卡住直到 release 或 failWrite
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = Collections.synchronizedList(new ArrayList<>());
+
+        // 与 ResponseBodyEmitter 的写锁一致，写出和关闭连接互斥
+        private final ReentrantLock writeLock = new ReentrantLock();
+
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile boolean writeFailed;
+        private volatile boolean sending;
+        private volatile Throwable failure;
+        private volatile String completedBy;
+
+        private RecordingEmitter(long timeoutMillis) {
+            super(timeoutMillis);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            writeLock.lock();
+            try {
+                sending = true;
+                gate.await();
+                if (writeFailed) {
+                    throw new IOException("写出超时");
+                }
+                frames.add(items.stream()
+                    .map(item -> String.valueOf(item.getData()))
+                    .collect(Collectors.joining()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                sending = false;
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void complete() {
+            writeLock.lock();
+            try {
+                completedBy = Thread.currentThread().getName();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            writeLock.lock();
+            try {
+                completedBy = Thread.currentThread().getName();
+                failure = ex;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        private void release() {
+            gate.countDown();
+        }
+
+        /**
+         * 模拟容器写超时: 卡住的写出抛出 IOException
+         */
+        private void failWrite() {
+            writeFailed = true;
+            release();
+        }
+
+        private boolean isSending() {
+            return sending;
+        }
+
+        private List<String> frames() {
+            synchronized (frames) {
+                return List.copyOf(frames);
+            }
+        }
+    }
+}
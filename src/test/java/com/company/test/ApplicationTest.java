@@ -0,0 +1,44 @@
+package com.company.test;
+
+import com.company.menu.integration.InventoryService;
+import com.company.menu.integration.MemberService;
+import com.company.menu.integration.PaymentGateway;
+import com.company.menu.integration.SmsService;
+import com.company.user.integration.EmailService;
+import com.company.user.integration.RateLimitService;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 完整应用测试
+ *
+ * 以随机端口启动完整应用（菜单和用户模块），所有外部系统以 Mock 代替，供跨模块的压测使用。
+ * 测试环境懒加载，定时任务和启动钩子仍在启动时创建（见 {@link EagerStartupBeans}）。
+ * 使用同一注解的测试共享 Spring 测试上下文缓存中的同一个上下文；只涉及单个模块时优先使用
+ * {@link com.company.menu.test.config.MenuModuleTest} 或 {@link com.company.user.test.config.UserModuleTest}。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(EagerStartupBeans.class)
+@MockBean({
+    InventoryService.class, PaymentGateway.class, SmsService.class, MemberService.class,
+    EmailService.class, RateLimitService.class})
+public @interface ApplicationTest {
+}
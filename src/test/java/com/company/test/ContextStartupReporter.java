@@ -0,0 +1,54 @@
+package com.company.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测试上下文启动耗时报告
+ *
+ * 在依赖注入之前检查测试类的 Spring 上下文是否已在缓存中:
+ * 未缓存时计时启动并输出耗时，已缓存时记录复用，便于发现配置不一致导致的重复启动。
+ *
+ * 通过 META-INF/spring.factories 注册，对所有 Spring 测试（含 Cucumber 运行器）生效。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class ContextStartupReporter implements TestExecutionListener, Ordered {
+
+    // 测试类 → 累计上下文启动耗时（毫秒）
+    private static final Map<String, Long> STARTUP_MILLIS = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeTestClass(TestContext testContext) {
+        String suite = testContext.getTestClass().getSimpleName();
+        if (testContext.hasApplicationContext()) {
+            log.debug("复用已缓存的 Spring 上下文 - 测试: {}", suite);
+            return;
+        }
+
+        long started = System.nanoTime();
+        testContext.getApplicationContext();
+        long elapsed = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        long total = STARTUP_MILLIS.merge(suite, elapsed, Long::sum);
+        log.info("Spring 上下文启动 - 测试: {}, 耗时: {}ms, 该测试累计: {}ms, 全部测试累计: {}ms",
+            suite, elapsed, total, STARTUP_MILLIS.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * 先于依赖注入等默认监听器执行，计时只包含上下文启动
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,82 @@
+package com.company.test;
+
+import com.company.menu.archive.PriceHistoryArchiveService;
+import com.company.menu.service.PriceChangeStreamService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 测试环境懒加载的例外
+ *
+ * 测试配置开启 spring.main.lazy-initialization，只创建测试实际用到的 Bean:
+ * springdoc、价格历史归档、价格变更推送 (SSE) 以及只有压测使用的 Bean 在用到时才创建。
+ * 定时任务和启动钩子不会被测试代码引用，懒加载时永远不会创建，因此仍在启动时创建:
+ * - 含 @Scheduled 方法的 Bean
+ * - 有 @PostConstruct 启动逻辑、或监听应用启动事件的 Bean
+ * - SmartLifecycle、ApplicationRunner、CommandLineRunner
+ *
+ * 价格历史归档（测试中关闭）和价格变更推送（心跳和断开检查只在有订阅者时需要）虽有定时任务，仍按需创建；
+ * 推送服务在首次收到价格变更事件或订阅时创建，其定时任务随之注册。
+ *
+ * 有意不标注 @Configuration，由测试切片和 {@link ApplicationTest} 显式导入。
+ *
+ * @author AI-Generated
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class EagerStartupBeans {
+
+    // 有定时任务但在测试中按需创建
+    private static final Set<Class<?>> ON_DEMAND = Set.of(
+        PriceHistoryArchiveService.class,
+        PriceChangeStreamService.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter schedulersAndStartupHooks() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+            && !ON_DEMAND.contains(beanType)
+            && (isStartupType(beanType) || Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> isScheduled(method) || isStartupHook(method)));
+    }
+
+    private static boolean isStartupType(Class<?> beanType) {
+        return SmartLifecycle.class.isAssignableFrom(beanType)
+            || ApplicationRunner.class.isAssignableFrom(beanType)
+            || CommandLineRunner.class.isAssignableFrom(beanType);
+    }
+
+    private static boolean isScheduled(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+            || AnnotatedElementUtils.hasAnnotation(method, Schedules.class);
+    }
+
+    private static boolean isStartupHook(Method method) {
+        if (AnnotatedElementUtils.hasAnnotation(method, PostConstruct.class)) {
+            return true;
+        }
+        EventListener listener = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+        if (listener == null) {
+            return false;
+        }
+        // 监听的事件: 注解指定的类型，未指定时为方法参数类型
+        return Stream.concat(Arrays.stream(listener.classes()), Arrays.stream(method.getParameterTypes()))
+            .anyMatch(event -> SpringApplicationEvent.class.isAssignableFrom(event)
+                || ApplicationContextEvent.class.isAssignableFrom(event));
+    }
+}
@@ -1,7 +1,13 @@
 package com.company.user.test.bdd;
 
+import com.company.common.SnowflakeIdGenerator;
 import com.company.user.domain.User;
+import com.company.user.domain.VerificationToken;
+import com.company.user.integration.EmailService;
+import com.company.user.repository.UserRepository;
+import com.company.user.repository.VerificationTokenRepository;
 import com.company.user.service.UserRegistrationService;
+import com.company.user.service.VerificationTokenService;
 import com.company.menu.test.bdd.context.ScenarioContext;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.zh_cn.假如;
@@ -10,11 +16,15 @@ import io.cucumber.java.zh_cn.那么;
 import io.cucumber.java.zh_cn.并且;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 /**
  * 用户注册测试步骤定义
@@ -31,15 +41,29 @@ import static org.assertj.core.api.Assertions.assertThat;
  * @since 2026-02-05
  */
 @Slf4j
-@SpringBootTest
 public class UserRegistrationSteps {
 
     @Autowired
     private UserRegistrationService registrationService;
 
+    @Autowired
+    private VerificationTokenService tokenService;
+
+    @Autowired
+    private VerificationTokenRepository tokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
     @Autowired
     private ScenarioContext scenarioContext;
 
+    @Autowired
+    private EmailService emailService;
+
     // ==================== 外部依赖 Mock 配置 ====================
     // 在真实项目中，取消以下注释以启用 MockBean：
     //
@@ -85,8 +109,9 @@ public class UserRegistrationSteps {
     @假如("数据库中没有用户 {string}")
     @并且("数据库中没有用户 {string}")
     public void 数据库中没有用户(String email) {
+        // 用户表在每个场景开始前由 UserScenarioHooks 清空
+        assertThat(userRepository.existsByEmail(email)).isFalse();
         log.info("✓ 确认用户 {} 不存在", email);
-        // 实际应该清理测试数据
         scenarioContext.addState("existing_users", new java.util.HashSet<String>());
     }
 
@@ -106,17 +131,39 @@ public class UserRegistrationSteps {
 
     @假如("用户 {string} 已注册但未验证")
     public void 用户已注册但未验证(String email) {
-        User user = User.builder()
+        User user = userRepository.save(User.builder()
+            .id(idGenerator.nextId())
             .email(email)
             .username("测试用户")
             .status(User.UserStatus.PENDING_VERIFICATION)
-            .verificationToken("test-token-123")
-            .build();
+            .build());
 
         scenarioContext.addState("pending_user", user);
+        scenarioContext.addState("verification_token", tokenService.issueToken(user.getId()));
         log.info("✓ 用户 {} 已注册但未验证", email);
     }
 
+    @假如("用户 {string} 的验证链接已过期")
+    public void 用户的验证链接已过期(String email) {
+        User user = userRepository.save(User.builder()
+            .id(idGenerator.nextId())
+            .email(email)
+            .username("测试用户")
+            .status(User.UserStatus.PENDING_VERIFICATION)
+            .build());
+
+        VerificationToken expired = tokenRepository.save(VerificationToken.builder()
+            .token(UUID.randomUUID())
+            .userId(user.getId())
+            .createdAt(LocalDateTime.now().minusDays(2))
+            .expiresAt(LocalDateTime.now().minusDays(1))
+            .build());
+
+        scenarioContext.addState("pending_user", user);
+        scenarioContext.addState("verification_token", VerificationToken.encode(expired.getToken()));
+        log.info("✓ 用户 {} 的验证链接已过期", email);
+    }
+
     @假如("IP地址 {string} 在1分钟内已注册3次")
     public void IP地址在1分钟内已注册3次(String ipAddress) {
         scenarioContext.addState("blocked_ip", ipAddress);
@@ -135,7 +182,8 @@ public class UserRegistrationSteps {
 
     @当("用户填写注册信息:")
     public void 用户填写注册信息(DataTable dataTable) {
-        Map<String, String> data = dataTable.asMaps().get(0);
+        // 两列表格: 字段 | 值
+        Map<String, String> data = dataTable.asMap(String.class, String.class);
 
         String email = data.get("邮箱");
         String username = data.get("用户名");
@@ -213,8 +261,7 @@ public class UserRegistrationSteps {
 
     @当("用户点击验证邮件中的链接")
     public void 用户点击验证邮件中的链接() {
-        User user = scenarioContext.getState("pending_user", User.class);
-        String token = user.getVerificationToken();
+        String token = scenarioContext.getState("verification_token", String.class);
 
         log.info("用户点击验证链接 - 令牌: {}", token);
 
@@ -286,18 +333,11 @@ public class UserRegistrationSteps {
     @那么("系统应该发送验证邮件到 {string}")
     @并且("系统应该发送验证邮件到 {string}")
     public void 系统应该发送验证邮件到(String email) {
-        // ==================== Mock 验证方式 ====================
-        // 在真实项目中，启用 @MockBean 后使用 Mockito verify 验证邮件发送:
-        //
-        // verify(emailService, times(1))
-        //     .sendVerificationEmail(eq(email), anyString());
-        //
-        // 也可以使用 ArgumentCaptor 捕获验证令牌，用于后续邮箱验证场景:
-        // ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
-        // verify(emailService).sendVerificationEmail(eq(email), tokenCaptor.capture());
-        // String capturedToken = tokenCaptor.getValue();
-        // assertThat(capturedToken).isNotBlank();
-        // ==============================================================
+        // 验证邮件在事务提交后由发送线程异步批量发送，emailService 为 UserModuleTest 声明的 Mock
+        verify(emailService, timeout(5000).atLeastOnce())
+            .sendVerificationEmails(argThat(batch -> batch.stream()
+                .anyMatch(message -> message.getEmail().equals(email)
+                    && message.getVerificationToken() != null)));
 
         log.info("✓ 验证通过: 验证邮件已发送到 {}", email);
     }
@@ -360,6 +400,14 @@ public class UserRegistrationSteps {
         log.info("✓ 验证通过: 邮箱验证成功");
     }
 
+    @那么("邮箱验证应该失败")
+    public void 邮箱验证应该失败() {
+        Boolean success = scenarioContext.getState("verification_success", Boolean.class);
+        assertThat(success).isFalse();
+
+        log.info("✓ 验证通过: 邮箱验证失败");
+    }
+
     @那么("应该显示欢迎页面")
     @并且("应该显示欢迎页面")
     public void 应该显示欢迎页面() {
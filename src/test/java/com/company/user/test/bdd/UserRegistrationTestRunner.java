@@ -0,0 +1,35 @@
+package com.company.user.test.bdd;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.ANSI_COLORS_DISABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+/**
+ * 用户注册场景运行器
+ *
+ * 对应 BDD 场景: behaviors/user/user_registration.feature
+ * - 步骤定义与 Spring 上下文配置均在 com.company.user.test.bdd 下，与菜单模块的 glue 互不加载
+ *
+ * 执行方式: mvn test -Dtest=UserRegistrationTestRunner
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("behaviors/user/user_registration.feature")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.company.user.test.bdd")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value =
+    "pretty,"
+    + "junit:target/cucumber-reports/user-registration.xml")
+@ConfigurationParameter(key = ANSI_COLORS_DISABLED_PROPERTY_NAME, value = "true")
+@ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "not @skip")
+public class UserRegistrationTestRunner {
+}
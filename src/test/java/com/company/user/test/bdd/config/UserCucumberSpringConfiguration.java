@@ -0,0 +1,25 @@
+package com.company.user.test.bdd.config;
+
+import com.company.menu.test.bdd.config.WorkerDatabaseCustomizerFactory;
+import com.company.user.test.config.UserModuleTest;
+import io.cucumber.spring.CucumberContextConfiguration;
+import org.springframework.test.context.ContextCustomizerFactories;
+
+/**
+ * 用户注册 BDD 的 Cucumber Spring 上下文配置
+ *
+ * 对应 BDD 场景: behaviors/user/user_registration.feature
+ *
+ * 用户模块的步骤定义位于独立的 glue (com.company.user.test.bdd)，由 UserRegistrationTestRunner 运行，
+ * 只加载用户模块切片 ({@link UserModuleTest})，邮件服务和频率限制服务以 Mock 代替。
+ * 与菜单模块一样按工作线程隔离上下文和 H2 数据库。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@CucumberContextConfiguration
+@UserModuleTest
+@ContextCustomizerFactories(WorkerDatabaseCustomizerFactory.class)
+public class UserCucumberSpringConfiguration {
+}
@@ -0,0 +1,36 @@
+package com.company.user.test.bdd.hooks;
+
+import com.company.user.repository.EmailDeadLetterRepository;
+import com.company.user.repository.UserRepository;
+import com.company.user.repository.VerificationTokenRepository;
+import io.cucumber.java.Before;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 用户注册场景钩子
+ *
+ * 同一工作线程上的场景共用一个数据库，多个场景注册同一邮箱（如 zhang@example.com），
+ * 每个场景开始前清空用户相关表，避免唯一索引冲突。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+public class UserScenarioHooks {
+
+    @Autowired
+    private VerificationTokenRepository tokenRepository;
+
+    @Autowired
+    private EmailDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Before(order = 0)
+    public void clearUsers() {
+        tokenRepository.deleteAllInBatch();
+        deadLetterRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,37 @@
+package com.company.user.test.config;
+
+import com.company.menu.test.bdd.context.ScenarioContext;
+import com.company.test.EagerStartupBeans;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 用户模块测试切片
+ *
+ * 只加载用户注册模块（com.company.user）和公共组件（com.company.common），
+ * 不创建菜单定价模块的 Bean；BDD 步骤共用的 ScenarioContext 单独导入。
+ * 测试环境懒加载，定时任务和启动钩子仍在启动时创建（见 {@link EagerStartupBeans}）。
+ *
+ * 有意不标注 @Configuration: 完整应用的组件扫描覆盖测试类路径，
+ * 只有通过 @SpringBootTest(classes = ...) 显式指定时才会生效。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@EnableAutoConfiguration
+@EnableScheduling
+@ComponentScan(
+    basePackages = {"com.company.user", "com.company.common"},
+    excludeFilters = @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class))
+@EntityScan("com.company.user.domain")
+@EnableJpaRepositories("com.company.user.repository")
+@Import({ScenarioContext.class, EagerStartupBeans.class})
+public class UserModule {
+}
@@ -0,0 +1,34 @@
+package com.company.user.test.config;
+
+import com.company.user.integration.EmailService;
+import com.company.user.integration.RateLimitService;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 用户模块测试
+ *
+ * 加载 {@link UserModule} 切片，邮件服务和频率限制服务以 Mock 代替。
+ * 使用同一注解的测试共享 Spring 测试上下文缓存中的同一个上下文。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest(classes = UserModule.class)
+@ActiveProfiles("test")
+@MockBean({EmailService.class, RateLimitService.class})
+public @interface UserModuleTest {
+}
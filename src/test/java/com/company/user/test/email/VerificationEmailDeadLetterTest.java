@@ -0,0 +1,91 @@
+package com.company.user.test.email;
+
+import com.company.user.domain.EmailDeadLetter;
+import com.company.user.integration.EmailService;
+import com.company.user.repository.EmailDeadLetterRepository;
+import com.company.user.service.VerificationEmailDispatcher;
+import com.company.user.test.config.UserModuleTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 验证邮件死信落库测试
+ *
+ * 对应 BDD 场景: "成功注册新用户" - "系统应该发送验证邮件"
+ * - 注册事务提交后队列已满，死信在独立事务中写入，不随已提交的注册事务丢失
+ * - 停止时未发送的邮件写入死信
+ *
+ * 发送器单独创建且不启动发送线程，邮件只进入队列。
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+@UserModuleTest
+class VerificationEmailDeadLetterTest {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private VerificationEmailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        deadLetterRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void persistsDeadLetterWhenQueueIsFullAfterCommit() {
+        dispatcher = newDispatcher(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dispatcher.enqueueAfterCommit(1L, "a@example.com", "token-a");
+            dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        });
+
+        assertThat(deadLetterRepository.findAll()).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getUserId()).isEqualTo(2L);
+            assertThat(deadLetter.getEmail()).isEqualTo("b@example.com");
+            assertThat(deadLetter.getFailureReason()).isEqualTo("发送队列已满");
+        });
+        assertThat(dispatcher.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void persistsUnsentEmailsOnStop() {
+        dispatcher = newDispatcher(10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dispatcher.enqueueAfterCommit(1L, "a@example.com", "token-a");
+            dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        });
+        dispatcher.stop();
+
+        assertThat(deadLetterRepository.findAll())
+            .extracting(EmailDeadLetter::getUserId)
+            .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(dispatcher.getPendingCount()).isZero();
+    }
+
+    private VerificationEmailDispatcher newDispatcher(int queueCapacity) {
+        return new VerificationEmailDispatcher(
+            emailService, deadLetterRepository, transactionManager,
+            queueCapacity, 1, 50, 3, Duration.ofMillis(10));
+    }
+}
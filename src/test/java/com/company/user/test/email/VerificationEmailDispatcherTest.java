@@ -0,0 +1,223 @@
+package com.company.user.test.email;
+
+import com.company.user.domain.EmailDeadLetter;
+import com.company.user.integration.EmailService;
+import com.company.user.integration.dto.VerificationEmail;
+import com.company.user.repository.EmailDeadLetterRepository;
+import com.company.user.service.VerificationEmailDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 验证邮件异步发送器测试
+ *
+ * 对应 BDD 场景: "成功注册新用户" - "系统应该发送验证邮件"
+ * - 排队的邮件按批发送
+ * - 发送失败的邮件单独重试，成功后不进入死信
+ * - 重试耗尽或队列已满时写入死信，只记录用户ID
+ * - 停止时队列中和等待重试的邮件写入死信
+ *
+ * @author AI-Generated via user-registration skill
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+class VerificationEmailDispatcherTest {
+
+    private static final Duration BACKOFF = Duration.ofMillis(10);
+
+    private final RecordingEmailService emailService = new RecordingEmailService();
+    private final EmailDeadLetterRepository deadLetterRepository = mock(EmailDeadLetterRepository.class);
+
+    private VerificationEmailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void sendsQueuedEmailsInOneBatch() {
+        dispatcher = newDispatcher(100, 3);
+        dispatcher.enqueueAfterCommit(1L, "a@example.com", "token-a");
+        dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        dispatcher.enqueueAfterCommit(3L, "c@example.com", "token-c");
+        dispatcher.start();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> emailService.batches().size() == 1);
+        assertThat(emailService.batches().get(0))
+            .extracting(VerificationEmail::getEmail)
+            .containsExactly("a@example.com", "b@example.com", "c@example.com");
+    }
+
+    @Test
+    void retriesOnlyFailedEmailsUntilSent() {
+        emailService.failTimes("b@example.com", 2);
+        dispatcher = newDispatcher(100, 3);
+        dispatcher.enqueueAfterCommit(1L, "a@example.com", "token-a");
+        dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        dispatcher.start();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> emailService.sent().contains("b@example.com"));
+        assertThat(emailService.sent()).containsExactly("a@example.com", "b@example.com");
+        assertThat(emailService.attempts("b@example.com")).isEqualTo(3);
+        verify(deadLetterRepository, after(200).never()).saveAll(any());
+    }
+
+    @Test
+    void deadLettersEmailWhenRetriesAreExhausted() {
+        emailService.failTimes("b@example.com", Integer.MAX_VALUE);
+        dispatcher = newDispatcher(100, 3);
+        dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        dispatcher.start();
+
+        EmailDeadLetter deadLetter = deadLetters(5000).get(0);
+        assertThat(deadLetter.getUserId()).isEqualTo(2L);
+        assertThat(deadLetter.getEmail()).isEqualTo("b@example.com");
+        assertThat(deadLetter.getAttempts()).isEqualTo(3);
+        assertThat(deadLetter.getFailureReason()).isEqualTo("重试次数耗尽");
+        assertThat(emailService.attempts("b@example.com")).isEqualTo(3);
+    }
+
+    @Test
+    void deadLettersEmailWhenQueueIsFull() {
+        dispatcher = newDispatcher(1, 3);
+        dispatcher.enqueueAfterCommit(1L, "a@example.com", "token-a");
+        dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+
+        assertThat(deadLetters(0)).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getUserId()).isEqualTo(2L);
+            assertThat(deadLetter.getFailureReason()).isEqualTo("发送队列已满");
+        });
+        assertThat(dispatcher.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deadLettersRetryingEmailsOnStop() {
+        emailService.failTimes("b@example.com", Integer.MAX_VALUE);
+        dispatcher = newDispatcher(100, 3, Duration.ofMinutes(10));
+        dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        dispatcher.start();
+
+        // 第一次发送失败后等待重试
+        await().atMost(5, TimeUnit.SECONDS).until(() -> emailService.attempts("b@example.com") == 1);
+        dispatcher.stop();
+
+        assertThat(deadLetters(0)).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getUserId()).isEqualTo(2L);
+            assertThat(deadLetter.getAttempts()).isEqualTo(1);
+            assertThat(deadLetter.getFailureReason()).isEqualTo("服务停止时未发送");
+        });
+    }
+
+    @Test
+    void deadLettersQueuedEmailsOnStop() {
+        dispatcher = newDispatcher(100, 3);
+        dispatcher.enqueueAfterCommit(1L, "a@example.com", "token-a");
+        dispatcher.enqueueAfterCommit(2L, "b@example.com", "token-b");
+        dispatcher.stop();
+
+        assertThat(deadLetters(0))
+            .extracting(EmailDeadLetter::getUserId)
+            .containsExactly(1L, 2L);
+        assertThat(dispatcher.getPendingCount()).isZero();
+        assertThat(emailService.batches()).isEmpty();
+    }
+
+    /**
+     * 合并所有写入的死信
+     *
+     * @param timeoutMillis 等待第一次写入的时间
+     */
+    @SuppressWarnings("unchecked")
+    private List<EmailDeadLetter> deadLetters(long timeoutMillis) {
+        ArgumentCaptor<Iterable<EmailDeadLetter>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(deadLetterRepository, timeout(timeoutMillis).atLeastOnce()).saveAll(captor.capture());
+        List<EmailDeadLetter> deadLetters = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(deadLetters::add));
+        return deadLetters;
+    }
+
+    private VerificationEmailDispatcher newDispatcher(int queueCapacity, int maxAttempts) {
+        return newDispatcher(queueCapacity, maxAttempts, BACKOFF);
+    }
+
+    private VerificationEmailDispatcher newDispatcher(int queueCapacity, int maxAttempts, Duration backoff) {
+        // 事务管理器以 Mock 代替，死信写入的事务边界由 VerificationEmailDeadLetterTest 在真实数据库上验证
+        return new VerificationEmailDispatcher(
+            emailService, deadLetterRepository, mock(PlatformTransactionManager.class),
+            queueCapacity, 1, 50, maxAttempts, backoff);
+    }
+
+    /**
+     * 记录每批邮件的邮件服务，可指定某个邮箱的前若干次发送失败
+     */
+    private static final class RecordingEmailService implements EmailService {
+
+        private final List<List<VerificationEmail>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, Integer> failuresLeft = new ConcurrentHashMap<>();
+        private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+        @Override
+        public void sendVerificationEmail(String email, String verificationToken) {
+            throw new UnsupportedOperationException("发送器只使用批量发送");
+        }
+
+        @Override
+        public List<VerificationEmail> sendVerificationEmails(List<VerificationEmail> emails) {
+            batches.add(List.copyOf(emails));
+            List<VerificationEmail> failed = new ArrayList<>();
+            for (VerificationEmail email : emails) {
+                attempts.merge(email.getEmail(), 1, Integer::sum);
+                Integer left = failuresLeft.computeIfPresent(email.getEmail(), (key, value) -> value - 1);
+                if (left != null && left >= 0) {
+                    failed.add(email);
+                } else {
+                    sent.add(email.getEmail());
+                }
+            }
+            return failed;
+        }
+
+        private void failTimes(String email, int times) {
+            failuresLeft.put(email, times);
+        }
+
+        private List<List<VerificationEmail>> batches() {
+            synchronized (batches) {
+                return List.copyOf(batches);
+            }
+        }
+
+        private List<String> sent() {
+            synchronized (sent) {
+                return List.copyOf(sent);
+            }
+        }
+
+        private int attempts(String email) {
+            return attempts.getOrDefault(email, 0);
+        }
+    }
+}